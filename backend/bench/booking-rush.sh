@@ -0,0 +1,62 @@
+#!/usr/bin/env bash
+# Пик открытия дня: много одновременных POST /api/bookings/create на несколько слотов одной машинки.
+# Для сравнения запустить backend с BOOKING_ADMISSION_ENABLED=true и =false (ограничение частоты выключить:
+# RATE_LIMIT_ENABLED=false, иначе запросы с одного адреса упрутся в правило booking).
+# Каждый уровень конкуренции - отдельный прогон на свежей дате (--date), иначе слоты уже заняты прошлым.
+# Нужны curl, jq и xargs; пользователи берутся из GET /api/admin/users.
+#
+# Запуск из каталога backend:
+#   bench/booking-rush.sh [--url http://localhost:8080] [--date 2025-02-01] [--clients 64] [--requests 2000] [--slots 4]
+# Результаты дописываются в bench/results/booking-rush.csv
+
+set -euo pipefail
+
+URL=http://localhost:8080
+DATE=$(date -d "+1 day" +%F)
+CLIENTS=64
+REQUESTS=2000
+SLOTS=4
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --url) URL="$2"; shift ;;
+        --date) DATE="$2"; shift ;;
+        --clients) CLIENTS="$2"; shift ;;
+        --requests) REQUESTS="$2"; shift ;;
+        --slots) SLOTS="$2"; shift ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+RESULTS=bench/results/booking-rush.csv
+mkdir -p bench/results
+[[ -f "$RESULTS" ]] || echo "date,clients,requests,slots,seconds,requests_per_second,created" > "$RESULTS"
+
+mapfile -t USERS < <(curl -sf "$URL/api/admin/users" | jq -r '.[] | select(.isBlocked | not) | .id')
+SCHEDULE=$(curl -sf "$URL/api/schedule?date=$DATE&userId=${USERS[0]}")
+MACHINE=$(jq -r '.machines[0].id' <<< "$SCHEDULE")
+mapfile -t SLOT_IDS < <(jq -r --arg m "$MACHINE" \
+    '[.timeslots[] | select(.machineId == $m and .isAvailable)][0:'"$SLOTS"'][] | .id' <<< "$SCHEDULE")
+if [[ ${#SLOT_IDS[@]} -eq 0 ]]; then
+    echo "no free slots on $DATE" >&2
+    exit 1
+fi
+
+# Команды: случайный пользователь на случайный из горячих слотов
+for i in $(seq "$REQUESTS"); do
+    echo "${USERS[RANDOM % ${#USERS[@]}]} ${SLOT_IDS[RANDOM % ${#SLOT_IDS[@]}]}"
+done > /tmp/booking-rush.commands
+
+start=$(date +%s.%N)
+xargs -P "$CLIENTS" -L 1 sh -c \
+    "curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d \"{\\\"userId\\\":\\\"\$0\\\",\\\"machineId\\\":\\\"$MACHINE\\\",\\\"slotId\\\":\\\"\$1\\\"}\" \
+        '$URL/api/bookings/create'" < /tmp/booking-rush.commands
+seconds=$(echo "$(date +%s.%N) - $start" | bc)
+
+created=$(curl -sf "$URL/api/schedule?date=$DATE&userId=${USERS[0]}" \
+    | jq --arg m "$MACHINE" '[.bookings[] | select(.machineId == $m and .state == "active")] | length')
+rps=$(echo "scale=1; $REQUESTS / $seconds" | bc)
+echo "$DATE,$CLIENTS,$REQUESTS,${#SLOT_IDS[@]},$seconds,$rps,$created" | tee -a "$RESULTS"
+curl -sf "$URL/api/admin/stats/admission"
+echo
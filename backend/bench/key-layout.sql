@@ -0,0 +1,58 @@
+-- Сравнение раскладки ключей: VARCHAR(255) со случайным UUID + текстовый state
+-- против нативного UUID v7 + SMALLINT state.
+-- Запуск (после старта приложения, чтобы существовала функция uuid_generate_v7):
+--   psql -h localhost -U laundry_user -d laundry_db -v rows=500000 -f bench/key-layout.sql
+-- Таблицы временные и исчезают вместе с сессией.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 200000
+\endif
+\timing on
+
+CREATE TEMP TABLE bench_bookings_before (
+    id VARCHAR(255) PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    slot_id VARCHAR(255) NOT NULL,
+    state VARCHAR(50) NOT NULL
+);
+CREATE INDEX ON bench_bookings_before (user_id, state);
+CREATE INDEX ON bench_bookings_before (slot_id);
+
+CREATE TEMP TABLE bench_bookings_after (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    slot_id UUID NOT NULL,
+    state SMALLINT NOT NULL
+);
+CREATE INDEX ON bench_bookings_after (user_id, state);
+CREATE INDEX ON bench_bookings_after (slot_id);
+
+-- Время вставки печатает \timing; строки приходят в индекс по одной, в порядке генерации ключей
+\echo 'before: VARCHAR(255) + gen_random_uuid()'
+INSERT INTO bench_bookings_before
+SELECT gen_random_uuid()::text, gen_random_uuid()::text, gen_random_uuid()::text, 'active'
+FROM generate_series(1, :rows);
+
+\echo 'after: UUID + uuid_generate_v7()'
+INSERT INTO bench_bookings_after
+SELECT uuid_generate_v7(), uuid_generate_v7(), uuid_generate_v7(), 1
+FROM generate_series(1, :rows);
+
+\timing off
+
+SELECT relname                                     AS "table",
+       pg_size_pretty(pg_relation_size(oid))       AS heap,
+       pg_size_pretty(pg_indexes_size(oid))        AS indexes,
+       pg_size_pretty(pg_total_relation_size(oid)) AS total
+FROM pg_class
+WHERE relname IN ('bench_bookings_before', 'bench_bookings_after')
+ORDER BY relname DESC;
+
+-- Размер каждого индекса отдельно
+SELECT indexrelid::regclass AS "index",
+       pg_size_pretty(pg_relation_size(indexrelid)) AS size
+FROM pg_index
+WHERE indrelid IN ('bench_bookings_before'::regclass, 'bench_bookings_after'::regclass)
+ORDER BY 1;
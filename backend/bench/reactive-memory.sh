@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Память и потоки на одно одновременное соединение: основной backend (Tomcat + JDBC)
+# против реактивного (Netty + R2DBC). Клиенты читают GET /api/admin/bookings с ограничением скорости,
+# поэтому соединения и ответы остаются открытыми, пока снимаются показатели контейнера.
+#
+# Нужны запущенные контейнеры: docker compose --profile reactive up -d
+# Запуск из каталога backend:
+#   bench/reactive-memory.sh [--clients "50 200 1000"] [--rate 2k] [--hold 10]
+# Результаты дописываются в bench/results/reactive-memory.csv
+
+set -euo pipefail
+
+CLIENTS="50 200 1000"
+RATE=2k
+HOLD=10
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --clients) CLIENTS="$2"; shift ;;
+        --rate) RATE="$2"; shift ;;
+        --hold) HOLD="$2"; shift ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+TARGETS=("mvc laundry-backend 8080" "reactive laundry-backend-reactive 8081")
+RESULTS=bench/results/reactive-memory.csv
+mkdir -p bench/results
+[[ -f "$RESULTS" ]] || echo "target,clients,rss_idle_mb,rss_load_mb,kb_per_connection,threads_idle,threads_load" > "$RESULTS"
+
+rss_mb() {
+    docker exec "$1" sh -c 'grep VmRSS /proc/1/status' | awk '{ printf "%.1f", $2 / 1024 }'
+}
+
+threads() {
+    docker exec "$1" sh -c 'grep Threads /proc/1/status' | awk '{ print $2 }'
+}
+
+for target in "${TARGETS[@]}"; do
+    read -r name container port <<< "$target"
+    url="http://localhost:${port}/api/admin/bookings"
+    curl -sf -o /dev/null "$url"
+
+    for clients in $CLIENTS; do
+        idle_rss=$(rss_mb "$container")
+        idle_threads=$(threads "$container")
+
+        pids=()
+        for _ in $(seq "$clients"); do
+            curl -s -o /dev/null --limit-rate "$RATE" --max-time $((HOLD + 30)) "$url" &
+            pids+=($!)
+        done
+        sleep "$HOLD"
+        load_rss=$(rss_mb "$container")
+        load_threads=$(threads "$container")
+        kill "${pids[@]}" 2>/dev/null || true
+        wait 2>/dev/null || true
+
+        per_connection=$(echo "($load_rss - $idle_rss) * 1024 / $clients" | bc -l)
+        printf '%-9s clients=%-5s rss %7s -> %7s MB  %6.1f KB/conn  threads %s -> %s\n' \
+            "$name" "$clients" "$idle_rss" "$load_rss" "$per_connection" "$idle_threads" "$load_threads"
+        echo "$name,$clients,$idle_rss,$load_rss,$(printf '%.1f' "$per_connection"),$idle_threads,$load_threads" >> "$RESULTS"
+        sleep 5
+    done
+done
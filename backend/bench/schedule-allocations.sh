@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Память, выделяемая на загрузку расписания (GET /api/admin/stats/allocations).
+# Запросы идут последовательно, чтобы каждый выполнял свою загрузку, а не ждал чужую (SingleFlight).
+# Для сравнения запустить backend с SCHEDULE_READ_PATH=projection, =entity и =json-agg и сравнить avgBytes.
+#
+# Запуск из каталога backend:
+#   bench/schedule-allocations.sh [--url http://localhost:8080] [--days 14] [--rounds 20]
+
+set -euo pipefail
+
+URL=http://localhost:8080
+DAYS=14
+ROUNDS=20
+USER_ID=018f0000-0000-7000-8000-000000000001
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --url) URL="$2"; shift ;;
+        --days) DAYS="$2"; shift ;;
+        --rounds) ROUNDS="$2"; shift ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+for _ in $(seq "$ROUNDS"); do
+    for offset in $(seq 0 $((DAYS - 1))); do
+        curl -sf -o /dev/null "$URL/api/schedule?date=$(date -d "+$offset day" +%F)&userId=$USER_ID"
+    done
+    curl -sf -o /dev/null "$URL/api/schedule/range?from=$(date +%F)&to=$(date -d "+$((DAYS - 1)) day" +%F)&userId=$USER_ID"
+done
+
+curl -sf "$URL/api/admin/stats/allocations"
+echo
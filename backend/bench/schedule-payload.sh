@@ -0,0 +1,41 @@
+#!/usr/bin/env bash
+# Размер ответа и среднее время запроса расписания: v1 (JSON) против v2 (JSON, CBOR, Smile).
+# Нужен запущенный backend (docker compose up); CBOR/Smile - при сборке с профилем binary-formats.
+#
+# Запуск из каталога backend:
+#   bench/schedule-payload.sh [--url http://localhost:8080] [--date 2024-12-17] [--requests N]
+
+set -euo pipefail
+
+URL=http://localhost:8080
+DATE=$(date +%F)
+REQUESTS=200
+USER_ID=018f0000-0000-7000-8000-000000000001
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --url) URL="$2"; shift ;;
+        --date) DATE="$2"; shift ;;
+        --requests) REQUESTS="$2"; shift ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+measure() {
+    local name="$1" path="$2" accept="$3"
+    local size total=0
+    size=$(curl -sf -H "Accept: $accept" -o /dev/null -w '%{size_download}' "$URL$path") || {
+        printf '%-12s %10s\n' "$name" "n/a"
+        return
+    }
+    for _ in $(seq "$REQUESTS"); do
+        total=$(echo "$total + $(curl -sf -H "Accept: $accept" -o /dev/null -w '%{time_total}' "$URL$path")" | bc -l)
+    done
+    printf '%-12s %10s %12.2f\n' "$name" "$size" "$(echo "$total * 1000 / $REQUESTS" | bc -l)"
+}
+
+printf '%-12s %10s %12s\n' format bytes avg_ms
+measure v1-json "/api/schedule?date=$DATE&userId=$USER_ID" application/json
+measure v2-json "/api/schedule/v2?date=$DATE&userId=$USER_ID" application/json
+measure v2-cbor "/api/schedule/v2?date=$DATE&userId=$USER_ID" application/cbor
+measure v2-smile "/api/schedule/v2?date=$DATE&userId=$USER_ID" application/x-jackson-smile
@@ -0,0 +1,114 @@
+#!/usr/bin/env bash
+# Время до первого успешного запроса и RSS процесса для вариантов образа backend:
+#   jar    - Dockerfile (java -jar)
+#   fast   - Dockerfile.fast (AOT + распакованные слои + CDS)
+#   native - Dockerfile.native (GraalVM native image), только с --native
+#
+# Запуск из каталога backend:
+#   bench/startup.sh [--native] [--runs N] [--skip-build]
+# Результаты дописываются в bench/results/startup.csv
+
+set -euo pipefail
+
+RUNS=3
+VARIANTS=(jar fast)
+BUILD=1
+while [[ $# -gt 0 ]]; do
+    case "$1" in
+        --native) VARIANTS+=(native) ;;
+        --runs) RUNS="$2"; shift ;;
+        --skip-build) BUILD=0 ;;
+        *) echo "unknown option: $1" >&2; exit 1 ;;
+    esac
+    shift
+done
+
+NETWORK=laundry-bench
+DB=laundry-bench-postgres
+APP=laundry-bench-backend
+PORT=18080
+RESULTS=bench/results/startup.csv
+URL="http://localhost:${PORT}/api/schedule?date=$(date +%F)"
+
+dockerfile() {
+    case "$1" in
+        jar) echo Dockerfile ;;
+        fast) echo Dockerfile.fast ;;
+        native) echo Dockerfile.native ;;
+    esac
+}
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+cleanup() {
+    docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+    docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+if [[ $BUILD -eq 1 ]]; then
+    for variant in "${VARIANTS[@]}"; do
+        echo "== build $variant"
+        docker build -q -f "$(dockerfile "$variant")" -t "laundry-backend:$variant" . >/dev/null
+    done
+fi
+
+cleanup
+docker network create "$NETWORK" >/dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+    -e POSTGRES_DB=laundry_db -e POSTGRES_USER=laundry_user -e POSTGRES_PASSWORD=laundry_password \
+    postgres:15-alpine >/dev/null
+until docker exec "$DB" pg_isready -U laundry_user -d laundry_db >/dev/null 2>&1; do sleep 0.5; done
+
+# Запускает вариант, ждёт первого ответа 200 и печатает "ttfr_ms rss_kb started_in"
+measure() {
+    local variant="$1"
+    local started finished rss started_in
+    docker rm -f "$APP" >/dev/null 2>&1 || true
+
+    started=$(now_ms)
+    docker run -d --name "$APP" --network "$NETWORK" -p "${PORT}:8080" \
+        -e SPRING_DATASOURCE_URL="jdbc:postgresql://${DB}:5432/laundry_db" \
+        -e SPRING_DATASOURCE_USERNAME=laundry_user \
+        -e SPRING_DATASOURCE_PASSWORD=laundry_password \
+        -e LOGGING_LEVEL_ORG_HIBERNATE_SQL=WARN \
+        -e SPRING_JPA_SHOW_SQL=false \
+        "laundry-backend:$variant" >/dev/null
+
+    until curl -sf -o /dev/null "$URL"; do
+        if ! docker inspect -f '{{.State.Running}}' "$APP" 2>/dev/null | grep -q true; then
+            docker logs "$APP" | tail -20 >&2
+            echo "$variant: container exited before the first response" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    finished=$(now_ms)
+
+    # RSS процесса приложения (PID 1 в контейнере) сразу после первого запроса
+    rss=$(docker exec "$APP" sh -c "grep VmRSS /proc/1/status" | awk '{print $2}')
+    started_in=$(docker logs "$APP" 2>&1 | grep -o 'Started [A-Za-z]* in [0-9.]* seconds' | grep -o '[0-9.]* seconds' || echo "-")
+
+    docker rm -f "$APP" >/dev/null
+    echo "$(( finished - started )) ${rss} ${started_in% seconds}"
+}
+
+# Прогрев: первый старт применяет миграции к пустой БД, в замер не входит
+echo "== warm-up (schema migration)"
+measure "${VARIANTS[0]}" >/dev/null
+
+mkdir -p "$(dirname "$RESULTS")"
+[[ -f "$RESULTS" ]] || echo "timestamp,variant,run,time_to_first_request_ms,rss_kb,spring_started_in_s" > "$RESULTS"
+
+printf '\n%-8s %-4s %12s %10s %12s\n' variant run ttfr_ms rss_mb started_s
+for variant in "${VARIANTS[@]}"; do
+    for run in $(seq 1 "$RUNS"); do
+        read -r ttfr rss started_in < <(measure "$variant")
+        echo "$(date -Iseconds),${variant},${run},${ttfr},${rss},${started_in}" >> "$RESULTS"
+        printf '%-8s %-4s %12s %10s %12s\n' "$variant" "$run" "$ttfr" "$(( rss / 1024 ))" "$started_in"
+    done
+done
+echo
+echo "saved to $RESULTS"
@@ -1,9 +1,12 @@
 package com.laundry.booking;
 
+import com.laundry.booking.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class LaundryBookingApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,358 @@
+package com.laundry.booking.admission;
+
+import com.laundry.booking.cache.SlotLocator;
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import com.laundry.booking.dto.BookingResult;
+import com.laundry.booking.service.BookingService;
+import com.laundry.booking.service.IdempotencyService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Очереди допуска записей на пик открытия дня.
+ *
+ * Создание записи не соревнуется за строки слотов в транзакциях запросов: команда попадает в очередь
+ * своей пары (дата, машинка), и очередь обрабатывает команды по одной за раз (один писатель).
+ * Занятость слотов очередь держит в памяти: заведомо занятый слот отклоняется без обращения к БД,
+ * остальные команды пачкой до batch-size записываются одним оператором (BookingBatchWriter).
+ * Вызывающий получает результат через CompletableFuture.
+ *
+ * Занятость обновляется по сообщениям SLOT (отмены, переносы, записи других узлов) и перечитывается
+ * после DATE, SCHEDULE, MACHINES и resync. Если слот успел занять другой узел, это видно при записи пачки.
+ */
+@Slf4j
+@Component
+public class BookingAdmission implements InvalidationListener, DisposableBean {
+
+    private static final String WRITE_FAILED = "Не удалось создать запись, повторите попытку";
+    private static final String SHUTTING_DOWN = "Сервис перезапускается, повторите попытку";
+    private static final String RESULT_UNKNOWN = "Запись не подтверждена вовремя, проверьте список своих записей";
+
+    private final BookingBatchWriter batchWriter;
+    private final SlotLocator slotLocator;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration timeout;
+    private final ExecutorService workers;
+
+    private final ConcurrentHashMap<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder rejectedInMemory = new LongAdder();
+    private final LongAdder rejectedOnWrite = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * Счётчики очередей с запуска узла
+     */
+    public record Stats(int lanes, long submitted, long batches, double avgBatchSize, long created,
+                        long rejectedInMemory, long rejectedOnWrite, long failed, long timedOut) {
+    }
+
+    private record LaneKey(LocalDate date, UUID machineId) {
+    }
+
+    private record Command(UUID userId, UUID slotId, IdempotencyService.Claim claim,
+                           CompletableFuture<BookingResult> result) {
+
+        void complete(boolean success, String message) {
+            result.complete(new BookingResult(success, message));
+        }
+    }
+
+    public BookingAdmission(BookingBatchWriter batchWriter,
+                            SlotLocator slotLocator,
+                            @Value("${booking.admission.enabled:true}") boolean enabled,
+                            @Value("${booking.admission.workers:2}") int workers,
+                            @Value("${booking.admission.batch-size:32}") int batchSize,
+                            @Value("${booking.admission.timeout:PT10S}") Duration timeout) {
+        this.batchWriter = batchWriter;
+        this.slotLocator = slotLocator;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.timeout = timeout;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "booking-admission-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Booking Service - createBooking (booking.admission.enabled=true)
+     * Последовательность вызовов:
+     * 1. Найти дату и машинку слота (кэш), слот чужой машинки - недоступен
+     *    (ключ идемпотентности claim, если есть, занимается в транзакции пачки)
+     * 2. Поставить команду в очередь пары (дата, машинка)
+     * 3. Дождаться решения очереди, но не дольше booking.admission.timeout
+     */
+    public BookingResult submit(UUID userId, UUID machineId, UUID slotId, IdempotencyService.Claim claim) {
+        // Шаг 1: Дата и машинка слота
+        SlotLocator.SlotRef slot = slotLocator.find(slotId);
+        if (slot == null || !slot.machineId().equals(machineId)) {
+            return new BookingResult(false, BookingService.SLOT_UNAVAILABLE);
+        }
+
+        // Шаг 2: Команда в очередь
+        submitted.increment();
+        Command command = new Command(userId, slotId, claim, new CompletableFuture<>());
+        Lane lane = lane(new LaneKey(slot.startTime().toLocalDate(), machineId));
+        lane.offer(command);
+
+        // Шаг 3: Решение очереди (очередь завершает каждую команду, в том числе при ошибке БД и остановке)
+        try {
+            return command.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            // Команда, которую очередь ещё не взяла, точно не будет записана; взятая - могла
+            return new BookingResult(false, lane.commands.remove(command) ? WRITE_FAILED : RESULT_UNKNOWN);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new BookingResult(false, lane.commands.remove(command) ? WRITE_FAILED : RESULT_UNKNOWN);
+        } catch (ExecutionException e) {
+            return new BookingResult(false, WRITE_FAILED);
+        }
+    }
+
+    /**
+     * Операция точно не выполнилась (сбой пачки, остановка, таймаут) - исход не сохраняется
+     * по ключу идемпотентности, повтор с тем же ключом выполнит её заново.
+     * Команда, которую очередь взяла до таймаута, занимает ключ в своей пачке - повтор получит её исход.
+     */
+    public static boolean isRetryable(BookingResult result) {
+        return !Boolean.TRUE.equals(result.getResult()) && (WRITE_FAILED.equals(result.getMessage())
+                || SHUTTING_DOWN.equals(result.getMessage()) || RESULT_UNKNOWN.equals(result.getMessage()));
+    }
+
+    public Stats stats() {
+        long batchCount = batches.sum();
+        long written = created.sum() + rejectedOnWrite.sum();
+        return new Stats(lanes.size(), submitted.sum(), batchCount,
+                batchCount == 0 ? 0.0 : (double) written / batchCount,
+                created.sum(), rejectedInMemory.sum(), rejectedOnWrite.sum(), failed.sum(), timedOut.sum());
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.kind()) {
+            case SLOT -> {
+                Invalidation.SlotChange change = invalidation.slotChange();
+                Lane lane = lanes.get(new LaneKey(invalidation.date(), change.machineId()));
+                if (lane != null) {
+                    lane.changes.add(change);
+                }
+            }
+            case DATE, SCHEDULE -> {
+                LocalDate date = invalidation.date();
+                lanes.forEach((key, lane) -> {
+                    if (key.date().equals(date)) {
+                        lane.stale = true;
+                    }
+                });
+            }
+            case MACHINES -> lanes.values().forEach(lane -> lane.stale = true);
+        }
+    }
+
+    @Override
+    public void onResync() {
+        lanes.values().forEach(lane -> lane.stale = true);
+    }
+
+    /**
+     * Остановить потоки очередей: пачки в работе дописываются, команды в очередях получают отказ
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        lanes.values().forEach(Lane::failPending);
+    }
+
+    private Lane lane(LaneKey key) {
+        Lane lane = lanes.get(key);
+        if (lane != null) {
+            return lane;
+        }
+        // Новая очередь - повод убрать простаивающие очереди прошедших дат
+        LocalDate today = LocalDate.now();
+        lanes.values().removeIf(old -> old.key.date().isBefore(today) && old.isIdle());
+        return lanes.computeIfAbsent(key, Lane::new);
+    }
+
+    /**
+     * Очередь пары (дата, машинка). Команды обрабатывает не больше одного потока одновременно:
+     * очередь ставит себя на исполнение, только переходя из простоя (scheduled false -> true).
+     */
+    private final class Lane implements Runnable {
+
+        private final LaneKey key;
+        private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<Invalidation.SlotChange> changes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean stale = true;
+
+        // Только поток, обрабатывающий очередь: слот -> свободен ли он
+        private Map<UUID, Boolean> slots = Map.of();
+
+        Lane(LaneKey key) {
+            this.key = key;
+        }
+
+        void offer(Command command) {
+            commands.add(command);
+            schedule();
+        }
+
+        boolean isIdle() {
+            return commands.isEmpty() && !scheduled.get();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Потоки остановлены: обработать очередь больше некому
+                    scheduled.set(false);
+                    failPending();
+                }
+            }
+        }
+
+        /**
+         * Отказать всем ожидающим командам (остановка узла)
+         */
+        void failPending() {
+            Command command;
+            while ((command = commands.poll()) != null) {
+                failed.increment();
+                command.complete(false, SHUTTING_DOWN);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                processBatch();
+            } finally {
+                scheduled.set(false);
+                if (!commands.isEmpty()) {
+                    schedule();
+                }
+            }
+        }
+
+        private void processBatch() {
+            List<Command> batch = new ArrayList<>(batchSize);
+            try {
+                refreshSlots();
+
+                // Решение в памяти: занятый слот отклоняется сразу, свободный занимается до записи
+                Command command;
+                while (batch.size() < batchSize && (command = commands.poll()) != null) {
+                    if (!Boolean.TRUE.equals(slots.get(command.slotId()))) {
+                        rejectedInMemory.increment();
+                        command.complete(false, BookingService.SLOT_UNAVAILABLE);
+                        continue;
+                    }
+                    slots.put(command.slotId(), false);
+                    batch.add(command);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+
+                // Запись пачки одним оператором
+                List<BookingBatchWriter.Request> requests = batch.stream()
+                        .map(item -> new BookingBatchWriter.Request(item.userId(), item.slotId(), item.claim()))
+                        .toList();
+                List<BookingBatchWriter.Written> outcomes = batchWriter.persist(key.machineId(), key.date(), requests);
+                batches.increment();
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i), outcomes.get(i));
+                }
+            } catch (Exception e) {
+                // Транзакция пачки откатилась: отказ всем её командам и ожидающим (иначе очередь
+                // без БД крутилась бы вхолостую), занятость перечитается со следующей командой
+                log.warn("Admission batch for {} {} failed: {}", key.date(), key.machineId(), e.getMessage());
+                stale = true;
+                Command waiting;
+                while ((waiting = commands.poll()) != null) {
+                    batch.add(waiting);
+                }
+                for (Command failedCommand : batch) {
+                    failed.increment();
+                    failedCommand.complete(false, WRITE_FAILED);
+                }
+            }
+        }
+
+        private void complete(Command command, BookingBatchWriter.Written written) {
+            BookingResult result = written.result();
+            switch (written.outcome()) {
+                case CREATED -> created.increment();
+                case LIMIT -> {
+                    // Слот не занят - вернуть его в свободные
+                    rejectedOnWrite.increment();
+                    slots.put(command.slotId(), true);
+                }
+                case SLOT_TAKEN -> rejectedOnWrite.increment();
+                case DUPLICATE -> {
+                    // Команда не выполнялась: занятость слота неизвестна, перечитать её со следующей пачкой
+                    rejectedOnWrite.increment();
+                    stale = true;
+                }
+            }
+            command.complete(result.getResult(), result.getMessage());
+        }
+
+        /**
+         * Перечитать слоты после сброса или применить накопленные изменения слотов
+         */
+        private void refreshSlots() throws Exception {
+            if (stale) {
+                stale = false;
+                changes.clear();
+                slots = batchWriter.loadSlots(key.machineId(), key.date());
+                return;
+            }
+            Invalidation.SlotChange change;
+            while ((change = changes.poll()) != null) {
+                if (slots.containsKey(change.slotId())) {
+                    slots.put(change.slotId(), change.free());
+                }
+            }
+        }
+    }
+}
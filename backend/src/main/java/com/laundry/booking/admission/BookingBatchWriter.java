@@ -0,0 +1,276 @@
+package com.laundry.booking.admission;
+
+import com.laundry.booking.cluster.DedicatedConnections;
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
+import com.laundry.booking.dto.BookingResult;
+import com.laundry.booking.repository.IdempotencyKeyRepository;
+import com.laundry.booking.service.BookingService;
+import com.laundry.booking.service.IdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Запись пачек бронирований очередей BookingAdmission.
+ * У каждого потока очередей своё соединение вне пула (DedicatedConnections): поток не ждёт пул,
+ * который могут занимать запросы, сами ждущие результата очереди.
+ *
+ * Пачка записывается одним оператором в одной транзакции. Решение очереди в памяти проверяется
+ * ещё раз на строке слота (is_available и отсутствие активной записи) - слот мог занять другой узел;
+ * лимит активных записей пользователя проверяется так же, как в BookingService.
+ * Ключ идемпотентности команды занимается и получает исход в той же транзакции; если ключ уже занят
+ * (дубликат выполнен раньше, в том числе на другом узле), команда не выполняется и получает сохранённый исход.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingBatchWriter implements DisposableBean {
+
+    private static final String LOAD_SLOTS_SQL = """
+            SELECT t.id,
+                   t.is_available AND NOT EXISTS (
+                       SELECT 1 FROM bookings b
+                       WHERE b.slot_id = t.id AND b.slot_start_time = t.start_time AND b.state = 1
+                   ) AS free
+            FROM timeslots t
+            WHERE t.machine_id = ? AND t.start_time >= ? AND t.start_time < ?
+            """;
+
+    private static final String PERSIST_SQL = """
+            WITH params AS (
+                SELECT CAST(? AS uuid) AS machine_id,
+                       CAST(? AS timestamp) AS day_start,
+                       CAST(? AS timestamp) AS day_end,
+                       CAST(? AS timestamp) AS now,
+                       CAST(? AS timestamp) AS horizon,
+                       CAST(? AS integer) AS max_active
+            ),
+            cmd AS (
+                SELECT c.ord, c.user_id, c.slot_id,
+                       row_number() OVER (PARTITION BY c.user_id ORDER BY c.ord) - 1 AS earlier
+                FROM unnest(CAST(? AS uuid[]), CAST(? AS uuid[])) WITH ORDINALITY AS c(user_id, slot_id, ord)
+            ),
+            -- лимит: будущие активные записи плюс более ранние команды того же пользователя в пачке
+            allowed AS (
+                SELECT cmd.*
+                FROM cmd, params p
+                WHERE cmd.earlier + (
+                    SELECT count(*)
+                    FROM bookings b
+                    JOIN timeslots t ON t.id = b.slot_id AND t.start_time = b.slot_start_time
+                    WHERE b.user_id = cmd.user_id AND b.state = 1
+                      AND b.slot_start_time > p.horizon AND t.end_time > p.now
+                ) < p.max_active
+            ),
+            reserved AS (
+                UPDATE timeslots t
+                SET is_available = false
+                FROM allowed a, params p
+                WHERE t.id = a.slot_id AND t.machine_id = p.machine_id
+                  AND t.start_time >= p.day_start AND t.start_time < p.day_end
+                  AND t.is_available
+                  AND NOT EXISTS (
+                      SELECT 1 FROM bookings b
+                      WHERE b.slot_id = t.id AND b.slot_start_time = t.start_time AND b.state = 1
+                  )
+                RETURNING t.id, t.start_time, t.end_time
+            ),
+            inserted AS (
+                INSERT INTO bookings (id, user_id, machine_id, slot_id, slot_start_time, state)
+                SELECT uuid_generate_v7(), a.user_id, p.machine_id, r.id, r.start_time, 1
+                FROM allowed a
+                JOIN reserved r ON r.id = a.slot_id
+                CROSS JOIN params p
+                RETURNING slot_id
+            )
+            SELECT cmd.ord, r.start_time, r.end_time,
+                   CASE WHEN i.slot_id IS NOT NULL THEN 'CREATED'
+                        WHEN a.ord IS NULL THEN 'LIMIT'
+                        ELSE 'SLOT_TAKEN' END AS outcome
+            FROM cmd
+            LEFT JOIN allowed a ON a.ord = cmd.ord
+            LEFT JOIN inserted i ON i.slot_id = cmd.slot_id AND a.ord IS NOT NULL
+            LEFT JOIN reserved r ON r.id = i.slot_id
+            ORDER BY cmd.ord
+            """;
+
+    public enum Outcome {
+        CREATED,
+        LIMIT,
+        SLOT_TAKEN,
+        /** Ключ идемпотентности уже занят: команда не выполнялась */
+        DUPLICATE
+    }
+
+    /**
+     * Бронирование пачки: пользователь, слот и ключ идемпотентности (может быть null)
+     */
+    public record Request(UUID userId, UUID slotId, IdempotencyService.Claim claim) {
+    }
+
+    /**
+     * Исход команды и ответ на неё
+     */
+    public record Written(Outcome outcome, BookingResult result) {
+    }
+
+    private final DedicatedConnections dedicatedConnections;
+    private final InvalidationBus invalidationBus;
+
+    private final ThreadLocal<Connection> connections = new ThreadLocal<>();
+    private final List<Connection> opened = new CopyOnWriteArrayList<>();
+
+    /**
+     * Слоты машинки на дату: слот -> свободен ли он для записи
+     */
+    public Map<UUID, Boolean> loadSlots(UUID machineId, LocalDate date) throws SQLException {
+        Connection connection = connection();
+        try (PreparedStatement statement = connection.prepareStatement(LOAD_SLOTS_SQL)) {
+            statement.setObject(1, machineId);
+            statement.setObject(2, date.atStartOfDay());
+            statement.setObject(3, date.plusDays(1).atStartOfDay());
+            Map<UUID, Boolean> slots = new HashMap<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    slots.put(rs.getObject("id", UUID.class), rs.getBoolean("free"));
+                }
+            }
+            connection.commit();
+            return slots;
+        } catch (SQLException e) {
+            discard(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Записать пачку одной транзакцией; исходы - в порядке запросов.
+     * Сообщения SLOT о занятых слотах уходят в той же транзакции, локальным слушателям - после коммита.
+     */
+    public List<Written> persist(UUID machineId, LocalDate date, List<Request> requests) throws SQLException {
+        Connection connection = connection();
+        IdempotencyKeyRepository keys = IdempotencyKeyRepository.on(connection);
+        LocalDateTime now = LocalDateTime.now();
+        Written[] written = new Written[requests.size()];
+        List<Integer> executed = new ArrayList<>(requests.size());
+        List<Invalidation> invalidations = new ArrayList<>();
+        try {
+            // Ключи идемпотентности: занятый ключ - исход первого выполнения
+            for (int i = 0; i < requests.size(); i++) {
+                IdempotencyService.Claim claim = requests.get(i).claim();
+                if (claim != null && !keys.claim(claim.userId(), claim.key(), claim.operation(), claim.requestHash(), claim.ttl())) {
+                    IdempotencyKeyRepository.StoredResult stored = keys.find(claim.userId(), claim.key()).orElseThrow();
+                    written[i] = new Written(Outcome.DUPLICATE, new BookingResult(stored.result(), stored.message()));
+                } else {
+                    executed.add(i);
+                }
+            }
+
+            // Бронирования одним оператором
+            if (!executed.isEmpty()) {
+                try (PreparedStatement statement = connection.prepareStatement(PERSIST_SQL)) {
+                    statement.setObject(1, machineId);
+                    statement.setObject(2, date.atStartOfDay());
+                    statement.setObject(3, date.plusDays(1).atStartOfDay());
+                    statement.setObject(4, now);
+                    statement.setObject(5, now.minusDays(1));
+                    statement.setInt(6, BookingService.MAX_ACTIVE_BOOKINGS);
+                    statement.setArray(7, connection.createArrayOf("uuid",
+                            executed.stream().map(i -> requests.get(i).userId()).toArray(UUID[]::new)));
+                    statement.setArray(8, connection.createArrayOf("uuid",
+                            executed.stream().map(i -> requests.get(i).slotId()).toArray(UUID[]::new)));
+                    try (ResultSet rs = statement.executeQuery()) {
+                        for (int row = 0; rs.next(); row++) {
+                            int index = executed.get(row);
+                            Outcome outcome = Outcome.valueOf(rs.getString("outcome"));
+                            written[index] = new Written(outcome, resultOf(outcome));
+                            if (outcome == Outcome.CREATED) {
+                                invalidations.add(Invalidation.slot(requests.get(index).slotId(), machineId,
+                                        rs.getObject("start_time", LocalDateTime.class),
+                                        rs.getObject("end_time", LocalDateTime.class), false));
+                            }
+                        }
+                    }
+                }
+            }
+
+            // Исходы по занятым ключам
+            for (int index : executed) {
+                IdempotencyService.Claim claim = requests.get(index).claim();
+                if (claim != null) {
+                    BookingResult result = written[index].result();
+                    keys.complete(claim.userId(), claim.key(), result.getResult(), result.getMessage());
+                }
+            }
+            invalidationBus.notifyOn(connection, invalidations);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            discard(connection);
+            throw e;
+        }
+        invalidationBus.dispatchCommitted(invalidations);
+        return List.of(written);
+    }
+
+    private static BookingResult resultOf(Outcome outcome) {
+        return switch (outcome) {
+            case CREATED -> new BookingResult(true, BookingService.BOOKING_CREATED);
+            case LIMIT -> new BookingResult(false, BookingService.LIMIT_REACHED);
+            case SLOT_TAKEN, DUPLICATE -> new BookingResult(false, BookingService.SLOT_UNAVAILABLE);
+        };
+    }
+
+    @Override
+    public void destroy() {
+        opened.forEach(this::closeQuietly);
+    }
+
+    private Connection connection() throws SQLException {
+        Connection connection = connections.get();
+        if (connection != null && !connection.isClosed()) {
+            return connection;
+        }
+        connection = dedicatedConnections.open("booking-admission");
+        connection.setAutoCommit(false);
+        connections.set(connection);
+        opened.add(connection);
+        return connection;
+    }
+
+    /**
+     * Откатить и закрыть соединение после ошибки; следующая пачка откроет новое
+     */
+    private void discard(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.debug("Rollback on admission connection failed: {}", e.getMessage());
+        }
+        closeQuietly(connection);
+        connections.remove();
+        opened.remove(connection);
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Closing admission connection failed: {}", e.getMessage());
+        }
+    }
+}
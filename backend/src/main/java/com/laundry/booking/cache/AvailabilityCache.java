@@ -0,0 +1,180 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import com.laundry.booking.repository.FreeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики свободных и всех слотов по дням и машинкам (тепловая карта календаря).
+ *
+ * Незакэшированные дни диапазона читаются одним запросом; по каждой машинке дня хранятся id видимых
+ * слотов и id свободных, счётчики считаются по этим множествам.
+ * Запись, отмена и перенос (SLOT) убирают слот из свободных или возвращают его без обращения к БД.
+ * Сообщение применяется идемпотентно: если изменение уже попало в прочитанный снимок
+ * (запись на другом узле закоммичена до чтения, а сообщение пришло после установки дня),
+ * повторное применение ничего не меняет.
+ * Остальные изменения даты (DATE) сбрасывают день, изменения машинок и resync — все дни.
+ * Как и в FreeSlotIndex, прочитанный день устанавливается, только если он не менялся во время чтения.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityCache implements InvalidationListener {
+
+    private final FreeSlotRepository freeSlotRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<LocalDate, Map<UUID, MachineSlots>> days = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, AtomicLong> dateChanges = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Свободные и все слоты машинки на дату
+     */
+    public record Counts(int free, int total) {
+    }
+
+    /**
+     * Слоты машинки на дату: все видимые в расписании и свободные из них
+     */
+    private record MachineSlots(Set<UUID> slotIds, Set<UUID> freeIds) {
+
+        Counts counts() {
+            return new Counts(freeIds.size(), slotIds.size());
+        }
+    }
+
+    /**
+     * Счётчики по дням [from, to]; дни без слотов - пустые карты
+     */
+    public Map<LocalDate, Map<UUID, Counts>> get(LocalDate from, LocalDate to) {
+        Map<LocalDate, Map<UUID, Counts>> result = new LinkedHashMap<>();
+        Map<LocalDate, Map<UUID, MachineSlots>> loaded = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Map<UUID, MachineSlots> day = days.get(date);
+            if (day == null) {
+                if (loaded == null) {
+                    loaded = load(date, to);
+                }
+                day = loaded.getOrDefault(date, Map.of());
+            }
+            Map<UUID, Counts> counts = new HashMap<>();
+            day.forEach((machineId, slots) -> counts.put(machineId, slots.counts()));
+            result.put(date, counts);
+        }
+        return result;
+    }
+
+    /**
+     * Убрать из кэша дни раньше указанного
+     */
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(day -> day.isBefore(date));
+        dateChanges.keySet().removeIf(day -> day.isBefore(date));
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.kind()) {
+            case SLOT -> adjust(invalidation.date(), invalidation.slotChange());
+            case DATE, SCHEDULE -> resetDate(invalidation.date());
+            case MACHINES -> resetAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        resetAll();
+    }
+
+    /**
+     * Прочитать дни [from, to] одним запросом; установить в кэш те, что не менялись во время чтения
+     */
+    private Map<LocalDate, Map<UUID, MachineSlots>> load(LocalDate from, LocalDate to) {
+        long epochBefore = epoch.get();
+        Map<LocalDate, Long> changesBefore = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            changesBefore.put(date, changes(date).get());
+        }
+
+        // Не read-only: читаем primary, реплика могла ещё не получить изменения, о которых уже пришли сообщения
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Map<LocalDate, Map<UUID, Set<UUID>>> slotIds = new HashMap<>();
+        Map<LocalDate, Map<UUID, Set<UUID>>> freeIds = new HashMap<>();
+        transaction.execute(status -> freeSlotRepository.findSlotStates(from, to)).forEach(state -> {
+            slotIds.computeIfAbsent(state.date(), d -> new HashMap<>())
+                    .computeIfAbsent(state.machineId(), id -> new HashSet<>()).add(state.slotId());
+            Set<UUID> free = freeIds.computeIfAbsent(state.date(), d -> new HashMap<>())
+                    .computeIfAbsent(state.machineId(), id -> new HashSet<>());
+            if (state.free()) {
+                free.add(state.slotId());
+            }
+        });
+        Map<LocalDate, Map<UUID, MachineSlots>> loaded = new HashMap<>();
+        slotIds.forEach((date, machines) -> {
+            Map<UUID, MachineSlots> day = new HashMap<>();
+            machines.forEach((machineId, ids) ->
+                    day.put(machineId, new MachineSlots(Set.copyOf(ids), Set.copyOf(freeIds.get(date).get(machineId)))));
+            loaded.put(date, Map.copyOf(day));
+        });
+
+        synchronized (this) {
+            if (epoch.get() == epochBefore) {
+                changesBefore.forEach((date, before) -> {
+                    if (changes(date).get() == before) {
+                        days.putIfAbsent(date, loaded.getOrDefault(date, Map.of()));
+                    }
+                });
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void adjust(LocalDate date, Invalidation.SlotChange change) {
+        changes(date).incrementAndGet();
+        days.computeIfPresent(date, (d, machines) -> {
+            MachineSlots slots = machines.get(change.machineId());
+            if (slots == null || !slots.slotIds().contains(change.slotId())
+                    || slots.freeIds().contains(change.slotId()) == change.free()) {
+                // Машинка на эту дату не открыта для записи, слот не виден в расписании или изменение уже учтено
+                return machines;
+            }
+            Set<UUID> free = new HashSet<>(slots.freeIds());
+            if (change.free()) {
+                free.add(change.slotId());
+            } else {
+                free.remove(change.slotId());
+            }
+            Map<UUID, MachineSlots> updated = new HashMap<>(machines);
+            updated.put(change.machineId(), new MachineSlots(slots.slotIds(), Set.copyOf(free)));
+            return Map.copyOf(updated);
+        });
+    }
+
+    private synchronized void resetDate(LocalDate date) {
+        changes(date).incrementAndGet();
+        days.remove(date);
+    }
+
+    private synchronized void resetAll() {
+        epoch.incrementAndGet();
+        days.clear();
+    }
+
+    private AtomicLong changes(LocalDate date) {
+        return dateChanges.computeIfAbsent(date, d -> new AtomicLong());
+    }
+}
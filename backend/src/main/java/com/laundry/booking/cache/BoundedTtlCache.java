@@ -0,0 +1,135 @@
+package com.laundry.booking.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш со сквозным чтением (read-through).
+ * При переполнении вытесняется давно не читавшийся ключ (LRU), записи старше ttl перечитываются.
+ * Загрузка идёт вне блокировки; результат устанавливается, только если за время загрузки
+ * не было инвалидаций (поколение не изменилось), - иначе значение отдаётся вызывающему, но не кэшируется.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+
+    /**
+     * Счётчики кэша с запуска узла
+     */
+    public record Stats(int size, int maxSize, long hits, long misses, double hitRate, long evictions, long invalidations) {
+    }
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Значение из кэша или null (промахом не считается)
+     */
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || System.nanoTime() - entry.loadedAt() > ttlNanos) {
+                return null;
+            }
+            hits.increment();
+            return entry.value();
+        }
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        long generationBefore = generation.get();
+        V loaded = loader.apply(key);
+        put(key, loaded, generationBefore);
+        return loaded;
+    }
+
+    /**
+     * Текущее поколение - передаётся в put для значений, загруженных в обход get (пачкой)
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Установить значение, загруженное в поколении generationBefore
+     */
+    public void put(K key, V value, long generationBefore) {
+        synchronized (entries) {
+            if (value != null && generation.get() == generationBefore) {
+                entries.put(key, new Entry<>(value, System.nanoTime()));
+            }
+        }
+    }
+
+    /**
+     * Учесть промах, загрузка которого выполнена пачкой в обход get
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.increment();
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.increment();
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidateIf(key -> true);
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(size, maxSize, hitCount, missCount,
+                requests == 0 ? 0.0 : (double) hitCount / requests, evictions.sum(), invalidations.sum());
+    }
+}
@@ -0,0 +1,115 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.service.ScheduleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Прогрев кэшей расписания на ближайшие дни: расписания по датам (с машинками, слотами и бронированиями),
+ * счётчики доступности календаря и индекс свободных слотов.
+ *
+ * Запускается при старте - до того, как приложение объявит готовность принимать трафик
+ * (ApplicationReadyEvent обрабатывается синхронно), - и каждый день по cache.prewarm.cron,
+ * незадолго до полуночи, для дней начиная с завтрашнего. Кэши локальны для узла,
+ * поэтому прогрев выполняется на каждом узле, а не как ClusterJob.
+ * Ошибка прогрева не мешает работе: недостающие даты загрузятся при первом запросе.
+ * cache.prewarm.enabled проверяется при каждом запуске (бин есть всегда, в том числе в AOT-сборке);
+ * прошедшие дни убираются из кэшей и при выключенном прогреве.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CachePrewarmer {
+
+    private final ScheduleService scheduleService;
+    private final AvailabilityCache availabilityCache;
+    private final FreeSlotIndex freeSlotIndex;
+
+    @Value("${cache.prewarm.enabled:true}")
+    private boolean enabled;
+
+    // Сколько дней прогревать, включая первый
+    @Value("${cache.prewarm.days:7}")
+    private int days;
+
+    private volatile Report lastReport;
+
+    /**
+     * Итог последнего прогрева; длительности в миллисекундах
+     */
+    public record Report(String trigger, LocalDateTime startedAt, LocalDate from, LocalDate to, int dates,
+                         long scheduleMs, long availabilityMs, long freeSlotsMs, long totalMs, String error) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        prewarm("startup", LocalDate.now());
+    }
+
+    /**
+     * Перед началом нового дня: убрать прошедшие дни и прогреть дни с завтрашнего
+     */
+    @Scheduled(cron = "${cache.prewarm.cron:0 50 23 * * *}")
+    public void prewarmBeforeDayOpens() {
+        LocalDate today = LocalDate.now();
+        scheduleService.evictCachedBefore(today);
+        availabilityCache.evictBefore(today);
+        freeSlotIndex.evictBefore(today);
+        if (!enabled) {
+            return;
+        }
+        prewarm("scheduled", today.plusDays(1));
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    private synchronized void prewarm(String trigger, LocalDate from) {
+        LocalDate to = from.plusDays(days - 1L);
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        int dates = 0;
+        long scheduleMs = 0;
+        long availabilityMs = 0;
+        long freeSlotsMs = 0;
+        String error = null;
+        try {
+            long step = System.nanoTime();
+            dates = scheduleService.prewarm(from, to);
+            scheduleMs = millisSince(step);
+
+            step = System.nanoTime();
+            availabilityCache.get(from, to);
+            availabilityMs = millisSince(step);
+
+            step = System.nanoTime();
+            freeSlotIndex.preload(from, to);
+            freeSlotsMs = millisSince(step);
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.warn("Cache prewarm ({}) for {}..{} failed", trigger, from, to, e);
+        }
+
+        Report report = new Report(trigger, startedAt, from, to, dates,
+                scheduleMs, availabilityMs, freeSlotsMs, millisSince(start), error);
+        lastReport = report;
+        log.info("Cache prewarm ({}) for {}..{}: {} dates in {} ms (schedule {} ms, availability {} ms, free slots {} ms)",
+                trigger, from, to, dates, report.totalMs(), scheduleMs, availabilityMs, freeSlotsMs);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,259 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import com.laundry.booking.dto.FreeSlotDto;
+import com.laundry.booking.repository.FreeSlotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Индекс свободных слотов в памяти: по каждой машинке упорядоченная карта "начало слота -> слот".
+ *
+ * Даты загружаются лениво при первом запросе и держатся до инвалидации:
+ * - SLOT (запись, отмена, перенос) обновляет одну запись карты без обращения к БД;
+ * - DATE сбрасывает дату, она перечитывается одним запросом при следующем обращении;
+ * - MACHINES и восстановление шины сбрасывают все даты.
+ * Загрузка идёт без блокировок; результат устанавливается, только если за время чтения
+ * дата не менялась (счётчик изменений), иначе дата остаётся незагруженной и перечитается позже.
+ */
+@Component
+@RequiredArgsConstructor
+public class FreeSlotIndex implements InvalidationListener {
+
+    private static final Comparator<FreeSlotDto> BY_START = Comparator
+            .comparing(FreeSlotDto::getStartTime)
+            .thenComparing(FreeSlotDto::getMachineId);
+
+    private final FreeSlotRepository freeSlotRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<UUID, ConcurrentSkipListMap<LocalDateTime, FreeSlotDto>> slotsByMachine = new ConcurrentHashMap<>();
+    // Загруженные даты: машинки, открытые для записи на дату (id -> название)
+    private final ConcurrentHashMap<LocalDate, Map<UUID, String>> loadedDates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, AtomicLong> dateChanges = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Ближайшие свободные слоты, начиная с from (включительно) и до конца даты lastDate.
+     * Карты машинок сливаются по времени начала (k-way merge), поэтому читается ровно
+     * столько слотов, сколько нужно до limit подходящих.
+     */
+    public List<FreeSlotDto> findNext(LocalDateTime from, LocalDate lastDate, UUID machineId,
+                                      Predicate<FreeSlotDto> filter, int limit) {
+        ensureLoaded(from.toLocalDate(), lastDate);
+
+        LocalDateTime to = lastDate.plusDays(1).atStartOfDay();
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparing(Cursor::current, BY_START));
+        slotsByMachine.forEach((id, slots) -> {
+            if (machineId == null || machineId.equals(id)) {
+                Cursor cursor = new Cursor(slots.subMap(from, true, to, false).values().iterator());
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+        });
+
+        List<FreeSlotDto> result = new ArrayList<>();
+        while (!queue.isEmpty() && result.size() < limit) {
+            Cursor cursor = queue.poll();
+            if (filter.test(cursor.current())) {
+                result.add(cursor.current());
+            }
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Загрузить даты [from, to] заранее (прогрев), уже загруженные не перечитываются
+     */
+    public void preload(LocalDate from, LocalDate to) {
+        ensureLoaded(from, to);
+    }
+
+    /**
+     * Убрать из индекса даты раньше указанной
+     */
+    public synchronized void evictBefore(LocalDate date) {
+        for (LocalDate loaded : Set.copyOf(loadedDates.keySet())) {
+            if (loaded.isBefore(date)) {
+                loadedDates.remove(loaded);
+                dateChanges.remove(loaded);
+            }
+        }
+        LocalDateTime bound = date.atStartOfDay();
+        slotsByMachine.values().forEach(slots -> slots.headMap(bound).clear());
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.kind()) {
+            case SLOT -> applySlotChange(invalidation.date(), invalidation.slotChange());
+            case DATE, SCHEDULE -> resetDate(invalidation.date());
+            case MACHINES -> resetAll();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        resetAll();
+    }
+
+    private void ensureLoaded(LocalDate from, LocalDate to) {
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!loadedDates.containsKey(date)) {
+                firstMissing = firstMissing == null ? date : firstMissing;
+                lastMissing = date;
+            }
+        }
+        if (firstMissing != null) {
+            load(firstMissing, lastMissing);
+        }
+    }
+
+    /**
+     * Перечитать даты [from, to] двумя запросами и установить те, что не менялись во время чтения
+     */
+    private void load(LocalDate from, LocalDate to) {
+        long epochBefore = epoch.get();
+        Map<LocalDate, Long> changesBefore = new HashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            changesBefore.put(date, changes(date).get());
+        }
+
+        // Не read-only: читаем primary, реплика могла ещё не получить изменения, о которых уже пришли сообщения
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Loaded loaded = transaction.execute(status -> new Loaded(
+                freeSlotRepository.findOpenMachines(from, to),
+                freeSlotRepository.findFreeSlots(from, to)));
+        if (loaded == null) {
+            return;
+        }
+
+        Map<LocalDate, Map<UUID, String>> machinesByDate = new HashMap<>();
+        for (FreeSlotRepository.OpenMachine machine : loaded.machines()) {
+            machinesByDate.computeIfAbsent(machine.date(), d -> new HashMap<>())
+                    .put(machine.machineId(), machine.machineName());
+        }
+        Map<LocalDate, List<FreeSlotDto>> slotsByDate = new HashMap<>();
+        for (FreeSlotDto slot : loaded.slots()) {
+            slotsByDate.computeIfAbsent(slot.getStartTime().toLocalDate(), d -> new ArrayList<>()).add(slot);
+        }
+
+        synchronized (this) {
+            if (epoch.get() != epochBefore) {
+                return;
+            }
+            changesBefore.forEach((date, before) -> {
+                if (loadedDates.containsKey(date) || changes(date).get() != before) {
+                    return;
+                }
+                clearDate(date);
+                for (FreeSlotDto slot : slotsByDate.getOrDefault(date, List.of())) {
+                    machineSlots(slot.getMachineId()).put(slot.getStartTime(), slot);
+                }
+                loadedDates.put(date, Map.copyOf(machinesByDate.getOrDefault(date, Map.of())));
+            });
+        }
+    }
+
+    private synchronized void applySlotChange(LocalDate date, Invalidation.SlotChange change) {
+        changes(date).incrementAndGet();
+        Map<UUID, String> openMachines = loadedDates.get(date);
+        if (openMachines == null) {
+            // Дата не загружена: прочитается целиком при обращении
+            return;
+        }
+
+        NavigableMap<LocalDateTime, FreeSlotDto> slots = machineSlots(change.machineId());
+        if (change.free()) {
+            String machineName = openMachines.get(change.machineId());
+            if (machineName != null) {
+                slots.put(change.startTime(), new FreeSlotDto(
+                        change.slotId(), change.machineId(), machineName, change.startTime(), change.endTime()));
+            }
+        } else {
+            FreeSlotDto current = slots.get(change.startTime());
+            if (current != null && current.getSlotId().equals(change.slotId())) {
+                slots.remove(change.startTime());
+            }
+        }
+    }
+
+    private synchronized void resetDate(LocalDate date) {
+        changes(date).incrementAndGet();
+        loadedDates.remove(date);
+        clearDate(date);
+    }
+
+    private synchronized void resetAll() {
+        epoch.incrementAndGet();
+        loadedDates.clear();
+        slotsByMachine.clear();
+    }
+
+    private void clearDate(LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.plusDays(1).atStartOfDay();
+        slotsByMachine.values().forEach(slots -> slots.subMap(start, end).clear());
+    }
+
+    private ConcurrentSkipListMap<LocalDateTime, FreeSlotDto> machineSlots(UUID machineId) {
+        return slotsByMachine.computeIfAbsent(machineId, id -> new ConcurrentSkipListMap<>());
+    }
+
+    private AtomicLong changes(LocalDate date) {
+        return dateChanges.computeIfAbsent(date, d -> new AtomicLong());
+    }
+
+    private record Loaded(List<FreeSlotRepository.OpenMachine> machines, List<FreeSlotDto> slots) {
+    }
+
+    /**
+     * Итератор по слотам одной машинки с текущим элементом
+     */
+    private static final class Cursor {
+        private final Iterator<FreeSlotDto> iterator;
+        private FreeSlotDto current;
+
+        Cursor(Iterator<FreeSlotDto> iterator) {
+            this.iterator = iterator;
+        }
+
+        FreeSlotDto current() {
+            return current;
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            current = iterator.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import com.laundry.booking.dto.MachineView;
+import com.laundry.booking.repository.ScheduleReadRepository;
+import com.laundry.booking.repository.ScheduleReadRepository.ScheduleDay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Справочные данные расписания, которые меняет только администратор: список машинок
+ * и настройки дат (открыта ли запись, выбранные машинки).
+ *
+ * Инвалидация точечная, по шине: SCHEDULE сбрасывает настройки одной даты,
+ * MACHINES - список машинок и все настройки (удаление машинки убирает её из всех дат);
+ * записи и слоты (DATE, SLOT) этот кэш не затрагивают. TTL - страховка на случай потерянного сообщения.
+ * Загрузка всегда читает primary, даже если вызвана из read-only транзакции (реплики): отстающая реплика
+ * после сброса вернула бы старые настройки, и они закэшировались бы на весь TTL.
+ * Слушатель вызывается раньше ScheduleVersions: к моменту, когда версия даты выросла,
+ * старые настройки уже сброшены, и новая загрузка расписания прочитает свежие.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReferenceDataCache implements InvalidationListener {
+
+    private static final String ALL_MACHINES = "all";
+
+    private final ScheduleReadRepository scheduleReadRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final BoundedTtlCache<String, List<MachineView>> machines;
+    // Дата -> настройки; Optional.empty() - настроек на дату нет
+    private final BoundedTtlCache<LocalDate, Optional<ScheduleDay>> scheduleDays;
+
+    public ReferenceDataCache(ScheduleReadRepository scheduleReadRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${cache.reference.ttl:PT10M}") Duration ttl,
+                              @Value("${cache.reference.max-dates:400}") int maxDates) {
+        this.scheduleReadRepository = scheduleReadRepository;
+        this.transactionManager = transactionManager;
+        this.machines = new BoundedTtlCache<>(1, ttl);
+        this.scheduleDays = new BoundedTtlCache<>(maxDates, ttl);
+    }
+
+    /**
+     * Все машинки
+     */
+    public List<MachineView> machines() {
+        return machines.get(ALL_MACHINES, key -> List.copyOf(fromPrimary(scheduleReadRepository::findMachines)));
+    }
+
+    /**
+     * Настройки даты или null, если их нет
+     */
+    public ScheduleDay scheduleDay(LocalDate date) {
+        return scheduleDays.get(date, day -> fromPrimary(() -> scheduleReadRepository.findScheduleDays(day, day)).stream().findFirst())
+                .orElse(null);
+    }
+
+    /**
+     * Настройки дат [from, to] (только даты, где они есть); недостающие даты читаются одним запросом
+     */
+    public Map<LocalDate, ScheduleDay> scheduleDays(LocalDate from, LocalDate to) {
+        Map<LocalDate, ScheduleDay> result = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Optional<ScheduleDay> cached = scheduleDays.getIfPresent(date);
+            if (cached == null) {
+                scheduleDays.recordMiss();
+                firstMissing = firstMissing == null ? date : firstMissing;
+                lastMissing = date;
+            } else {
+                cached.ifPresent(day -> result.put(day.date(), day));
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        long generationBefore = scheduleDays.generation();
+        Map<LocalDate, ScheduleDay> loaded = new HashMap<>();
+        LocalDate loadFrom = firstMissing;
+        LocalDate loadTo = lastMissing;
+        for (ScheduleDay day : fromPrimary(() -> scheduleReadRepository.findScheduleDays(loadFrom, loadTo))) {
+            loaded.put(day.date(), day);
+        }
+        for (LocalDate date = firstMissing; !date.isAfter(lastMissing); date = date.plusDays(1)) {
+            ScheduleDay day = loaded.get(date);
+            scheduleDays.put(date, Optional.ofNullable(day), generationBefore);
+            if (day != null) {
+                result.put(date, day);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Счётчики кэшей: размер, попадания, промахи, вытеснения, инвалидации
+     */
+    public Map<String, BoundedTtlCache.Stats> stats() {
+        return Map.of(
+                "machines", machines.stats(),
+                "scheduleDays", scheduleDays.stats());
+    }
+
+    /**
+     * Прочитать в транзакции primary: read-only транзакция вызывающего приостанавливается,
+     * иначе к ней присоединяемся или открываем свою
+     */
+    private <T> T fromPrimary(Supplier<T> load) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        return transaction.execute(status -> load.get());
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.kind()) {
+            case SCHEDULE -> scheduleDays.invalidate(invalidation.date());
+            case MACHINES -> {
+                machines.invalidateAll();
+                scheduleDays.invalidateAll();
+            }
+        }
+    }
+
+    @Override
+    public void onResync() {
+        machines.invalidateAll();
+        scheduleDays.invalidateAll();
+    }
+}
@@ -0,0 +1,53 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии данных расписания по датам.
+ * Любая мутация, влияющая на расписание даты, увеличивает её версию;
+ * изменения машинок затрагивают все даты сразу и увеличивают общую эпоху.
+ * Версии обновляются из шины инвалидации — после коммита локальной транзакции
+ * или при получении сообщения с другого узла.
+ * Версии прошедших дат убираются раз в день (evictBefore) вместе с закэшированными расписаниями этих дат.
+ */
+@Component
+public class ScheduleVersions implements InvalidationListener {
+
+    private final ConcurrentHashMap<LocalDate, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * Текущая версия расписания на дату
+     */
+    public long current(LocalDate date) {
+        AtomicLong version = versions.get(date);
+        return epoch.get() + (version != null ? version.get() : 0L);
+    }
+
+    /**
+     * Убрать версии дат раньше указанной. Вызывать после того, как убраны значения,
+     * закэшированные с этими версиями: иначе сброшенная версия снова совпала бы со старым значением
+     */
+    public void evictBefore(LocalDate date) {
+        versions.keySet().removeIf(day -> day.isBefore(date));
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        switch (invalidation.kind()) {
+            case DATE, SLOT, SCHEDULE -> versions.computeIfAbsent(invalidation.date(), d -> new AtomicLong()).incrementAndGet();
+            case MACHINES -> epoch.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onResync() {
+        epoch.incrementAndGet();
+    }
+}
@@ -0,0 +1,64 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.dto.TimeslotView;
+import com.laundry.booking.entity.Timeslot;
+import com.laundry.booking.repository.TimeslotRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Машинка и время начала слота по его id.
+ * Время начала - ключ секции timeslots: зная его, слот читается из одной секции (findByIdAndStartTime),
+ * а не поиском по id во всех секциях. Машинка и время слота не меняются, поэтому хранятся долго.
+ *
+ * Кэш заполняется загрузками расписания (клиент записывается на слоты, которые видел в расписании);
+ * слот, которого в кэше нет, один раз ищется по id.
+ */
+@Component
+public class SlotLocator {
+
+    private static final int MAX_SLOTS = 100_000;
+
+    private final TimeslotRepository timeslotRepository;
+    private final BoundedTtlCache<UUID, SlotRef> refs = new BoundedTtlCache<>(MAX_SLOTS, Duration.ofDays(1));
+
+    public record SlotRef(UUID machineId, LocalDateTime startTime) {
+    }
+
+    public SlotLocator(TimeslotRepository timeslotRepository) {
+        this.timeslotRepository = timeslotRepository;
+    }
+
+    /**
+     * Машинка и время слота или null, если слота нет
+     */
+    public SlotRef find(UUID slotId) {
+        return refs.get(slotId, id -> timeslotRepository.findById(id)
+                .map(slot -> new SlotRef(slot.getMachineId(), slot.getStartTime()))
+                .orElse(null));
+    }
+
+    /**
+     * Слот из его секции
+     */
+    public Optional<Timeslot> findSlot(UUID slotId) {
+        SlotRef ref = find(slotId);
+        return ref != null ? timeslotRepository.findByIdAndStartTime(slotId, ref.startTime()) : Optional.empty();
+    }
+
+    /**
+     * Запомнить слоты, прочитанные для расписания; возвращает тот же список
+     */
+    public List<TimeslotView> remember(List<TimeslotView> slots) {
+        long generation = refs.generation();
+        for (TimeslotView slot : slots) {
+            refs.put(slot.id(), new SlotRef(slot.machineId(), slot.startTime()), generation);
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,94 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationListener;
+import com.laundry.booking.dto.UserView;
+import com.laundry.booking.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Снимки пользователей для входа, GET /api/auth/user и проверок записи (блокировка).
+ *
+ * Снимок хранится по id; имя ведёт к id (логин не меняется, поэтому имя -> id инвалидировать не нужно).
+ * Несуществующие пользователи не кэшируются - регистрация сразу видна.
+ * Сообщение USER с id сбрасывает снимок пользователя (блокировка, разблокировка, регистрация),
+ * USER без ключа - все снимки (массовые операции). TTL - страховка на случай потерянного сообщения.
+ */
+@Component
+public class UserCache implements InvalidationListener {
+
+    private final UserRepository userRepository;
+    private final BoundedTtlCache<UUID, UserView> users;
+    private final BoundedTtlCache<String, UUID> idsByName;
+
+    public UserCache(UserRepository userRepository,
+                     @Value("${cache.users.ttl:PT5M}") Duration ttl,
+                     @Value("${cache.users.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.users = new BoundedTtlCache<>(maxSize, ttl);
+        this.idsByName = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Пользователь по id или null
+     */
+    public UserView byId(UUID id) {
+        return users.get(id, key -> userRepository.findById(key).map(UserView::of).orElse(null));
+    }
+
+    /**
+     * Пользователь по логину или null
+     */
+    public UserView byName(String name) {
+        UUID id = idsByName.getIfPresent(name);
+        if (id != null) {
+            return byId(id);
+        }
+        idsByName.recordMiss();
+        long namesGeneration = idsByName.generation();
+        long usersGeneration = users.generation();
+        UserView user = userRepository.findByName(name).map(UserView::of).orElse(null);
+        if (user != null) {
+            users.put(user.id(), user, usersGeneration);
+            idsByName.put(name, user.id(), namesGeneration);
+        }
+        return user;
+    }
+
+    /**
+     * Заблокирован ли пользователь; неизвестный пользователь считается заблокированным
+     */
+    public boolean isBlocked(UUID id) {
+        UserView user = byId(id);
+        return user == null || user.isBlocked();
+    }
+
+    public Map<String, BoundedTtlCache.Stats> stats() {
+        return Map.of(
+                "users", users.stats(),
+                "userNames", idsByName.stats());
+    }
+
+    @Override
+    public void onInvalidation(Invalidation invalidation) {
+        if (invalidation.kind() != Invalidation.Kind.USER) {
+            return;
+        }
+        if (invalidation.key() == null) {
+            users.invalidateAll();
+        } else {
+            users.invalidate(invalidation.userId());
+        }
+    }
+
+    @Override
+    public void onResync() {
+        users.invalidateAll();
+        idsByName.invalidateAll();
+    }
+}
@@ -0,0 +1,74 @@
+package com.laundry.booking.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Кэш значений с версией: значение отдаётся, только если его версия совпадает с текущей версией ключа
+ * (например, ScheduleVersions.current(date)). Инвалидация не нужна — после мутации версия растёт,
+ * и старое значение просто перестаёт совпадать; при следующей загрузке оно перезаписывается.
+ * Размер ограничен: при переполнении вытесняется давно не читавшийся ключ (LRU);
+ * записи старше ttl не отдаются - страховка на случай потерянного сообщения шины.
+ */
+public class VersionedCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private record Entry<V>(long version, V value, long loadedAt) {
+    }
+
+    public VersionedCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > VersionedCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Значение версии version или null
+     */
+    public V get(K key, long version) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || entry.version() != version || System.nanoTime() - entry.loadedAt() > ttlNanos) {
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    /**
+     * Запомнить значение, прочитанное при версии version (более новая версия не затирается)
+     */
+    public void put(K key, long version, V value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (entries) {
+            Entry<V> current = entries.get(key);
+            if (current == null || version >= current.version()) {
+                entries.put(key, new Entry<>(version, value, System.nanoTime()));
+            }
+        }
+    }
+
+    public void removeIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
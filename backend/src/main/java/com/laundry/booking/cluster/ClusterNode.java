@@ -0,0 +1,33 @@
+package com.laundry.booking.cluster;
+
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * Идентификатор текущего узла (реплики бэкенда).
+ * Нужен, чтобы узел не обрабатывал собственные сообщения из шины
+ * и чтобы в журналах было видно, какая реплика выполнила работу.
+ */
+@Component
+public class ClusterNode {
+
+    private final String id;
+
+    public ClusterNode() {
+        this.id = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
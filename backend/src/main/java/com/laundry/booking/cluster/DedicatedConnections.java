@@ -0,0 +1,34 @@
+package com.laundry.booking.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Долгоживущие соединения с основной БД вне пула Hikari.
+ * Используются там, где важна сессия Postgres целиком: LISTEN и advisory-локи.
+ * Пул закрывал бы такие соединения по maxLifetime и терял бы их состояние.
+ * Свои соединения есть и у потоков очередей записи (BookingAdmission): им не приходится ждать пул,
+ * занятый запросами, которые сами ждут результата очереди.
+ */
+@Component
+@RequiredArgsConstructor
+public class DedicatedConnections {
+
+    private final DataSourceProperties dataSourceProperties;
+
+    public Connection open(String applicationName) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        properties.setProperty("ApplicationName", applicationName);
+        // Обрыв сети должен обнаруживаться, иначе сессия (и её локи) зависнет надолго
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+}
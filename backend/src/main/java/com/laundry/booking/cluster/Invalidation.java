@@ -0,0 +1,150 @@
+package com.laundry.booking.cluster;
+
+import com.laundry.booking.entity.Timeslot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Сообщение об инвалидации кэшей.
+ * На проводе кодируется компактной строкой "origin|kind|key",
+ * например "host-1a2b3c4d|D|2025-01-31".
+ *
+ * @param kind   что изменилось
+ * @param key    ключ изменения (дата для DATE и SCHEDULE; для SLOT — дата и состояние слота через запятую;
+ *               id пользователя для USER), может быть null
+ * @param remote true, если сообщение пришло с другого узла
+ */
+public record Invalidation(Kind kind, String key, boolean remote) {
+
+    private static final char SEPARATOR = '|';
+    private static final char SLOT_FIELD_SEPARATOR = ',';
+
+    public enum Kind {
+        /** Изменились слоты, бронирования или настройки расписания на дату */
+        DATE('D'),
+        /** Изменился список или статус машинок — затрагивает все даты */
+        MACHINES('M'),
+        /**
+         * Слот занят или освобождён (запись, отмена, перенос) — частный случай DATE,
+         * несёт состояние слота, чтобы индексы могли обновиться точечно без перечитывания даты
+         */
+        SLOT('S'),
+        /**
+         * Изменились настройки расписания на дату (открыта ли запись, выбранные машинки) — частный случай DATE,
+         * по нему кэш настроек (ReferenceDataCache) сбрасывает только эту дату
+         */
+        SCHEDULE('C'),
+        /** Изменился пользователь (блокировка, регистрация); без ключа — все пользователи */
+        USER('U');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind fromCode(char code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown invalidation kind: " + code);
+        }
+    }
+
+    public static Invalidation date(LocalDate date) {
+        return new Invalidation(Kind.DATE, date.toString(), false);
+    }
+
+    public static Invalidation schedule(LocalDate date) {
+        return new Invalidation(Kind.SCHEDULE, date.toString(), false);
+    }
+
+    public static Invalidation user(UUID userId) {
+        return new Invalidation(Kind.USER, userId.toString(), false);
+    }
+
+    public static Invalidation users() {
+        return new Invalidation(Kind.USER, null, false);
+    }
+
+    public static Invalidation machines() {
+        return new Invalidation(Kind.MACHINES, null, false);
+    }
+
+    /**
+     * Слот после изменения: free — свободен ли он теперь для записи
+     */
+    public static Invalidation slot(Timeslot slot, boolean free) {
+        return slot(slot.getId(), slot.getMachineId(), slot.getStartTime(), slot.getEndTime(), free);
+    }
+
+    public static Invalidation slot(UUID slotId, UUID machineId, LocalDateTime startTime, LocalDateTime endTime,
+                                    boolean free) {
+        String key = String.join(String.valueOf(SLOT_FIELD_SEPARATOR),
+                startTime.toLocalDate().toString(),
+                slotId.toString(),
+                machineId.toString(),
+                startTime.toString(),
+                endTime.toString(),
+                free ? "1" : "0");
+        return new Invalidation(Kind.SLOT, key, false);
+    }
+
+    /**
+     * Дата изменения (для DATE, SLOT и SCHEDULE)
+     */
+    public LocalDate date() {
+        int end = key.indexOf(SLOT_FIELD_SEPARATOR);
+        return LocalDate.parse(end < 0 ? key : key.substring(0, end));
+    }
+
+    /**
+     * Пользователь из сообщения USER
+     */
+    public UUID userId() {
+        return UUID.fromString(key);
+    }
+
+    /**
+     * Состояние слота из сообщения SLOT
+     */
+    public SlotChange slotChange() {
+        String[] fields = key.split(String.valueOf(SLOT_FIELD_SEPARATOR));
+        return new SlotChange(
+                UUID.fromString(fields[1]),
+                UUID.fromString(fields[2]),
+                LocalDateTime.parse(fields[3]),
+                LocalDateTime.parse(fields[4]),
+                "1".equals(fields[5]));
+    }
+
+    public record SlotChange(UUID slotId, UUID machineId, LocalDateTime startTime, LocalDateTime endTime, boolean free) {
+    }
+
+    String encode(String origin) {
+        return origin + SEPARATOR + kind.code + SEPARATOR + (key != null ? key : "");
+    }
+
+    /**
+     * Узел-источник сообщения в закодированном виде
+     */
+    static String originOf(String payload) {
+        int end = payload.indexOf(SEPARATOR);
+        return end < 0 ? payload : payload.substring(0, end);
+    }
+
+    static Invalidation decode(String payload) {
+        int first = payload.indexOf(SEPARATOR);
+        int second = payload.indexOf(SEPARATOR, first + 1);
+        if (first < 0 || second != first + 2) {
+            throw new IllegalArgumentException("Malformed invalidation payload: " + payload);
+        }
+        Kind kind = Kind.fromCode(payload.charAt(first + 1));
+        String key = payload.substring(second + 1);
+        return new Invalidation(kind, key.isEmpty() ? null : key, true);
+    }
+}
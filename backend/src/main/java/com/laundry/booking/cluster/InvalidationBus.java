@@ -0,0 +1,125 @@
+package com.laundry.booking.cluster;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Шина инвалидации кэшей между репликами на основе Postgres LISTEN/NOTIFY.
+ *
+ * Публикация выполняет pg_notify в текущей транзакции: Postgres доставит сообщение
+ * подписчикам только после коммита и отбросит его при откате, а одинаковые сообщения
+ * в одной транзакции схлопнет. Локальные слушатели вызываются после коммита.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvalidationBus {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClusterNode clusterNode;
+    private final ObjectProvider<InvalidationListener> listeners;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.channel:laundry_invalidation}")
+    private String channel;
+
+    /**
+     * Опубликовать инвалидацию для всех узлов
+     */
+    public void publish(Invalidation invalidation) {
+        if (enabled) {
+            String payload = invalidation.encode(clusterNode.getId());
+            jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) ps -> {
+                ps.setString(1, channel);
+                ps.setString(2, payload);
+                return ps.execute();
+            });
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dispatch(invalidation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatch(invalidation);
+            }
+        });
+    }
+
+    /**
+     * Опубликовать инвалидации в транзакции соединения вне пула (очереди записи BookingAdmission).
+     * Postgres доставит их другим узлам после коммита этого соединения;
+     * локальным слушателям сообщения передаёт dispatchCommitted после коммита.
+     */
+    public void notifyOn(Connection connection, List<Invalidation> invalidations) throws SQLException {
+        if (!enabled || invalidations.isEmpty()) {
+            return;
+        }
+        String[] payloads = invalidations.stream()
+                .map(invalidation -> invalidation.encode(clusterNode.getId()))
+                .toArray(String[]::new);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT pg_notify(?, payload) FROM unnest(CAST(? AS text[])) AS payload")) {
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads));
+            statement.execute();
+        }
+    }
+
+    /**
+     * Передать локальным слушателям инвалидации, уже зафиксированные через notifyOn
+     */
+    public void dispatchCommitted(List<Invalidation> invalidations) {
+        invalidations.forEach(this::dispatch);
+    }
+
+    /**
+     * Передать сообщение локальным слушателям
+     */
+    void dispatch(Invalidation invalidation) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed for {}", listener.getClass().getSimpleName(), invalidation, e);
+            }
+        });
+    }
+
+    /**
+     * Сбросить состояние всех локальных слушателей
+     */
+    void resync() {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onResync();
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener {} failed to resync", listener.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+}
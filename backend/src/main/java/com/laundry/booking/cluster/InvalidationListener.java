@@ -0,0 +1,17 @@
+package com.laundry.booking.cluster;
+
+/**
+ * Получатель сообщений шины инвалидации.
+ * Вызывается и для локальных мутаций (после коммита), и для сообщений с других узлов.
+ */
+public interface InvalidationListener {
+
+    void onInvalidation(Invalidation invalidation);
+
+    /**
+     * Вызывается после восстановления соединения с шиной:
+     * сообщения за время разрыва потеряны, поэтому нужно сбросить всё состояние.
+     */
+    default void onResync() {
+    }
+}
@@ -0,0 +1,152 @@
+package com.laundry.booking.cluster;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Подписчик шины инвалидации.
+ * Держит отдельное соединение с Postgres вне пула, выполняет LISTEN и раздаёт пришедшие сообщения локальным слушателям.
+ * При обрыве соединения переподключается и вызывает полный resync,
+ * так как уведомления за время разрыва Postgres не хранит.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InvalidationSubscriber implements SmartLifecycle {
+
+    private final InvalidationBus invalidationBus;
+    private final ClusterNode clusterNode;
+    private final DedicatedConnections dedicatedConnections;
+
+    @Value("${cache.invalidation.poll-timeout-ms:5000}")
+    private int pollTimeoutMs;
+
+    @Value("${cache.invalidation.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private volatile boolean running;
+    private volatile Thread worker;
+    private volatile Connection connection;
+
+    @Override
+    public void start() {
+        if (!invalidationBus.isEnabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::listenLoop, "invalidation-subscriber");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly();
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        boolean connectedBefore = false;
+        while (running) {
+            try {
+                connect();
+                if (connectedBefore) {
+                    log.info("Invalidation subscriber reconnected, resyncing local caches");
+                    invalidationBus.resync();
+                }
+                connectedBefore = true;
+                poll();
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Invalidation subscriber lost connection: {}", e.getMessage());
+                }
+            } finally {
+                closeQuietly();
+            }
+
+            if (running) {
+                sleep(reconnectDelayMs);
+            }
+        }
+    }
+
+    private void connect() throws SQLException {
+        connection = dedicatedConnections.open("invalidation-subscriber");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + quoteIdentifier(invalidationBus.getChannel()));
+        }
+        log.info("Invalidation subscriber listening on channel {}", invalidationBus.getChannel());
+    }
+
+    private void poll() throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            // Блокируется до прихода уведомлений или до таймаута
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+            if (notifications == null || notifications.length == 0) {
+                // Проверка живости соединения в периоды тишины
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        if (clusterNode.getId().equals(Invalidation.originOf(payload))) {
+            // Собственные сообщения уже обработаны локально после коммита
+            return;
+        }
+        try {
+            invalidationBus.dispatch(Invalidation.decode(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring invalidation message: {}", e.getMessage());
+        }
+    }
+
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ignored) {
+                // соединение уже закрыто
+            }
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
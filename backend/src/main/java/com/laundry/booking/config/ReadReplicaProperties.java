@@ -0,0 +1,25 @@
+package com.laundry.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Настройки пула для чтения (реплика или второй пул к той же БД)
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource.read")
+public class ReadReplicaProperties {
+
+    private String url;
+    private String username;
+    private String password;
+
+    /** Размер пула соединений для чтения */
+    private int maximumPoolSize = 10;
+
+    /** Допустимое отставание реплики; при большем отставании чтения идут в primary */
+    private long maxLagMs = 1000;
+
+    /** Период проверки отставания реплики */
+    private long checkIntervalMs = 5000;
+}
@@ -0,0 +1,53 @@
+package com.laundry.booking.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Направляет соединения read-only транзакций в пул для чтения, остальные — в primary.
+ * Должен оборачиваться в LazyConnectionDataSourceProxy: флаг readOnly транзакции
+ * выставляется после её начала, поэтому физическое соединение нужно брать при первом запросе.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, READ
+    }
+
+    private final DataSource primaryDataSource;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primaryDataSource, DataSource readDataSource, ReplicaLagMonitor lagMonitor) {
+        this.primaryDataSource = primaryDataSource;
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primaryDataSource, Route.READ, readDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && lagMonitor.isUsable()) {
+            return Route.READ;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Route.READ) {
+            return primaryDataSource.getConnection();
+        }
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            // Пул для чтения недоступен — читаем из primary
+            lagMonitor.markUnavailable(e);
+            return primaryDataSource.getConnection();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.laundry.booking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Следит за отставанием пула для чтения и решает, можно ли сейчас читать из него.
+ * Если реплика недоступна или отстаёт больше допустимого, чтения временно уходят в primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Для primary (второй пул к той же БД) отставание всегда 0;
+    // для реплики, которая догнала primary, тоже 0, даже если записей давно не было
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0)
+            END
+            """;
+
+    private final DataSource readDataSource;
+    private final long maxLagMs;
+
+    private volatile boolean usable;
+    private volatile long lastLagMs;
+
+    public ReplicaLagMonitor(DataSource readDataSource, long maxLagMs) {
+        this.readDataSource = readDataSource;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    /**
+     * Отметить пул недоступным до следующей успешной проверки
+     */
+    public void markUnavailable(SQLException cause) {
+        if (usable) {
+            log.warn("Read pool unavailable, routing reads to primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.read.check-interval-ms:5000}")
+    public void check() {
+        try (Connection connection = readDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            long lagMs = (long) resultSet.getDouble(1);
+            boolean nowUsable = lagMs <= maxLagMs;
+            if (nowUsable != usable) {
+                log.info("Read pool {} (lag {} ms, tolerance {} ms)", nowUsable ? "enabled" : "disabled", lagMs, maxLagMs);
+            }
+            lastLagMs = lagMs;
+            usable = nowUsable;
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.laundry.booking.controller;
 
+import com.laundry.booking.admission.BookingAdmission;
+import com.laundry.booking.cache.BoundedTtlCache;
+import com.laundry.booking.cache.CachePrewarmer;
+import com.laundry.booking.diagnostics.AllocationMeter;
 import com.laundry.booking.dto.*;
 import com.laundry.booking.entity.Machine;
 import com.laundry.booking.entity.User;
+import com.laundry.booking.ratelimit.TokenBucketLimiter;
 import com.laundry.booking.service.AdminService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Admin Controller - Admin Panel UI
@@ -46,20 +54,26 @@ public class AdminController {
 
     /**
      * DELETE /api/admin/machines/:machineId
-     * Response: { result: boolean, message: String }
+     * Машинка сразу скрывается, записи и слоты удаляются фоновой задачей
+     * Response: { result: boolean, message: String, jobId: UUID }
      */
     @DeleteMapping("/machines/{machineId}")
-    public ResponseEntity<BookingResult> deleteMachine(@PathVariable String machineId) {
-        BookingResult result = adminService.deleteMachine(machineId);
+    public ResponseEntity<AdminJobResult> deleteMachine(@PathVariable UUID machineId) {
+        AdminJobResult result = adminService.deleteMachine(machineId);
         return ResponseEntity.ok(result);
     }
 
     /**
      * POST /api/admin/machines/block
+     * Body: { machineId: UUID, cancelFutureBookings?: boolean }
+     * Response: { result: boolean, message: String }
      */
     @PostMapping("/machines/block")
     public ResponseEntity<BookingResult> blockMachine(@RequestBody MachineRequest request) {
-        BookingResult result = adminService.blockMachine(request.getMachineId());
+        BookingResult result = adminService.blockMachine(
+            request.getMachineId(),
+            Boolean.TRUE.equals(request.getCancelFutureBookings())
+        );
         return ResponseEntity.ok(result);
     }
 
@@ -72,6 +86,24 @@ public class AdminController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * POST /api/admin/machines/bulk/block
+     * Body: { machineIds: List<UUID> }
+     * Response: { result, message, succeeded, items: [{ id, result, message }] }
+     */
+    @PostMapping("/machines/bulk/block")
+    public ResponseEntity<BulkResult> blockMachines(@RequestBody BulkMachineRequest request) {
+        return ResponseEntity.ok(adminService.blockMachines(request));
+    }
+
+    /**
+     * POST /api/admin/machines/bulk/unblock
+     */
+    @PostMapping("/machines/bulk/unblock")
+    public ResponseEntity<BulkResult> unblockMachines(@RequestBody BulkMachineRequest request) {
+        return ResponseEntity.ok(adminService.unblockMachines(request));
+    }
+
     // ============= SCHEDULES =============
 
     /**
@@ -91,20 +123,102 @@ public class AdminController {
      */
     @PostMapping("/schedules")
     public ResponseEntity<ScheduleDto> createOrUpdateSchedule(@RequestBody ScheduleRequest request) {
-        ScheduleDto schedule = adminService.createOrUpdateSchedule(request);
-        return ResponseEntity.ok(schedule);
+        try {
+            ScheduleDto schedule = adminService.createOrUpdateSchedule(request);
+            return ResponseEntity.ok(schedule);
+        } catch (IllegalStateException e) {
+            // Расписание на эту дату ещё удаляется
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
      * DELETE /api/admin/schedules/:scheduleId
-     * Response: { result: boolean, message: String }
+     * Запись на дату сразу закрывается, слоты и записи удаляются фоновой задачей
+     * Response: { result: boolean, message: String, jobId: UUID }
      */
     @DeleteMapping("/schedules/{scheduleId}")
-    public ResponseEntity<BookingResult> deleteSchedule(@PathVariable String scheduleId) {
-        BookingResult result = adminService.deleteSchedule(scheduleId);
+    public ResponseEntity<AdminJobResult> deleteSchedule(@PathVariable UUID scheduleId) {
+        AdminJobResult result = adminService.deleteSchedule(scheduleId);
         return ResponseEntity.ok(result);
     }
 
+    // ============= JOBS =============
+
+    /**
+     * GET /api/admin/jobs
+     * Response: List<AdminJobDto> (последние 50)
+     */
+    @GetMapping("/jobs")
+    public ResponseEntity<List<AdminJobDto>> getRecentJobs() {
+        return ResponseEntity.ok(adminService.getRecentJobs());
+    }
+
+    /**
+     * GET /api/admin/jobs/:jobId
+     * Response: AdminJobDto (status, totalRows, deletedRows, error)
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AdminJobDto> getJob(@PathVariable UUID jobId) {
+        AdminJobDto job = adminService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    // ============= STATS =============
+
+    /**
+     * GET /api/admin/stats/allocations
+     * Response: { "schedule.projection": { count, totalBytes, avgBytes, maxBytes }, ... }
+     */
+    @GetMapping("/stats/allocations")
+    public ResponseEntity<Map<String, AllocationMeter.Snapshot>> getAllocationStats() {
+        return ResponseEntity.ok(adminService.getAllocationStats());
+    }
+
+    /**
+     * GET /api/admin/stats/prewarm
+     * Response: { trigger, startedAt, from, to, dates, scheduleMs, availabilityMs, freeSlotsMs, totalMs, error }
+     */
+    @GetMapping("/stats/prewarm")
+    public ResponseEntity<CachePrewarmer.Report> getPrewarmReport() {
+        CachePrewarmer.Report report = adminService.getPrewarmReport();
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * GET /api/admin/stats/caches
+     * Response: { "machines": { size, maxSize, hits, misses, hitRate, evictions, invalidations },
+     *            "scheduleDays": { ... }, "userNames": { ... }, "users": { ... }, "idempotencyKeys": { ... } }
+     */
+    @GetMapping("/stats/caches")
+    public ResponseEntity<Map<String, BoundedTtlCache.Stats>> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
+    /**
+     * GET /api/admin/stats/rate-limits
+     * Response: { "booking": { allowed, rejected }, "login": { ... }, "schedule": { ... } }
+     */
+    @GetMapping("/stats/rate-limits")
+    public ResponseEntity<Map<String, TokenBucketLimiter.Stats>> getRateLimitStats() {
+        return ResponseEntity.ok(adminService.getRateLimitStats());
+    }
+
+    /**
+     * GET /api/admin/stats/admission
+     * Response: { lanes, submitted, batches, avgBatchSize, created, rejectedInMemory, rejectedOnWrite, failed }
+     */
+    @GetMapping("/stats/admission")
+    public ResponseEntity<BookingAdmission.Stats> getAdmissionStats() {
+        return ResponseEntity.ok(adminService.getAdmissionStats());
+    }
+
     // ============= BOOKINGS =============
 
     /**
@@ -120,11 +234,21 @@ public class AdminController {
      * DELETE /api/admin/bookings/:bookingId
      */
     @DeleteMapping("/bookings/{bookingId}")
-    public ResponseEntity<BookingResult> deleteBooking(@PathVariable String bookingId) {
+    public ResponseEntity<BookingResult> deleteBooking(@PathVariable UUID bookingId) {
         BookingResult result = adminService.deleteBooking(bookingId);
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * POST /api/admin/bookings/bulk/delete
+     * Body: { bookingIds: List<UUID> } или { machineId, dateFrom, dateTo }
+     * Response: { result, message, succeeded, items: [{ id, result, message }] }
+     */
+    @PostMapping("/bookings/bulk/delete")
+    public ResponseEntity<BulkResult> deleteBookings(@RequestBody BulkBookingRequest request) {
+        return ResponseEntity.ok(adminService.deleteBookings(request));
+    }
+
     // ============= USERS =============
 
     /**
@@ -136,6 +260,25 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * GET /api/admin/users/search?q=&sort=name|fullName|room|createdAt&direction=asc|desc&cursor=&limit=20
+     * Response: { items: List<AdminUserDto>, nextCursor: String }
+     */
+    @GetMapping("/users/search")
+    public ResponseEntity<UserSearchPage> searchUsers(
+        @RequestParam(required = false) String q,
+        @RequestParam(required = false) String sort,
+        @RequestParam(required = false) String direction,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(adminService.searchUsers(q, sort, direction, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * POST /api/admin/users/block
      */
@@ -153,4 +296,22 @@ public class AdminController {
         BookingResult result = adminService.unblockUser(request.getUserId());
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * POST /api/admin/users/bulk/block
+     * Body: { userIds: List<UUID> } или { roomFrom: Integer, roomTo: Integer }
+     * Response: { result, message, succeeded, items: [{ id, result, message }] }
+     */
+    @PostMapping("/users/bulk/block")
+    public ResponseEntity<BulkResult> blockUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(adminService.blockUsers(request));
+    }
+
+    /**
+     * POST /api/admin/users/bulk/unblock
+     */
+    @PostMapping("/users/bulk/unblock")
+    public ResponseEntity<BulkResult> unblockUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(adminService.unblockUsers(request));
+    }
 }
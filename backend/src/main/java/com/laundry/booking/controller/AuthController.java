@@ -3,7 +3,7 @@ package com.laundry.booking.controller;
 import com.laundry.booking.dto.LoginRequest;
 import com.laundry.booking.dto.LoginResponse;
 import com.laundry.booking.dto.RegisterRequest;
-import com.laundry.booking.entity.User;
+import com.laundry.booking.dto.UserView;
 import com.laundry.booking.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -56,8 +56,8 @@ public class AuthController {
      * Response: User object
      */
     @GetMapping("/user/{username}")
-    public ResponseEntity<User> getUser(@PathVariable String username) {
-        User user = authService.getUser(username);
+    public ResponseEntity<UserView> getUser(@PathVariable String username) {
+        UserView user = authService.getUser(username);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
@@ -1,12 +1,15 @@
 package com.laundry.booking.controller;
 
 import com.laundry.booking.dto.*;
+import com.laundry.booking.entity.Notification;
 import com.laundry.booking.service.BookingService;
+import com.laundry.booking.service.IdempotencyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Booking Controller - Booking UI
@@ -16,6 +19,8 @@ import java.util.List;
  * - POST /api/bookings/reschedule
  * - GET /api/bookings/can-book/:userId
  * - GET /api/bookings/user/:userId
+ * - GET /api/bookings/notifications/:userId
+ * - POST /api/bookings/notifications/read
  * - GET /api/slots/available/:machineId/:slotId
  */
 @RestController
@@ -25,48 +30,64 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     /**
      * POST /api/bookings/create
+     * Headers: Idempotency-Key (необязательный) - повтор с тем же ключом вернёт исход первого запроса
      * Body: { userId: String, machineId: String, slotId: String }
      * Response: { result: boolean, message: String }
      */
     @PostMapping("/create")
-    public ResponseEntity<BookingResult> createBooking(@RequestBody CreateBookingRequest request) {
+    public ResponseEntity<BookingResult> createBooking(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CreateBookingRequest request) {
         BookingResult result = bookingService.createBooking(
             request.getUserId(),
             request.getMachineId(),
-            request.getSlotId()
+            request.getSlotId(),
+            idempotencyKey,
+            request.hashCode()
         );
         return ResponseEntity.ok(result);
     }
 
     /**
      * POST /api/bookings/cancel
+     * Headers: Idempotency-Key (необязательный)
      * Body: { bookingId: String, userId: String }
      * Response: { result: boolean, message: String }
      */
     @PostMapping("/cancel")
-    public ResponseEntity<BookingResult> cancelBooking(@RequestBody CancelBookingRequest request) {
-        BookingResult result = bookingService.cancelBooking(
-            request.getBookingId(),
-            request.getUserId()
-        );
+    public ResponseEntity<BookingResult> cancelBooking(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody CancelBookingRequest request) {
+        BookingResult result = idempotencyService.execute(idempotencyKey, request.getUserId(),
+            IdempotencyService.Operation.CANCEL, request.hashCode(),
+            () -> bookingService.cancelBooking(
+                request.getBookingId(),
+                request.getUserId()
+            ));
         return ResponseEntity.ok(result);
     }
 
     /**
      * POST /api/bookings/reschedule
+     * Headers: Idempotency-Key (необязательный)
      * Body: { bookingId: String, newSlotId: String, userId: String }
      * Response: { result: boolean, message: String }
      */
     @PostMapping("/reschedule")
-    public ResponseEntity<BookingResult> rescheduleBooking(@RequestBody RescheduleBookingRequest request) {
-        BookingResult result = bookingService.rescheduleBooking(
-            request.getBookingId(),
-            request.getNewSlotId(),
-            request.getUserId()
-        );
+    public ResponseEntity<BookingResult> rescheduleBooking(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody RescheduleBookingRequest request) {
+        BookingResult result = idempotencyService.execute(idempotencyKey, request.getUserId(),
+            IdempotencyService.Operation.RESCHEDULE, request.hashCode(),
+            () -> bookingService.rescheduleBooking(
+                request.getBookingId(),
+                request.getNewSlotId(),
+                request.getUserId()
+            ));
         return ResponseEntity.ok(result);
     }
 
@@ -75,7 +96,7 @@ public class BookingController {
      * Response: { canBook: boolean }
      */
     @GetMapping("/can-book/{userId}")
-    public ResponseEntity<Boolean> canUserBook(@PathVariable String userId) {
+    public ResponseEntity<Boolean> canUserBook(@PathVariable UUID userId) {
         boolean canBook = bookingService.canUserBook(userId);
         return ResponseEntity.ok(canBook);
     }
@@ -85,19 +106,39 @@ public class BookingController {
      * Response: List<UserBookingDto>
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<UserBookingDto>> getUserBookings(@PathVariable String userId) {
+    public ResponseEntity<List<UserBookingDto>> getUserBookings(@PathVariable UUID userId) {
         List<UserBookingDto> bookings = bookingService.getUserBookings(userId);
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * GET /api/bookings/notifications/:userId
+     * Response: List<Notification> (последние 50, новые сверху)
+     */
+    @GetMapping("/notifications/{userId}")
+    public ResponseEntity<List<Notification>> getNotifications(@PathVariable UUID userId) {
+        return ResponseEntity.ok(bookingService.getNotifications(userId));
+    }
+
+    /**
+     * POST /api/bookings/notifications/read
+     * Body: { userId: UUID }
+     * Response: { result: boolean, message: String }
+     */
+    @PostMapping("/notifications/read")
+    public ResponseEntity<BookingResult> markNotificationsRead(@RequestBody UserRequest request) {
+        BookingResult result = bookingService.markNotificationsRead(request.getUserId());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * GET /api/slots/available/:machineId/:slotId
      * Response: { available: boolean }
      */
     @GetMapping("/slots/available/{machineId}/{slotId}")
     public ResponseEntity<Boolean> isSlotAvailable(
-        @PathVariable String machineId,
-        @PathVariable String slotId
+        @PathVariable UUID machineId,
+        @PathVariable UUID slotId
     ) {
         boolean available = bookingService.isSlotAvailable(machineId, slotId);
         return ResponseEntity.ok(available);
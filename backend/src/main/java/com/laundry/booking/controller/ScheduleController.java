@@ -1,18 +1,26 @@
 package com.laundry.booking.controller;
 
+import com.laundry.booking.dto.DayAvailabilityDto;
 import com.laundry.booking.dto.ScheduleData;
+import com.laundry.booking.dto.ScheduleDataV2;
 import com.laundry.booking.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Schedule Controller - Schedule UI
  * Endpoints:
  * - GET /api/schedule?date={date}&userId={userId}
+ * - GET /api/schedule/v2?date={date}&userId={userId}
+ * - GET /api/schedule/range?from={date}&to={date}&userId={userId}
+ * - GET /api/schedule/availability?from={date}&to={date}&byMachine={boolean}
  */
 @RestController
 @RequestMapping("/api/schedule")
@@ -20,18 +28,80 @@ import java.time.LocalDate;
 @CrossOrigin(origins = "*")
 public class ScheduleController {
 
+    private static final String CBOR_MEDIA_TYPE = "application/cbor";
+    private static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+
     private final ScheduleService scheduleService;
 
     /**
      * GET /api/schedule?date={date}&userId={userId}
      * Response: { schedule: ScheduleData }
+     * При schedule.read-path=json-agg - тот же JSON, собранный одним запросом в Postgres
      */
     @GetMapping
-    public ResponseEntity<ScheduleData> getSchedule(
+    public ResponseEntity<?> getSchedule(
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
         @RequestParam String userId
     ) {
+        if (scheduleService.documentReadPath()) {
+            // Документ уже собран Postgres - байты пишутся в ответ как есть
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(scheduleService.getScheduleDocument(date, userId));
+        }
         ScheduleData schedule = scheduleService.getSchedule(date, userId);
         return ResponseEntity.ok(schedule);
     }
+
+    /**
+     * GET /api/schedule/v2?date={date}&userId={userId}
+     * Компактное расписание; формат выбирается по Accept: application/json,
+     * application/cbor или application/x-jackson-smile (бинарные — при сборке с профилем binary-formats)
+     * Response: ScheduleDataV2
+     */
+    @GetMapping(value = "/v2", produces = {
+        MediaType.APPLICATION_JSON_VALUE, CBOR_MEDIA_TYPE, SMILE_MEDIA_TYPE
+    })
+    public ResponseEntity<ScheduleDataV2> getScheduleV2(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @RequestParam String userId
+    ) {
+        return ResponseEntity.ok(scheduleService.getScheduleV2(date, userId));
+    }
+
+    /**
+     * GET /api/schedule/range?from={date}&to={date}&userId={userId}
+     * Диапазон до 31 дня включительно; машинки, слоты и бронирования читаются одним набором запросов
+     * Response: { "2024-12-17": ScheduleData, "2024-12-18": ScheduleData, ... }
+     */
+    @GetMapping("/range")
+    public ResponseEntity<Map<LocalDate, ScheduleData>> getScheduleRange(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam String userId
+    ) {
+        try {
+            return ResponseEntity.ok(scheduleService.getScheduleRange(from, to, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * GET /api/schedule/availability?from={date}&to={date}&byMachine={boolean}
+     * Диапазон до 62 дней включительно
+     * Response: List<DayAvailabilityDto> { date, free, total, machines?: [{ machineId, free, total }] }
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<DayAvailabilityDto>> getAvailability(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @RequestParam(defaultValue = "false") boolean byMachine
+    ) {
+        try {
+            return ResponseEntity.ok(scheduleService.getAvailability(from, to, byMachine));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.laundry.booking.controller;
+
+import com.laundry.booking.dto.FreeSlotDto;
+import com.laundry.booking.service.SlotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Slot Controller - поиск свободных слотов
+ * Endpoints:
+ * - GET /api/slots/next-available
+ */
+@RestController
+@RequestMapping("/api/slots")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class SlotController {
+
+    private final SlotService slotService;
+
+    /**
+     * GET /api/slots/next-available?from={date}&days=7&timeFrom=18:00&timeTo=22:00&weekdays=MON,WED&machineId={id}&limit=5
+     * Все параметры необязательны
+     * Response: List<FreeSlotDto> по возрастанию времени начала
+     */
+    @GetMapping("/next-available")
+    public ResponseEntity<List<FreeSlotDto>> findNextAvailable(
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(required = false) Integer days,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeFrom,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime timeTo,
+        @RequestParam(required = false) String weekdays,
+        @RequestParam(required = false) UUID machineId,
+        @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(slotService.findNextAvailable(from, days, timeFrom, timeTo, weekdays, machineId, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.laundry.booking.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Сколько байт кучи выделяет операция на текущем потоке (ThreadMXBean.getThreadAllocatedBytes).
+ * Учитываются только выделения самого потока: ожидающие общей загрузки (SingleFlight) не считаются.
+ * Если JVM не поддерживает подсчёт, операция выполняется без измерения.
+ */
+@Slf4j
+@Component
+public class AllocationMeter {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final ConcurrentHashMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Накопленные измерения операции
+     */
+    public record Snapshot(long count, long totalBytes, long avgBytes, long maxBytes) {
+    }
+
+    public AllocationMeter() {
+        com.sun.management.ThreadMXBean bean = null;
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            sunBean.setThreadAllocatedMemoryEnabled(true);
+            bean = sunBean;
+        }
+        this.threads = bean;
+    }
+
+    public <T> T measure(String name, Supplier<T> action) {
+        if (threads == null) {
+            return action.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        T result = action.get();
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        stats.computeIfAbsent(name, key -> new Stats()).record(allocated);
+        log.debug("{} allocated {} bytes", name, allocated);
+        return result;
+    }
+
+    /**
+     * Измерения по операциям, по имени
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        stats.forEach((name, item) -> result.put(name, item.snapshot()));
+        return result;
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final AtomicLong maxBytes = new AtomicLong();
+
+        void record(long bytes) {
+            count.increment();
+            totalBytes.add(bytes);
+            maxBytes.accumulateAndGet(bytes, Math::max);
+        }
+
+        Snapshot snapshot() {
+            long n = count.sum();
+            long total = totalBytes.sum();
+            return new Snapshot(n, total, n == 0 ? 0 : total / n, maxBytes.get());
+        }
+    }
+}
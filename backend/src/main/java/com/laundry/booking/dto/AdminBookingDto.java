@@ -5,19 +5,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AdminBookingDto {
-    private String id;
-    private String userId;
+    private UUID id;
+    private UUID userId;
     private String userName;
     private String userFullName;
     private String userRoom;
-    private String machineId;
+    private UUID machineId;
     private String machineName;
-    private String slotId;
+    private UUID slotId;
     private LocalDateTime slotStartTime;
     private LocalDateTime slotEndTime;
     private String state;
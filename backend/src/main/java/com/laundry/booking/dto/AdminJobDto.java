@@ -0,0 +1,28 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Фоновая задача админки и её прогресс (kind: machine-delete | schedule-delete,
+ * status: queued | running | succeeded | failed)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminJobDto {
+    private UUID id;
+    private String kind;
+    private UUID targetId;
+    private String status;
+    private Long totalRows;
+    private Long deletedRows;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Ответ на операцию, выполняемую фоновой задачей: прогресс — GET /api/admin/jobs/{jobId}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminJobResult {
+    private Boolean result;
+    private String message;
+    private UUID jobId;
+}
@@ -0,0 +1,23 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminUserDto {
+    private UUID id;
+    private String name;
+    private String email;
+    private String fullName;
+    private String room;
+    private String contract;
+    private String role;
+    private Boolean isBlocked;
+    private LocalDateTime createdAt;
+}
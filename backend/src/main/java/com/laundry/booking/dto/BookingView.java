@@ -0,0 +1,19 @@
+package com.laundry.booking.dto;
+
+import com.laundry.booking.entity.Booking;
+import com.laundry.booking.entity.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Бронирование в расписании: только поля, которые нужны экрану записи
+ */
+public record BookingView(UUID id, UUID userId, UUID machineId, UUID slotId,
+                          LocalDateTime slotStartTime, BookingState state) {
+
+    public static BookingView of(Booking booking) {
+        return new BookingView(booking.getId(), booking.getUserId(), booking.getMachineId(),
+                booking.getSlotId(), booking.getSlotStartTime(), booking.getState());
+    }
+}
@@ -0,0 +1,18 @@
+package com.laundry.booking.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Выбор бронирований: список bookingIds или машинка и даты [dateFrom, dateTo]
+ */
+@Data
+public class BulkBookingRequest {
+    private List<UUID> bookingIds;
+    private UUID machineId;
+    private LocalDate dateFrom;
+    private LocalDate dateTo;
+}
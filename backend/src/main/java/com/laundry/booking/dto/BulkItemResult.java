@@ -0,0 +1,16 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+    private UUID id;
+    private Boolean result;
+    private String message;
+}
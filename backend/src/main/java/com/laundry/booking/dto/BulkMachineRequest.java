@@ -0,0 +1,11 @@
+package com.laundry.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkMachineRequest {
+    private List<UUID> machineIds;
+}
@@ -0,0 +1,24 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат массовой операции: общий итог и исход по каждому ID
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResult {
+    private Boolean result;
+    private String message;
+    private Integer succeeded;
+    private List<BulkItemResult> items;
+
+    public static BulkResult rejected(String message) {
+        return new BulkResult(false, message, 0, List.of());
+    }
+}
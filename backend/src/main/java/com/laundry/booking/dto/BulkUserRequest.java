@@ -0,0 +1,16 @@
+package com.laundry.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Выбор пользователей: список userIds или диапазон номеров комнат [roomFrom, roomTo]
+ */
+@Data
+public class BulkUserRequest {
+    private List<UUID> userIds;
+    private Integer roomFrom;
+    private Integer roomTo;
+}
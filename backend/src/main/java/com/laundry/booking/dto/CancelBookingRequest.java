@@ -4,10 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CancelBookingRequest {
-    private String bookingId;
-    private String userId;
+    private UUID bookingId;
+    private UUID userId;
 }
@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CreateBookingRequest {
-    private String userId;
-    private String machineId;
-    private String slotId;
+    private UUID userId;
+    private UUID machineId;
+    private UUID slotId;
 }
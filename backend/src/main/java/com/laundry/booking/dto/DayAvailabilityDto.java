@@ -0,0 +1,23 @@
+package com.laundry.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Свободные и все слоты на дату (machines — только при byMachine=true)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DayAvailabilityDto {
+    private LocalDate date;
+    private Integer free;
+    private Integer total;
+    private List<MachineAvailabilityDto> machines;
+}
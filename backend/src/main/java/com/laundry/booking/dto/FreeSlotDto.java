@@ -0,0 +1,19 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeSlotDto {
+    private UUID slotId;
+    private UUID machineId;
+    private String machineName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -4,9 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class MachineRequest {
-    private String machineId;
+    private UUID machineId;
+    // Только для блокировки: отменить будущие активные записи и закрыть будущие слоты
+    private Boolean cancelFutureBookings;
 }
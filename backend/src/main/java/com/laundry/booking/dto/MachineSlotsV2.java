@@ -0,0 +1,22 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Машинка в расписании v2: slotIds[i] — слот машинки в ячейке сетки i (null, если слота нет),
+ * busy — занятые слоты, mine — слоты с активной записью запросившего пользователя
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MachineSlotsV2 {
+    private UUID id;
+    private String name;
+    private UUID[] slotIds;
+    private int[] busy;
+    private int[] mine;
+}
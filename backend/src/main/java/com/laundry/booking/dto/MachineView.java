@@ -0,0 +1,22 @@
+package com.laundry.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.MachineStatus;
+
+import java.util.UUID;
+
+/**
+ * Машинка в расписании: только поля, которые нужны экрану записи
+ */
+public record MachineView(UUID id, String name, MachineStatus status) {
+
+    public static MachineView of(Machine machine) {
+        return new MachineView(machine.getId(), machine.getName(), machine.getStatus());
+    }
+
+    @JsonProperty("alreadyBlocked")
+    public boolean alreadyBlocked() {
+        return status == MachineStatus.BLOCKED;
+    }
+}
@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class RescheduleBookingRequest {
-    private String bookingId;
-    private String newSlotId;
-    private String userId;
+    private UUID bookingId;
+    private UUID newSlotId;
+    private UUID userId;
 }
@@ -1,8 +1,5 @@
 package com.laundry.booking.dto;
 
-import com.laundry.booking.entity.Booking;
-import com.laundry.booking.entity.Machine;
-import com.laundry.booking.entity.Timeslot;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,7 +10,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ScheduleData {
-    private List<Machine> machines;
-    private List<Timeslot> timeslots;
-    private List<Booking> bookings;
+    private List<MachineView> machines;
+    private List<TimeslotView> timeslots;
+    private List<BookingView> bookings;
 }
@@ -0,0 +1,25 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Компактное расписание на дату (v2).
+ * Сетка слотов общая для всех машинок: starts[i]/ends[i] — минуты от начала дня.
+ * У каждой машинки — id слотов по индексам сетки и битовые маски занятости:
+ * бит i % 32 слова i / 32 относится к слоту сетки i (слова по 32 бита, чтобы значения были точными и в JavaScript).
+ * Пустой список машинок — запись на дату закрыта или машинки не выбраны.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleDataV2 {
+    private LocalDate date;
+    private int[] starts;
+    private int[] ends;
+    private List<MachineSlotsV2> machines;
+}
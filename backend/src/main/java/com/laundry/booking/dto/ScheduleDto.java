@@ -6,14 +6,15 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ScheduleDto {
-    private String id;
+    private UUID id;
     private LocalDate date;
     private Boolean isOpen;
-    private List<String> machineIds;
+    private List<UUID> machineIds;
     private LocalDateTime createdAt;
 }
@@ -3,11 +3,12 @@ package com.laundry.booking.dto;
 import lombok.Data;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 public class ScheduleRequest {
     private LocalDate date;
     private Boolean isOpen;
-    private List<String> machineIds; // машинки, для которых открыта запись на эту дату
+    private List<UUID> machineIds; // машинки, для которых открыта запись на эту дату
     private List<String> timeSlots; // временные слоты в формате "HH:mm-HH:mm" (например ["08:00-10:00", "10:00-12:00"])
 }
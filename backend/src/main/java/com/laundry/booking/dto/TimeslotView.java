@@ -0,0 +1,25 @@
+package com.laundry.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.laundry.booking.entity.Timeslot;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Слот в расписании: только поля, которые нужны экрану записи
+ */
+public record TimeslotView(UUID id, LocalDateTime startTime, LocalDateTime endTime,
+                           @JsonProperty("isAvailable") boolean isAvailable, UUID machineId) {
+
+    public static TimeslotView of(Timeslot slot) {
+        return new TimeslotView(slot.getId(), slot.getStartTime(), slot.getEndTime(),
+                slot.getIsAvailable(), slot.getMachineId());
+    }
+
+    // Фронтенд ссылается на слот по slotId
+    @JsonProperty("slotId")
+    public UUID slotId() {
+        return id;
+    }
+}
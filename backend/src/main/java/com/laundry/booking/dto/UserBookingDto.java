@@ -5,15 +5,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserBookingDto {
-    private String id;
-    private String machineId;
+    private UUID id;
+    private UUID machineId;
     private String machineName;
-    private String slotId;
+    private UUID slotId;
     private LocalDateTime slotStartTime;
     private LocalDateTime slotEndTime;
     private String state;
@@ -2,7 +2,9 @@ package com.laundry.booking.dto;
 
 import lombok.Data;
 
+import java.util.UUID;
+
 @Data
 public class UserRequest {
-    private String userId;
+    private UUID userId;
 }
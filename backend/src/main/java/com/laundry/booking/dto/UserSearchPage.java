@@ -0,0 +1,19 @@
+package com.laundry.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска пользователей.
+ * nextCursor передаётся в следующий запрос; null - страниц больше нет.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchPage {
+    private List<AdminUserDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.laundry.booking.dto;
+
+/**
+ * Поле сортировки в поиске пользователей (параметр sort)
+ */
+public enum UserSearchSort {
+    NAME("name"),
+    FULL_NAME("fullName"),
+    ROOM("room"),
+    CREATED_AT("createdAt");
+
+    private final String param;
+
+    UserSearchSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    public static UserSearchSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return NAME;
+        }
+        for (UserSearchSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort: " + param);
+    }
+}
@@ -0,0 +1,31 @@
+package com.laundry.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.laundry.booking.entity.User;
+import com.laundry.booking.entity.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Неизменяемый снимок пользователя для входа и проверок записи (кэшируется в UserCache).
+ * В JSON - те же поля, что у сущности User, хэш пароля не выводится.
+ */
+public record UserView(UUID id,
+                       String name,
+                       @JsonIgnore String passwordHash,
+                       UserRole role,
+                       @JsonProperty("isBlocked") boolean isBlocked,
+                       String email,
+                       String fullName,
+                       String room,
+                       String contract,
+                       LocalDateTime createdAt) {
+
+    public static UserView of(User user) {
+        return new UserView(user.getId(), user.getName(), user.getPasswordHash(), user.getRole(),
+                Boolean.TRUE.equals(user.getIsBlocked()), user.getEmail(), user.getFullName(), user.getRoom(),
+                user.getContract(), user.getCreatedAt());
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "bookings")
@@ -16,35 +17,44 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false)
-    private String userId;
+    private UUID userId;
 
     @Column(nullable = false)
-    private String machineId;
+    private UUID machineId;
 
     @Column(nullable = false)
-    private String slotId;
+    private UUID slotId;
 
+    // Время начала слота — ключ секционирования bookings, совпадает с timeslots.start_time
     @Column(nullable = false)
-    private String state = "active"; // active, canceled, deleted
+    private LocalDateTime slotStartTime;
+
+    @Column(nullable = false)
+    private BookingState state = BookingState.ACTIVE;
 
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     // Business methods
-    public void setState(String state) {
+    public void setState(BookingState state) {
         this.state = state;
     }
 
-    public String getSlotId() {
+    public UUID getSlotId() {
         return this.slotId;
     }
 
-    public void setSlot(String slotId) {
+    public void setSlot(UUID slotId) {
         this.slotId = slotId;
     }
+
+    public void setSlot(Timeslot slot) {
+        this.slotId = slot.getId();
+        this.slotStartTime = slot.getStartTime();
+    }
 }
@@ -0,0 +1,33 @@
+package com.laundry.booking.entity;
+
+/**
+ * Состояние бронирования.
+ * В БД хранится как SMALLINT (код), в JSON — строкой (CodedEnum).
+ */
+public enum BookingState implements CodedEnum {
+    ACTIVE(1, "active"),
+    CANCELED(2, "canceled"),
+    DELETED(3, "deleted");
+
+    private final short code;
+    private final String value;
+
+    BookingState(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    public static BookingState fromCode(short code) {
+        return CodedEnum.fromCode(BookingState.class, code);
+    }
+}
@@ -0,0 +1,11 @@
+package com.laundry.booking.entity;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class BookingStateConverter extends CodedEnumConverter<BookingState> {
+
+    public BookingStateConverter() {
+        super(BookingState.class);
+    }
+}
@@ -0,0 +1,24 @@
+package com.laundry.booking.entity;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Перечисление, которое хранится в БД как SMALLINT (код), а в JSON отдаётся строкой (value).
+ * Преобразование для JPA - CodedEnumConverter.
+ */
+public interface CodedEnum {
+
+    short getCode();
+
+    @JsonValue
+    String getValue();
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, short code) {
+        for (E item : type.getEnumConstants()) {
+            if (item.getCode() == code) {
+                return item;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code: " + code);
+    }
+}
@@ -0,0 +1,25 @@
+package com.laundry.booking.entity;
+
+import jakarta.persistence.AttributeConverter;
+
+/**
+ * Преобразование CodedEnum в SMALLINT-колонку и обратно
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum> implements AttributeConverter<E, Short> {
+
+    private final Class<E> type;
+
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute != null ? attribute.getCode() : null;
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short dbData) {
+        return dbData != null ? CodedEnum.fromCode(type, dbData) : null;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "machines")
@@ -16,25 +17,29 @@ import java.time.LocalDateTime;
 public class Machine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false)
     private String name;
 
     @Column(nullable = false)
-    private String status = "available"; // available, blocked
+    private MachineStatus status = MachineStatus.AVAILABLE;
 
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     // Business methods
-    public void setStatus(String status) {
+    public void setStatus(MachineStatus status) {
         this.status = status;
     }
 
     public boolean isAlreadyBlocked() {
-        return "blocked".equals(this.status);
+        return this.status == MachineStatus.BLOCKED;
+    }
+
+    public boolean isDeleting() {
+        return this.status == MachineStatus.DELETING;
     }
 }
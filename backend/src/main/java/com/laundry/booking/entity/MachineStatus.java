@@ -0,0 +1,34 @@
+package com.laundry.booking.entity;
+
+/**
+ * Статус машинки.
+ * В БД хранится как SMALLINT (код), в JSON — строкой (CodedEnum).
+ */
+public enum MachineStatus implements CodedEnum {
+    AVAILABLE(1, "available"),
+    BLOCKED(2, "blocked"),
+    // Удаляется фоновой задачей: скрыта из расписания, статус больше не меняется
+    DELETING(3, "deleting");
+
+    private final short code;
+    private final String value;
+
+    MachineStatus(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    public static MachineStatus fromCode(short code) {
+        return CodedEnum.fromCode(MachineStatus.class, code);
+    }
+}
@@ -0,0 +1,11 @@
+package com.laundry.booking.entity;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class MachineStatusConverter extends CodedEnumConverter<MachineStatus> {
+
+    public MachineStatusConverter() {
+        super(MachineStatus.class);
+    }
+}
@@ -8,6 +8,7 @@ import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "schedules")
@@ -17,8 +18,8 @@ import java.time.LocalDateTime;
 public class Schedule {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false, unique = true)
     private LocalDate date;
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Entity
 @Table(name = "schedule_machines")
 @Data
@@ -13,12 +15,12 @@ import lombok.NoArgsConstructor;
 public class ScheduleMachine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false)
-    private String scheduleId;
+    private UUID scheduleId;
 
     @Column(nullable = false)
-    private String machineId;
+    private UUID machineId;
 }
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "timeslots")
@@ -16,8 +17,8 @@ import java.time.LocalDateTime;
 public class Timeslot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false)
     private LocalDateTime startTime;
@@ -29,7 +30,7 @@ public class Timeslot {
     private Boolean isAvailable = true;
 
     @Column(nullable = false)
-    private String machineId;
+    private UUID machineId;
 
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
@@ -52,7 +53,7 @@ public class Timeslot {
         this.isAvailable = false;
     }
 
-    public String getSlotId() {
+    public UUID getSlotId() {
         return this.id;
     }
 }
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
 @Table(name = "users")
@@ -17,8 +18,8 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidV7
+    private UUID id;
 
     @Column(nullable = false, unique = true)
     private String name;
@@ -28,7 +29,7 @@ public class User {
     private String passwordHash;
 
     @Column(nullable = false)
-    private String role;
+    private UserRole role;
 
     @Column(nullable = false)
     private Boolean isBlocked = false;
@@ -50,7 +51,7 @@ public class User {
     private LocalDateTime createdAt;
 
     // Business methods
-    public String getRole() {
+    public UserRole getRole() {
         return this.role;
     }
 
@@ -0,0 +1,32 @@
+package com.laundry.booking.entity;
+
+/**
+ * Роль пользователя.
+ * В БД хранится как SMALLINT (код), в JSON — строкой (CodedEnum).
+ */
+public enum UserRole implements CodedEnum {
+    USER(1, "user"),
+    ADMIN(2, "admin");
+
+    private final short code;
+    private final String value;
+
+    UserRole(int code, String value) {
+        this.code = (short) code;
+        this.value = value;
+    }
+
+    @Override
+    public short getCode() {
+        return code;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    public static UserRole fromCode(short code) {
+        return CodedEnum.fromCode(UserRole.class, code);
+    }
+}
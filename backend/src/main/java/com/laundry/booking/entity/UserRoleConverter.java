@@ -0,0 +1,11 @@
+package com.laundry.booking.entity;
+
+import jakarta.persistence.Converter;
+
+@Converter(autoApply = true)
+public class UserRoleConverter extends CodedEnumConverter<UserRole> {
+
+    public UserRoleConverter() {
+        super(UserRole.class);
+    }
+}
@@ -0,0 +1,160 @@
+package com.laundry.booking.jobs;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
+import com.laundry.booking.dto.AdminJobDto;
+import com.laundry.booking.entity.Schedule;
+import com.laundry.booking.repository.AdminJobRepository;
+import com.laundry.booking.repository.BulkAdminRepository;
+import com.laundry.booking.repository.MachineRepository;
+import com.laundry.booking.repository.ScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Фоновое удаление машинок и расписаний (таблица admin_jobs).
+ * Объект уже скрыт при постановке задачи; здесь зависимые строки удаляются частями по chunk-size:
+ * сначала записи, потом слоты, в конце сама машинка или расписание.
+ * Каждая часть вместе с прогрессом фиксируется отдельной транзакцией, между частями — пауза.
+ * Один запуск ограничен max-run, чтобы не задерживать другие задачи планировщика;
+ * незавершённая задача (в том числе после падения узла) продолжается следующим запуском.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AdminDeletionJob implements ClusterJob {
+
+    private final AdminJobRepository adminJobRepository;
+    private final BulkAdminRepository bulkAdminRepository;
+    private final MachineRepository machineRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final InvalidationBus invalidationBus;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${jobs.admin-deletion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.admin-deletion.interval:PT30S}")
+    private Duration interval;
+
+    @Value("${jobs.admin-deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${jobs.admin-deletion.chunk-pause-ms:50}")
+    private long chunkPauseMs;
+
+    @Value("${jobs.admin-deletion.max-run:PT1M}")
+    private Duration maxRun;
+
+    @Override
+    public String getName() {
+        return "admin-deletion";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime() + maxRun.toNanos();
+        for (AdminJobDto job : adminJobRepository.findUnfinished()) {
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+            try {
+                process(job, deadline);
+            } catch (RuntimeException e) {
+                log.warn("Admin job {} ({} {}) failed", job.getId(), job.getKind(), job.getTargetId(), e);
+                adminJobRepository.finish(job.getId(), false, e.getMessage());
+            }
+        }
+    }
+
+    private void process(AdminJobDto job, long deadline) {
+        adminJobRepository.markRunning(job.getId());
+        boolean machine = AdminJobRepository.MACHINE_DELETE.equals(job.getKind());
+
+        // Шаг 1: Записи
+        if (!deleteInChunks(job, deadline, machine
+                ? bulkAdminRepository::deleteMachineBookingsChunk
+                : bulkAdminRepository::deleteScheduleBookingsChunk)) {
+            return;
+        }
+
+        // Шаг 2: Слоты
+        if (!deleteInChunks(job, deadline, machine
+                ? bulkAdminRepository::deleteMachineSlotsChunk
+                : bulkAdminRepository::deleteScheduleSlotsChunk)) {
+            return;
+        }
+
+        // Шаг 3: Сам объект (связи schedule_machines удаляются каскадом)
+        transaction().executeWithoutResult(status -> {
+            if (machine) {
+                machineRepository.deleteById(job.getTargetId());
+                invalidationBus.publish(Invalidation.machines());
+            } else {
+                scheduleRepository.findById(job.getTargetId()).ifPresent(this::deleteSchedule);
+            }
+            adminJobRepository.finish(job.getId(), true, null);
+        });
+        log.info("Admin job {} ({} {}) finished", job.getId(), job.getKind(), job.getTargetId());
+    }
+
+    private void deleteSchedule(Schedule schedule) {
+        scheduleRepository.delete(schedule);
+        invalidationBus.publish(Invalidation.schedule(schedule.getDate()));
+    }
+
+    /**
+     * Удалять части, пока они непустые; false - время запуска вышло, задача продолжится позже
+     */
+    private boolean deleteInChunks(AdminJobDto job, long deadline, BiFunction<UUID, Integer, Integer> chunk) {
+        while (true) {
+            Integer deleted = transaction().execute(status -> {
+                int rows = chunk.apply(job.getTargetId(), chunkSize);
+                if (rows > 0) {
+                    adminJobRepository.addProgress(job.getId(), rows);
+                }
+                return rows;
+            });
+            if (deleted == null || deleted == 0) {
+                return true;
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            pause();
+        }
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private void pause() {
+        if (chunkPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.laundry.booking.jobs;
+
+import java.time.Duration;
+
+/**
+ * Периодическая задача, которая в кластере выполняется ровно на одном узле.
+ * Узел-исполнитель выбирается планировщиком {@link ClusterJobScheduler} через advisory-лок Postgres.
+ */
+public interface ClusterJob {
+
+    /**
+     * Уникальное имя задачи (ключ лока и журнала запусков)
+     */
+    String getName();
+
+    /**
+     * Минимальный интервал между запусками
+     */
+    Duration getInterval();
+
+    /**
+     * Включена ли задача (jobs.<имя>.enabled). Проверяется планировщиком на каждом тике, а не условием
+     * на бин: с AOT набор бинов фиксируется при сборке, а флаг должен работать при запуске
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    void run();
+}
@@ -0,0 +1,148 @@
+package com.laundry.booking.jobs;
+
+import com.laundry.booking.cluster.ClusterNode;
+import com.laundry.booking.cluster.DedicatedConnections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Планировщик кластерных задач с выбором лидера через pg_try_advisory_lock.
+ *
+ * Узел держит отдельное соединение, в сессии которого захватывает advisory-лок на каждую задачу.
+ * Пока соединение живо, лок (аренда) принадлежит узлу; на каждом тике соединение проверяется,
+ * а аренда продлевается в job_leases. Если узел падает, Postgres закрывает его сессию,
+ * лок освобождается и на следующем тике его захватывает другой узел.
+ * Перед запуском лидер сверяется с job_runs, чтобы после смены лидера задача не выполнилась дважды подряд.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterJobScheduler implements DisposableBean {
+
+    // Пространство ключей advisory-локов приложения ("LNDY")
+    private static final int LOCK_NAMESPACE = 0x4C4E4459;
+
+    private final ObjectProvider<ClusterJob> jobs;
+    private final DedicatedConnections dedicatedConnections;
+    private final JobRunLog jobRunLog;
+    private final ClusterNode clusterNode;
+
+    @Value("${jobs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.history-days:30}")
+    private int historyDays;
+
+    private Connection leaseConnection;
+    private final Set<String> heldLeases = new HashSet<>();
+
+    @Scheduled(fixedDelayString = "${jobs.tick-ms:15000}", initialDelayString = "${jobs.initial-delay-ms:10000}")
+    public synchronized void tick() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            ensureLeaseConnection();
+            for (ClusterJob job : jobs) {
+                if (job.isEnabled() && holdLease(job) && isDue(job)) {
+                    execute(job);
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Job lease connection failed, releasing all leases: {}", e.getMessage());
+            closeLeaseConnection();
+        } catch (RuntimeException e) {
+            log.warn("Job scheduler tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void ensureLeaseConnection() throws SQLException {
+        if (leaseConnection != null && leaseConnection.isValid(2)) {
+            return;
+        }
+        closeLeaseConnection();
+        leaseConnection = dedicatedConnections.open("job-leases");
+    }
+
+    /**
+     * Захватить или продлить аренду задачи
+     */
+    private boolean holdLease(ClusterJob job) throws SQLException {
+        String name = job.getName();
+        if (!heldLeases.contains(name)) {
+            if (!tryLock(name)) {
+                return false;
+            }
+            heldLeases.add(name);
+            log.info("Node {} acquired lease for job {}", clusterNode.getId(), name);
+        }
+        jobRunLog.renewLease(name, clusterNode.getId());
+        return true;
+    }
+
+    private boolean tryLock(String jobName) throws SQLException {
+        try (PreparedStatement statement = leaseConnection.prepareStatement(
+                "SELECT pg_try_advisory_lock(?, hashtext(?))")) {
+            statement.setInt(1, LOCK_NAMESPACE);
+            statement.setString(2, jobName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean isDue(ClusterJob job) {
+        LocalDateTime lastStartedAt = jobRunLog.lastStartedAt(job.getName());
+        return lastStartedAt == null || !lastStartedAt.plus(job.getInterval()).isAfter(LocalDateTime.now());
+    }
+
+    private void execute(ClusterJob job) {
+        long runId = jobRunLog.started(job.getName(), clusterNode.getId());
+        long startedAt = System.nanoTime();
+        try {
+            job.run();
+            jobRunLog.finished(runId, true, elapsedMs(startedAt), null);
+            log.debug("Job {} finished in {} ms", job.getName(), elapsedMs(startedAt));
+        } catch (RuntimeException e) {
+            jobRunLog.finished(runId, false, elapsedMs(startedAt), e.getMessage());
+            log.warn("Job {} failed", job.getName(), e);
+        }
+        jobRunLog.prune(job.getName(), historyDays);
+    }
+
+    private static long elapsedMs(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private void closeLeaseConnection() {
+        heldLeases.clear();
+        if (leaseConnection != null) {
+            try {
+                // Закрытие сессии освобождает все её advisory-локи
+                leaseConnection.close();
+            } catch (SQLException ignored) {
+                // соединение уже закрыто
+            }
+            leaseConnection = null;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        closeLeaseConnection();
+    }
+}
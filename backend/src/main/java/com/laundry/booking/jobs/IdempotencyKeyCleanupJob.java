@@ -0,0 +1,60 @@
+package com.laundry.booking.jobs;
+
+import com.laundry.booking.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Удаление просроченных ключей идемпотентности частями по chunk-size (каждая часть - отдельный DELETE)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyCleanupJob implements ClusterJob {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Value("${jobs.idempotency-cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.idempotency-cleanup.interval:PT1H}")
+    private Duration interval;
+
+    @Value("${jobs.idempotency-cleanup.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${idempotency.ttl:PT24H}")
+    private Duration ttl;
+
+    @Override
+    public String getName() {
+        return "idempotency-cleanup";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void run() {
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = idempotencyKeyRepository.deleteExpired(ttl, chunkSize);
+            deleted += chunk;
+        } while (chunk == chunkSize);
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.laundry.booking.jobs;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Журнал запусков и аренды кластерных задач (таблицы job_runs и job_leases)
+ */
+@Component
+@RequiredArgsConstructor
+public class JobRunLog {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Время последнего запуска задачи на любом узле
+     */
+    public LocalDateTime lastStartedAt(String jobName) {
+        Timestamp startedAt = jdbcTemplate.queryForObject(
+                "SELECT MAX(started_at) FROM job_runs WHERE job_name = ?", Timestamp.class, jobName);
+        return startedAt != null ? startedAt.toLocalDateTime() : null;
+    }
+
+    public long started(String jobName, String nodeId) {
+        Long id = jdbcTemplate.queryForObject(
+                "INSERT INTO job_runs (job_name, node_id, status, started_at) VALUES (?, ?, 'running', CURRENT_TIMESTAMP) RETURNING id",
+                Long.class, jobName, nodeId);
+        return id != null ? id : -1L;
+    }
+
+    public void finished(long runId, boolean succeeded, long durationMs, String error) {
+        jdbcTemplate.update(
+                "UPDATE job_runs SET status = ?, finished_at = CURRENT_TIMESTAMP, duration_ms = ?, error = ? WHERE id = ?",
+                succeeded ? "succeeded" : "failed", durationMs, error, runId);
+    }
+
+    /**
+     * Удалить записи о запусках старше указанного числа дней
+     */
+    public void prune(String jobName, int keepDays) {
+        jdbcTemplate.update(
+                "DELETE FROM job_runs WHERE job_name = ? AND started_at < CURRENT_TIMESTAMP - make_interval(days => ?)",
+                jobName, keepDays);
+    }
+
+    /**
+     * Отметить, что узел держит аренду задачи (для наблюдения за лидерством)
+     */
+    public void renewLease(String jobName, String nodeId) {
+        jdbcTemplate.update("""
+                INSERT INTO job_leases (job_name, node_id, acquired_at, renewed_at)
+                VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                ON CONFLICT (job_name) DO UPDATE
+                SET node_id = EXCLUDED.node_id,
+                    acquired_at = CASE WHEN job_leases.node_id = EXCLUDED.node_id
+                                       THEN job_leases.acquired_at ELSE EXCLUDED.acquired_at END,
+                    renewed_at = EXCLUDED.renewed_at
+                """, jobName, nodeId);
+    }
+}
@@ -0,0 +1,154 @@
+package com.laundry.booking.jobs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обслуживание месячных секций timeslots и bookings.
+ * 1. Заранее создаёт секции на ближайшие месяцы.
+ * 2. Секции старше срока хранения отсоединяет (DETACH PARTITION CONCURRENTLY, без долгой блокировки
+ *    родительской таблицы) и переносит в схему history. Сначала отсоединяется секция bookings,
+ *    затем timeslots того же месяца, так как bookings ссылается на timeslots.
+ *
+ * Выполняется вне транзакции: DETACH ... CONCURRENTLY нельзя запускать в блоке транзакции.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob implements ClusterJob {
+
+    // Порядок важен: секции bookings ссылаются на секции timeslots
+    private static final List<String> PARENTS_IN_ARCHIVE_ORDER = List.of("bookings", "timeslots");
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(bookings|timeslots)_(\\d{4})_(\\d{2})$");
+    private static final String HISTORY_SCHEMA = "history";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${jobs.partition-maintenance.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jobs.partition-maintenance.interval:PT24H}")
+    private Duration interval;
+
+    @Value("${jobs.partition-maintenance.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${jobs.partition-maintenance.retention-months:12}")
+    private int retentionMonths;
+
+    @Override
+    public String getName() {
+        return "partition-maintenance";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void run() {
+        YearMonth current = YearMonth.now();
+        createAhead(current);
+        finalizePendingDetaches();
+        archiveOlderThan(current.minusMonths(retentionMonths));
+    }
+
+    private void createAhead(YearMonth current) {
+        for (int offset = 0; offset <= monthsAhead; offset++) {
+            LocalDate monthStart = current.plusMonths(offset).atDay(1);
+            jdbcTemplate.queryForObject("SELECT ensure_month_partition('timeslots', ?)", Boolean.class, monthStart);
+            jdbcTemplate.queryForObject("SELECT ensure_month_partition('bookings', ?)", Boolean.class, monthStart);
+        }
+    }
+
+    /**
+     * Завершить отсоединение, прерванное на прошлом запуске (секция в состоянии "detach pending")
+     */
+    private void finalizePendingDetaches() {
+        List<Map<String, Object>> pending = jdbcTemplate.queryForList("""
+                SELECT child.relname AS partition_name, parent.relname AS parent_name
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE i.inhdetachpending
+                """);
+        for (Map<String, Object> row : pending) {
+            String partition = (String) row.get("partition_name");
+            String parent = (String) row.get("parent_name");
+            if (!PARTITION_NAME.matcher(partition).matches()) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + quote(parent) + " DETACH PARTITION " + quote(partition) + " FINALIZE");
+            moveToHistory(partition);
+        }
+    }
+
+    private void archiveOlderThan(YearMonth cutoff) {
+        for (String parent : PARENTS_IN_ARCHIVE_ORDER) {
+            for (String partition : attachedPartitions(parent)) {
+                Matcher matcher = PARTITION_NAME.matcher(partition);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+                if (month.isBefore(cutoff)) {
+                    archive(parent, partition);
+                }
+            }
+        }
+    }
+
+    private void archive(String parent, String partition) {
+        long startedAt = System.nanoTime();
+        jdbcTemplate.execute("ALTER TABLE " + quote(parent) + " DETACH PARTITION " + quote(partition) + " CONCURRENTLY");
+        moveToHistory(partition);
+        log.info("Archived partition {} to {} in {} ms", partition, HISTORY_SCHEMA, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Перенести отсоединённую секцию в схему history.
+     * Внешние ключи снимаются: архив не должен мешать удалению машинок и пользователей,
+     * а ссылка bookings -> timeslots не даст отсоединить секцию timeslots того же месяца.
+     */
+    private void moveToHistory(String partition) {
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+                String.class, partition);
+        for (String constraint : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + quote(partition) + " DROP CONSTRAINT " + quote(constraint));
+        }
+        jdbcTemplate.execute("ALTER TABLE " + quote(partition) + " SET SCHEMA " + HISTORY_SCHEMA);
+    }
+
+    private List<String> attachedPartitions(String parent) {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE parent.relname = ? AND NOT i.inhdetachpending
+                ORDER BY child.relname
+                """, String.class, parent);
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
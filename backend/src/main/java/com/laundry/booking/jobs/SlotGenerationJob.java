@@ -0,0 +1,67 @@
+package com.laundry.booking.jobs;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
+import com.laundry.booking.repository.TimeslotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Генерация слотов по умолчанию на ближайшие дни.
+ * Создаёт слоты 08:00-22:00 по 2 часа для доступных машинок на дни,
+ * для которых администратор ещё не настроил расписание и слотов у машинки нет.
+ * Открывает запись на такие дни, поэтому включается явно (jobs.slot-generation.enabled=true).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SlotGenerationJob implements ClusterJob {
+
+    private final TimeslotRepository timeslotRepository;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${jobs.slot-generation.enabled:false}")
+    private boolean enabled;
+
+    @Value("${jobs.slot-generation.interval:PT1H}")
+    private Duration interval;
+
+    @Value("${jobs.slot-generation.days-ahead:7}")
+    private int daysAhead;
+
+    @Override
+    public String getName() {
+        return "slot-generation";
+    }
+
+    @Override
+    public Duration getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional
+    public void run() {
+        int created = timeslotRepository.generateDefaultSlots(daysAhead);
+        if (created == 0) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        for (int day = 0; day <= daysAhead; day++) {
+            invalidationBus.publish(Invalidation.date(today.plusDays(day)));
+        }
+        log.info("Generated {} default timeslots for the next {} days", created, daysAhead);
+    }
+}
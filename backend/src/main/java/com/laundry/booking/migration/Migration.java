@@ -0,0 +1,16 @@
+package com.laundry.booking.migration;
+
+/**
+ * Скрипт миграции, найденный в одном из каталогов migrations.locations
+ *
+ * @param version       версия; null у повторяемого скрипта (R__<описание>.sql)
+ * @param transactional false, если в скрипте есть строка "-- migrate:no-transaction"
+ *                      (нужно для CREATE/DROP INDEX CONCURRENTLY)
+ */
+record Migration(MigrationVersion version, String description, String script, String sql,
+                 int checksum, boolean transactional) {
+
+    boolean repeatable() {
+        return version == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.laundry.booking.migration;
+
+import com.laundry.booking.cluster.DedicatedConnections;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Миграции схемы при старте приложения.
+ * Отключаются через migrations.enabled=false (например, если схемой управляет отдельный шаг деплоя).
+ * Флаг проверяется при запуске, а не условием на бин: при AOT-сборке набор бинов фиксируется заранее.
+ */
+@Configuration
+@EnableConfigurationProperties(MigrationProperties.class)
+public class MigrationConfig {
+
+    @Bean
+    public SchemaMigrator schemaMigrator(DedicatedConnections dedicatedConnections, MigrationProperties properties) {
+        return new SchemaMigrator(dedicatedConnections, properties);
+    }
+}
@@ -0,0 +1,25 @@
+package com.laundry.booking.migration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки версионных миграций схемы
+ */
+@Data
+@ConfigurationProperties(prefix = "migrations")
+public class MigrationProperties {
+
+    private boolean enabled = true;
+
+    /** Каталоги со скриптами V<версия>__<описание>.sql */
+    private List<String> locations = new ArrayList<>(List.of("classpath:db/migration"));
+
+    /** Пометить непустую БД без schema_history базовой версией вместо выполнения скриптов */
+    private boolean baselineOnMigrate = true;
+
+    private String baselineVersion = "1";
+}
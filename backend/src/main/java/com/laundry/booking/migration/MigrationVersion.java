@@ -0,0 +1,35 @@
+package com.laundry.booking.migration;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Версия миграции: числа через "." или "_" (1, 1.1, 2_3), сравниваются по частям
+ */
+record MigrationVersion(List<Integer> parts) implements Comparable<MigrationVersion> {
+
+    static MigrationVersion parse(String text) {
+        return new MigrationVersion(Arrays.stream(text.split("[._]"))
+                .map(Integer::parseInt)
+                .toList());
+    }
+
+    @Override
+    public int compareTo(MigrationVersion other) {
+        int length = Math.max(parts.size(), other.parts.size());
+        for (int i = 0; i < length; i++) {
+            int left = i < parts.size() ? parts.get(i) : 0;
+            int right = i < other.parts.size() ? other.parts.get(i) : 0;
+            if (left != right) {
+                return Integer.compare(left, right);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return parts.stream().map(String::valueOf).collect(Collectors.joining("."));
+    }
+}
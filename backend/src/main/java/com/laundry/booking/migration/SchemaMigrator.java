@@ -0,0 +1,353 @@
+package com.laundry.booking.migration;
+
+import com.laundry.booking.cluster.DedicatedConnections;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Версионные миграции схемы (в стиле Flyway).
+ * Последовательность при старте:
+ * 1. Захватить advisory-лок: реплики, стартующие одновременно, мигрируют по очереди
+ * 2. Если schema_history нет, а таблицы уже есть - записать базовую версию без выполнения скриптов
+ *    (только если ключи уже нативные uuid: схему до перехода на UUID базовой версией не пометить)
+ * 3. Проверить, что применённые скрипты не менялись (контрольная сумма)
+ * 4. Выполнить скрипты с версией выше последней применённой, каждый в своей транзакции
+ *    (или без неё, если скрипт помечен "-- migrate:no-transaction")
+ * 5. Выполнить повторяемые скрипты (R__<описание>.sql), которые ещё не выполнялись или изменились
+ *    (например, тестовые данные профиля dev) - после всех версий, независимо от текущей версии БД
+ *
+ * Для актуальной БД это один запрос к schema_history, поэтому перезапуск ничего не меняет.
+ * Бины, работающие с БД (JPA, JdbcTemplate), создаются только после миграции -
+ * см. {@link SchemaMigratorDatabaseInitializerDetector}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SchemaMigrator implements InitializingBean {
+
+    private static final String HISTORY_TABLE = "schema_history";
+
+    // Пространство ключей advisory-локов приложения ("LNDY"), как у ClusterJobScheduler
+    private static final int LOCK_NAMESPACE = 0x4C4E4459;
+    private static final String LOCK_NAME = "schema-migrations";
+
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+(?:[._]\\d+)*)__(.+)\\.sql");
+    private static final Pattern REPEATABLE_SCRIPT_NAME = Pattern.compile("R__(.+)\\.sql");
+    // Таблицы базовой версии, ключи которых должны быть uuid (V1__baseline.sql)
+    private static final List<String> BASELINE_UUID_TABLES =
+            List.of("users", "machines", "timeslots", "bookings", "schedules", "schedule_machines");
+    private static final Pattern NO_TRANSACTION = Pattern.compile("(?m)^--\\s*migrate:no-transaction\\s*$");
+
+    private final DedicatedConnections dedicatedConnections;
+    private final MigrationProperties properties;
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (!properties.isEnabled()) {
+            log.info("Schema migrations are disabled");
+            return;
+        }
+        migrate();
+    }
+
+    public void migrate() throws SQLException, IOException {
+        List<Migration> migrations = loadMigrations();
+
+        try (Connection connection = dedicatedConnections.open("schema-migrations")) {
+            try (PreparedStatement lock = connection.prepareStatement("SELECT pg_advisory_lock(?, hashtext(?))")) {
+                lock.setInt(1, LOCK_NAMESPACE);
+                lock.setString(2, LOCK_NAME);
+                lock.execute();
+            }
+            // Лок сессионный: закрытие соединения снимет его и при ошибке
+            migrate(connection, migrations);
+        }
+    }
+
+    private void migrate(Connection connection, List<Migration> migrations) throws SQLException {
+        // Шаг 1: Таблица истории и базовая версия для уже существующей БД
+        if (!historyExists(connection)) {
+            boolean hasTables = hasTables(connection);
+            if (hasTables) {
+                if (!properties.isBaselineOnMigrate()) {
+                    throw new IllegalStateException("БД не пуста, а " + HISTORY_TABLE
+                            + " нет; включите migrations.baseline-on-migrate");
+                }
+                List<String> legacyTables = tablesWithNonUuidIds(connection);
+                if (!legacyTables.isEmpty()) {
+                    throw new IllegalStateException("Ключи id таблиц " + legacyTables + " не uuid: это схема"
+                            + " до перехода на UUID, базовой версией её пометить нельзя; перенесите данные"
+                            + " в новую БД или пересоздайте схему");
+                }
+            }
+            createHistory(connection);
+            if (hasTables) {
+                MigrationVersion baseline = MigrationVersion.parse(properties.getBaselineVersion());
+                recordApplied(connection, baseline, "<< Baseline >>", "<< Baseline >>", null, 0, true);
+                log.info("Existing schema marked as baseline version {}", baseline);
+            }
+        }
+
+        // Шаг 2: Проверить применённые версии
+        Map<MigrationVersion, AppliedMigration> applied = loadApplied(connection);
+        MigrationVersion current = null;
+        for (AppliedMigration migration : applied.values()) {
+            if (!migration.success()) {
+                throw new IllegalStateException("Миграция " + migration.version() + " завершилась с ошибкой;"
+                        + " исправьте БД вручную и удалите её строку из " + HISTORY_TABLE);
+            }
+            if (current == null || migration.version().compareTo(current) > 0) {
+                current = migration.version();
+            }
+        }
+        List<Migration> versioned = migrations.stream().filter(migration -> !migration.repeatable()).toList();
+        for (Migration migration : versioned) {
+            AppliedMigration done = applied.get(migration.version());
+            if (done != null && done.checksum() != null && done.checksum() != migration.checksum()) {
+                throw new IllegalStateException("Скрипт " + migration.script()
+                        + " изменён после применения; изменения схемы оформляются новой версией");
+            }
+        }
+
+        // Шаг 3: Выполнить новые скрипты по возрастанию версии
+        int count = 0;
+        for (Migration migration : versioned) {
+            if (applied.containsKey(migration.version())) {
+                continue;
+            }
+            if (current != null && migration.version().compareTo(current) < 0) {
+                log.warn("Migration {} is older than current version {} and is ignored", migration.script(), current);
+                continue;
+            }
+            apply(connection, migration);
+            current = migration.version();
+            count++;
+        }
+
+        // Шаг 4: Повторяемые скрипты - новые и изменившиеся
+        Map<String, Integer> repeatableChecksums = loadRepeatableChecksums(connection);
+        for (Migration migration : migrations) {
+            if (migration.repeatable() && !Integer.valueOf(migration.checksum()).equals(repeatableChecksums.get(migration.script()))) {
+                apply(connection, migration);
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            log.info("Schema is up to date, version {}", current);
+        } else {
+            log.info("Applied {} migration(s), schema version {}", count, current);
+        }
+    }
+
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        log.info("Applying migration {}{}", migration.script(), migration.transactional() ? "" : " (no transaction)");
+        List<String> statements = SqlScriptSplitter.split(migration.sql());
+        long started = System.currentTimeMillis();
+
+        if (migration.transactional()) {
+            connection.setAutoCommit(false);
+            try {
+                execute(connection, statements);
+                recordApplied(connection, migration.version(), migration.description(), migration.script(),
+                        migration.checksum(), System.currentTimeMillis() - started, true);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw new IllegalStateException("Миграция " + migration.script() + " не выполнена", e);
+            } finally {
+                connection.setAutoCommit(true);
+            }
+            return;
+        }
+
+        // Вне транзакции откатить уже выполненные команды нельзя - фиксируем ошибку в истории
+        try {
+            execute(connection, statements);
+        } catch (SQLException | RuntimeException e) {
+            recordApplied(connection, migration.version(), migration.description(), migration.script(),
+                    migration.checksum(), System.currentTimeMillis() - started, false);
+            throw new IllegalStateException("Миграция " + migration.script() + " не выполнена", e);
+        }
+        recordApplied(connection, migration.version(), migration.description(), migration.script(),
+                migration.checksum(), System.currentTimeMillis() - started, true);
+    }
+
+    private void execute(Connection connection, List<String> statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private List<Migration> loadMigrations() throws IOException {
+        Map<MigrationVersion, Migration> byVersion = new HashMap<>();
+        List<Migration> repeatables = new ArrayList<>();
+        for (String location : properties.getLocations()) {
+            for (Resource resource : resourceResolver.getResources(location + "/*.sql")) {
+                Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+                Matcher repeatableMatcher = REPEATABLE_SCRIPT_NAME.matcher(resource.getFilename());
+                boolean repeatable = !matcher.matches() && repeatableMatcher.matches();
+                if (!matcher.matches() && !repeatable) {
+                    log.warn("Skipping {}: expected V<version>__<description>.sql or R__<description>.sql",
+                            resource.getFilename());
+                    continue;
+                }
+                // Контрольная сумма не зависит от окончаний строк (checkout на Windows)
+                String sql = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+                CRC32 crc = new CRC32();
+                crc.update(sql.getBytes(StandardCharsets.UTF_8));
+
+                Migration migration = new Migration(
+                        repeatable ? null : MigrationVersion.parse(matcher.group(1)),
+                        (repeatable ? repeatableMatcher.group(1) : matcher.group(2)).replace('_', ' '),
+                        resource.getFilename(),
+                        sql,
+                        (int) crc.getValue(),
+                        !NO_TRANSACTION.matcher(sql).find());
+                if (repeatable) {
+                    repeatables.add(migration);
+                    continue;
+                }
+                Migration duplicate = byVersion.put(migration.version(), migration);
+                if (duplicate != null) {
+                    throw new IllegalStateException("Версия " + migration.version() + " встречается дважды: "
+                            + duplicate.script() + " и " + migration.script());
+                }
+            }
+        }
+        List<Migration> migrations = new ArrayList<>(byVersion.values());
+        migrations.sort(Comparator.comparing(Migration::version));
+        repeatables.sort(Comparator.comparing(Migration::script));
+        migrations.addAll(repeatables);
+        return migrations;
+    }
+
+    private boolean historyExists(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, HISTORY_TABLE);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean hasTables(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT EXISTS (SELECT 1 FROM pg_tables WHERE schemaname = current_schema())")) {
+            rs.next();
+            return rs.getBoolean(1);
+        }
+    }
+
+    private List<String> tablesWithNonUuidIds(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT table_name FROM information_schema.columns
+                WHERE table_schema = current_schema() AND column_name = 'id'
+                  AND table_name = ANY(?) AND data_type <> 'uuid'
+                ORDER BY table_name
+                """)) {
+            statement.setArray(1, connection.createArrayOf("text", BASELINE_UUID_TABLES.toArray()));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
+            }
+        }
+        return tables;
+    }
+
+    private void createHistory(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_history (
+                        installed_rank SERIAL PRIMARY KEY,
+                        version VARCHAR(50) UNIQUE,
+                        description VARCHAR(200) NOT NULL,
+                        script VARCHAR(1000) NOT NULL,
+                        checksum INTEGER,
+                        installed_by VARCHAR(100) NOT NULL DEFAULT CURRENT_USER,
+                        installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                        execution_time_ms BIGINT NOT NULL,
+                        success BOOLEAN NOT NULL
+                    )
+                    """);
+        }
+    }
+
+    private Map<MigrationVersion, AppliedMigration> loadApplied(Connection connection) throws SQLException {
+        Map<MigrationVersion, AppliedMigration> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT version, checksum, success FROM schema_history WHERE version IS NOT NULL")) {
+            while (rs.next()) {
+                MigrationVersion version = MigrationVersion.parse(rs.getString("version"));
+                Integer checksum = rs.getObject("checksum", Integer.class);
+                applied.put(version, new AppliedMigration(version, checksum, rs.getBoolean("success")));
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Контрольная сумма последнего успешного выполнения каждого повторяемого скрипта
+     */
+    private Map<String, Integer> loadRepeatableChecksums(Connection connection) throws SQLException {
+        Map<String, Integer> checksums = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT script, checksum FROM schema_history
+                     WHERE version IS NULL AND success
+                     ORDER BY installed_rank
+                     """)) {
+            while (rs.next()) {
+                checksums.put(rs.getString("script"), rs.getObject("checksum", Integer.class));
+            }
+        }
+        return checksums;
+    }
+
+    private void recordApplied(Connection connection, MigrationVersion version, String description, String script,
+                               Integer checksum, long executionTimeMs, boolean success) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO schema_history (version, description, script, checksum, execution_time_ms, success)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """)) {
+            statement.setString(1, version != null ? version.toString() : null);
+            statement.setString(2, description);
+            statement.setString(3, script);
+            statement.setObject(4, checksum, Types.INTEGER);
+            statement.setLong(5, executionTimeMs);
+            statement.setBoolean(6, success);
+            statement.executeUpdate();
+        }
+    }
+
+    private record AppliedMigration(MigrationVersion version, Integer checksum, boolean success) {
+    }
+}
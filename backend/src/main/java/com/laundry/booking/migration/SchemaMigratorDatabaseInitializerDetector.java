@@ -0,0 +1,18 @@
+package com.laundry.booking.migration;
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+
+import java.util.Set;
+
+/**
+ * Сообщает Spring Boot, что {@link SchemaMigrator} инициализирует БД:
+ * EntityManagerFactory, JdbcTemplate и другие зависящие от БД бины создаются после него.
+ * Регистрируется в META-INF/spring.factories.
+ */
+public class SchemaMigratorDatabaseInitializerDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(SchemaMigrator.class);
+    }
+}
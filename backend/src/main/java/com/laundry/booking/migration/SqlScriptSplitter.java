@@ -0,0 +1,109 @@
+package com.laundry.booking.migration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Разбивка SQL-скрипта на отдельные команды по ";".
+ * Учитывает строки '...', идентификаторы "...", тела функций в $$...$$ / $tag$...$tag$
+ * и комментарии (строчные и блочные): точка с запятой внутри них команду не завершает.
+ */
+final class SqlScriptSplitter {
+
+    private static final Pattern DOLLAR_TAG = Pattern.compile("\\$([A-Za-z_][A-Za-z0-9_]*)?\\$");
+
+    private SqlScriptSplitter() {
+    }
+
+    static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean hasCode = false;
+        int i = 0;
+        int length = script.length();
+
+        while (i < length) {
+            char c = script.charAt(i);
+            int end;
+
+            if (c == '-' && i + 1 < length && script.charAt(i + 1) == '-') {
+                end = script.indexOf('\n', i);
+                end = end < 0 ? length : end;
+            } else if (c == '/' && i + 1 < length && script.charAt(i + 1) == '*') {
+                end = skipBlockComment(script, i);
+            } else if (c == '\'' || c == '"') {
+                end = skipQuoted(script, i, c);
+                hasCode = true;
+            } else if (c == '$' && (end = skipDollarQuoted(script, i)) > i) {
+                hasCode = true;
+            } else if (c == ';') {
+                if (hasCode) {
+                    statements.add(current.toString().trim());
+                }
+                current.setLength(0);
+                hasCode = false;
+                i++;
+                continue;
+            } else {
+                end = i + 1;
+                hasCode |= !Character.isWhitespace(c);
+            }
+
+            current.append(script, i, end);
+            i = end;
+        }
+
+        if (hasCode) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static int skipQuoted(String script, int start, char quote) {
+        // Удвоенная кавычка внутри строки просто открывает следующий фрагмент
+        int end = script.indexOf(quote, start + 1);
+        if (end < 0) {
+            throw new IllegalArgumentException("Незакрытая кавычка " + quote + " в позиции " + start);
+        }
+        return end + 1;
+    }
+
+    private static int skipBlockComment(String script, int start) {
+        // В Postgres блочные комментарии могут быть вложенными
+        int depth = 0;
+        int i = start;
+        while (i < script.length() - 1) {
+            if (script.startsWith("/*", i)) {
+                depth++;
+                i += 2;
+            } else if (script.startsWith("*/", i)) {
+                depth--;
+                i += 2;
+                if (depth == 0) {
+                    return i;
+                }
+            } else {
+                i++;
+            }
+        }
+        throw new IllegalArgumentException("Незакрытый комментарий в позиции " + start);
+    }
+
+    /**
+     * @return позиция после закрывающего тега или start, если здесь не начинается $-строка
+     */
+    private static int skipDollarQuoted(String script, int start) {
+        Matcher matcher = DOLLAR_TAG.matcher(script).region(start, script.length());
+        if (!matcher.lookingAt()) {
+            return start;
+        }
+        String tag = matcher.group();
+        int close = script.indexOf(tag, matcher.end());
+        if (close < 0) {
+            throw new IllegalArgumentException("Незакрытая строка " + tag + " в позиции " + start);
+        }
+        return close + tag.length();
+    }
+}
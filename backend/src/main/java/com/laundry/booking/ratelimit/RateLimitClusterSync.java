@@ -0,0 +1,43 @@
+package com.laundry.booking.ratelimit;
+
+import com.laundry.booking.repository.RateLimitBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Общие для кластера корзины: раз в sync-interval-ms узел передаёт в rate_limit_buckets расход своих корзин
+ * и забирает общий TAT всех ещё не полных корзин правила. Между синхронизациями узел решает сам,
+ * так что в худшем случае кластер пропускает чуть больше одного интервала сверх лимита.
+ * Ошибка БД не мешает ограничению - узел продолжает по локальным корзинам.
+ * Флаги rate-limit.enabled и rate-limit.cluster.enabled проверяются при каждой синхронизации.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitClusterSync {
+
+    private final RateLimiters rateLimiters;
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final RateLimitProperties properties;
+
+    @Scheduled(fixedDelayString = "${rate-limit.cluster.sync-interval-ms:1000}")
+    public void sync() {
+        if (!properties.isEnabled() || !properties.getCluster().isEnabled()) {
+            return;
+        }
+        for (RateLimiters.Route route : rateLimiters.routes()) {
+            for (TokenBucketLimiter limiter : route.limiters()) {
+                TokenBucketLimiter.Consumption consumption = limiter.drainConsumption();
+                try {
+                    rateLimitBucketRepository.exchange(limiter.getName(), consumption.stripes(),
+                            consumption.costsMicros(), limiter::merge);
+                } catch (DataAccessException e) {
+                    log.warn("Rate limit sync failed for {}: {}", limiter.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+}
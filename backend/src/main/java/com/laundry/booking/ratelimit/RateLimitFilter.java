@@ -0,0 +1,81 @@
+package com.laundry.booking.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение частоты запросов по правилам rate-limit.policies.
+ * Стоит перед остальными фильтрами: отклонённый запрос не доходит до безопасности, сервисов и пула соединений.
+ * Превышение - 429 с Retry-After (секунды) и телом в формате BookingResult.
+ * Правило с key=user проверяет и корзину адреса клиента: userId - параметр запроса, его выбирает клиент.
+ * rate-limit.enabled проверяется на каждом запросе, а не условием на бин (AOT фиксирует бины при сборке).
+ */
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiters rateLimiters;
+    private final RateLimitProperties properties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiters.Route route = rateLimiters.find(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = acquire(route, request);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"result\":false,\"message\":\"Слишком много запросов, повторите через "
+                + retryAfterSeconds + " с\"}");
+    }
+
+    /**
+     * Взять токен правила: для key=user сначала из корзины адреса, затем из корзины пользователя
+     *
+     * @return 0, если запрос разрешён, иначе через сколько наносекунд появится токен
+     */
+    private static long acquire(RateLimiters.Route route, HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (route.ipLimiter() == null) {
+            return route.limiter().tryAcquire(address.hashCode());
+        }
+        long waitNanos = route.ipLimiter().tryAcquire(address.hashCode());
+        if (waitNanos != 0) {
+            return waitNanos;
+        }
+        String userId = request.getParameter("userId");
+        return route.limiter().tryAcquire(userId != null && !userId.isEmpty() ? userId.hashCode() : address.hashCode());
+    }
+}
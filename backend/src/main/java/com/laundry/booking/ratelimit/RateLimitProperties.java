@@ -0,0 +1,68 @@
+package com.laundry.booking.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Настройки ограничения частоты запросов
+ */
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Число корзин на правило (степень двойки); ключи с одинаковым хэшем делят корзину */
+    private int stripes = 4096;
+
+    private Cluster cluster = new Cluster();
+
+    /** Правила по имени; запрос проверяется первым подходящим правилом */
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    public enum KeyType {
+        /** Адрес клиента (с учётом X-Forwarded-For от доверенного прокси) */
+        IP,
+        /**
+         * Параметр userId запроса, без него - адрес клиента. userId выбирает клиент, поэтому запрос
+         * дополнительно проверяется корзиной адреса (ip-multiplier): перебор userId не обходит лимит
+         */
+        USER
+    }
+
+    @Data
+    public static class Policy {
+        /** HTTP-метод; пусто - любой */
+        private String method;
+
+        /** Префиксы путей */
+        private List<String> paths = new ArrayList<>();
+
+        private KeyType key = KeyType.IP;
+
+        /** Размер корзины - сколько запросов можно сделать подряд */
+        private int capacity = 20;
+
+        /** Сколько запросов восстанавливается за refill-period */
+        private int refillTokens = 10;
+
+        private Duration refillPeriod = Duration.ofSeconds(1);
+
+        /** Для key=user: во сколько раз корзина адреса клиента больше корзины пользователя */
+        private int ipMultiplier = 5;
+    }
+
+    @Data
+    public static class Cluster {
+        /** Обмениваться расходом корзин с другими узлами через Postgres */
+        private boolean enabled = true;
+
+        private long syncIntervalMs = 1000;
+    }
+}
@@ -0,0 +1,87 @@
+package com.laundry.booking.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Правила ограничения частоты из rate-limit.policies и их корзины
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimiters {
+
+    /**
+     * Правило: какие запросы проверяет, как выбирает ключ и его корзины.
+     * ipLimiter - корзины адресов клиента для key=user, иначе null
+     */
+    public record Route(String method, List<String> paths, RateLimitProperties.KeyType key,
+                        TokenBucketLimiter limiter, TokenBucketLimiter ipLimiter) {
+
+        public List<TokenBucketLimiter> limiters() {
+            return ipLimiter != null ? List.of(limiter, ipLimiter) : List.of(limiter);
+        }
+
+        boolean matches(String requestMethod, String uri) {
+            if (method != null && !method.equalsIgnoreCase(requestMethod)) {
+                return false;
+            }
+            for (String path : paths) {
+                if (uri.startsWith(path) && (uri.length() == path.length() || uri.charAt(path.length()) == '/')) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimiters(RateLimitProperties properties) {
+        properties.getPolicies().forEach((name, policy) -> {
+            boolean byUser = policy.getKey() == RateLimitProperties.KeyType.USER;
+            int ipMultiplier = byUser ? policy.getIpMultiplier() : 1;
+            routes.add(new Route(
+                    policy.getMethod() == null || policy.getMethod().isBlank() ? null : policy.getMethod(),
+                    List.copyOf(policy.getPaths()),
+                    policy.getKey(),
+                    new TokenBucketLimiter(name, properties.getStripes(), policy.getCapacity(),
+                            policy.getRefillTokens(), policy.getRefillPeriod().toNanos()),
+                    byUser ? new TokenBucketLimiter(name + "-ip", properties.getStripes(),
+                            policy.getCapacity() * ipMultiplier, policy.getRefillTokens() * ipMultiplier,
+                            policy.getRefillPeriod().toNanos()) : null));
+        });
+    }
+
+    /**
+     * Первое правило, которому подходит запрос, или null
+     */
+    public Route find(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        for (Route route : routes) {
+            if (route.matches(method, uri)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public List<Route> routes() {
+        return routes;
+    }
+
+    /**
+     * Разрешённые и отклонённые запросы по правилам
+     */
+    public Map<String, TokenBucketLimiter.Stats> stats() {
+        Map<String, TokenBucketLimiter.Stats> result = new TreeMap<>();
+        routes.forEach(route -> route.limiters().forEach(limiter -> result.put(limiter.getName(), limiter.stats())));
+        return result;
+    }
+}
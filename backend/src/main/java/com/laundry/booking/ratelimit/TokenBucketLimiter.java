@@ -0,0 +1,123 @@
+package com.laundry.booking.ratelimit;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Корзина токенов в форме GCRA: состояние корзины - одно число, теоретическое время прибытия (TAT)
+ * следующего запроса. Запрос проходит, если TAT + interval не дальше burst от текущего момента.
+ *
+ * Корзины полосатые: ключ по хэшу попадает в одну из stripes ячеек AtomicLongArray, обновление - CAS без блокировок.
+ * На пути проверки нет выделений памяти. Принятые запросы дополнительно считаются в pending,
+ * чтобы RateLimitClusterSync мог передать расход другим узлам.
+ */
+public class TokenBucketLimiter {
+
+    private final String name;
+    private final int mask;
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final long origin = System.nanoTime() - 1;
+    private final AtomicLongArray tats;
+    private final AtomicLongArray pending;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Счётчики правила с запуска узла
+     */
+    public record Stats(long allowed, long rejected) {
+    }
+
+    /**
+     * Расход, накопленный с прошлой синхронизации: корзины и добавка к их TAT в микросекундах
+     */
+    public record Consumption(int[] stripes, long[] costsMicros) {
+    }
+
+    public TokenBucketLimiter(String name, int stripes, int capacity, int refillTokens, long refillPeriodNanos) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("rate-limit.stripes must be a power of two: " + stripes);
+        }
+        if (capacity < 1 || refillTokens < 1 || refillPeriodNanos < refillTokens) {
+            throw new IllegalArgumentException("Invalid rate limit policy " + name);
+        }
+        this.name = name;
+        this.mask = stripes - 1;
+        this.intervalNanos = refillPeriodNanos / refillTokens;
+        this.burstNanos = intervalNanos * capacity;
+        this.tats = new AtomicLongArray(stripes);
+        this.pending = new AtomicLongArray(stripes);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Взять токен из корзины ключа
+     *
+     * @return 0, если запрос разрешён, иначе через сколько наносекунд появится токен
+     */
+    public long tryAcquire(int keyHash) {
+        int stripe = stripe(keyHash);
+        long now = System.nanoTime() - origin;
+        while (true) {
+            long tat = tats.get(stripe);
+            long next = Math.max(tat, now) + intervalNanos;
+            long wait = next - burstNanos - now;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (tats.compareAndSet(stripe, tat, next)) {
+                pending.incrementAndGet(stripe);
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Забрать расход с прошлой синхронизации
+     */
+    public Consumption drainConsumption() {
+        int count = 0;
+        int[] stripes = new int[16];
+        long[] costs = new long[16];
+        for (int stripe = 0; stripe <= mask; stripe++) {
+            long taken = pending.get(stripe) == 0 ? 0 : pending.getAndSet(stripe, 0);
+            if (taken == 0) {
+                continue;
+            }
+            if (count == stripes.length) {
+                stripes = Arrays.copyOf(stripes, count * 2);
+                costs = Arrays.copyOf(costs, count * 2);
+            }
+            stripes[count] = stripe;
+            costs[count] = taken * intervalNanos / 1000;
+            count++;
+        }
+        return new Consumption(Arrays.copyOf(stripes, count), Arrays.copyOf(costs, count));
+    }
+
+    /**
+     * Учесть общий для кластера TAT корзины: до него осталось remainingMicros.
+     * Локальный TAT только растёт - собственный расход узла уже входит в общий.
+     */
+    public void merge(int stripe, long remainingMicros) {
+        long clusterTat = System.nanoTime() - origin + remainingMicros * 1000;
+        tats.accumulateAndGet(stripe & mask, clusterTat, Math::max);
+    }
+
+    public Stats stats() {
+        return new Stats(allowed.sum(), rejected.sum());
+    }
+
+    private int stripe(int keyHash) {
+        int h = keyHash * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
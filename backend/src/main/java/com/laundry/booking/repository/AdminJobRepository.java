@@ -0,0 +1,115 @@
+package com.laundry.booking.repository;
+
+import com.laundry.booking.dto.AdminJobDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Фоновые задачи админки (таблица admin_jobs): постановка, прогресс, завершение
+ */
+@Repository
+@RequiredArgsConstructor
+public class AdminJobRepository {
+
+    public static final String MACHINE_DELETE = "machine-delete";
+    public static final String SCHEDULE_DELETE = "schedule-delete";
+
+    private static final RowMapper<AdminJobDto> JOB_MAPPER = (rs, rowNum) -> new AdminJobDto(
+            rs.getObject("id", UUID.class),
+            rs.getString("kind"),
+            rs.getObject("target_id", UUID.class),
+            rs.getString("status"),
+            rs.getLong("total_rows"),
+            rs.getLong("deleted_rows"),
+            rs.getString("error"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("updated_at")),
+            toLocalDateTime(rs.getTimestamp("finished_at")));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Поставить задачу; если по объекту уже есть незавершённая задача - вернуть её
+     */
+    public AdminJobDto enqueue(String kind, UUID targetId, long totalRows) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("kind", kind)
+                .addValue("targetId", targetId)
+                .addValue("totalRows", totalRows);
+        List<AdminJobDto> inserted = jdbcTemplate.query("""
+                INSERT INTO admin_jobs (kind, target_id, total_rows)
+                VALUES (:kind, :targetId, :totalRows)
+                ON CONFLICT (kind, target_id) WHERE status IN ('queued', 'running') DO NOTHING
+                RETURNING *
+                """, params, JOB_MAPPER);
+        if (!inserted.isEmpty()) {
+            return inserted.get(0);
+        }
+        return findActive(kind, targetId).orElseThrow();
+    }
+
+    public Optional<AdminJobDto> findActive(String kind, UUID targetId) {
+        return jdbcTemplate.query("""
+                SELECT * FROM admin_jobs
+                WHERE kind = :kind AND target_id = :targetId AND status IN ('queued', 'running')
+                """,
+                new MapSqlParameterSource().addValue("kind", kind).addValue("targetId", targetId),
+                JOB_MAPPER).stream().findFirst();
+    }
+
+    public Optional<AdminJobDto> findById(UUID id) {
+        return jdbcTemplate.query("SELECT * FROM admin_jobs WHERE id = :id",
+                new MapSqlParameterSource("id", id), JOB_MAPPER).stream().findFirst();
+    }
+
+    public List<AdminJobDto> findRecent(int limit) {
+        return jdbcTemplate.query("SELECT * FROM admin_jobs ORDER BY created_at DESC LIMIT :limit",
+                new MapSqlParameterSource("limit", limit), JOB_MAPPER);
+    }
+
+    /**
+     * Незавершённые задачи в порядке постановки (в том числе прерванные падением узла)
+     */
+    public List<AdminJobDto> findUnfinished() {
+        return jdbcTemplate.query(
+                "SELECT * FROM admin_jobs WHERE status IN ('queued', 'running') ORDER BY created_at",
+                new MapSqlParameterSource(), JOB_MAPPER);
+    }
+
+    public void markRunning(UUID id) {
+        jdbcTemplate.update(
+                "UPDATE admin_jobs SET status = 'running', updated_at = CURRENT_TIMESTAMP WHERE id = :id",
+                new MapSqlParameterSource("id", id));
+    }
+
+    public void addProgress(UUID id, int deletedRows) {
+        jdbcTemplate.update("""
+                UPDATE admin_jobs
+                SET deleted_rows = deleted_rows + :deletedRows, updated_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                """, new MapSqlParameterSource("id", id).addValue("deletedRows", deletedRows));
+    }
+
+    public void finish(UUID id, boolean succeeded, String error) {
+        jdbcTemplate.update("""
+                UPDATE admin_jobs
+                SET status = :status, error = :error, updated_at = CURRENT_TIMESTAMP, finished_at = CURRENT_TIMESTAMP
+                WHERE id = :id
+                """, new MapSqlParameterSource("id", id)
+                .addValue("status", succeeded ? "succeeded" : "failed")
+                .addValue("error", error));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
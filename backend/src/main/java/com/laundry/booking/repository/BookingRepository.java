@@ -1,23 +1,47 @@
 package com.laundry.booking.repository;
 
 import com.laundry.booking.entity.Booking;
+import com.laundry.booking.entity.BookingState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, String> {
+public interface BookingRepository extends JpaRepository<Booking, UUID> {
     
-    @Query("SELECT b FROM Booking b JOIN Timeslot t ON b.slotId = t.id WHERE DATE(t.startTime) = :date")
-    List<Booking> findByDate(@Param("date") LocalDate date);
+    @Query("SELECT b FROM Booking b WHERE b.slotStartTime >= :from AND b.slotStartTime < :to")
+    List<Booking> findBySlotStartTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    default List<Booking> findByDate(LocalDate date) {
+        return findBySlotStartTimeRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Количество бронирований пользователя в состоянии state, слот которых ещё не закончился.
+     * Нижняя граница по slotStartTime (слот короче суток) ограничивает поиск свежими секциями.
+     */
+    @Query("""
+            SELECT COUNT(b) FROM Booking b JOIN Timeslot t ON t.id = b.slotId AND t.startTime = b.slotStartTime
+            WHERE b.userId = :userId AND b.state = :state
+              AND b.slotStartTime > :horizon AND t.endTime > :now
+            """)
+    long countUnfinished(@Param("userId") UUID userId,
+                         @Param("state") BookingState state,
+                         @Param("now") LocalDateTime now,
+                         @Param("horizon") LocalDateTime horizon);
     
-    List<Booking> findByUserId(String userId);
+    List<Booking> findByUserId(UUID userId);
     
-    List<Booking> findByUserIdAndState(String userId, String state);
+    List<Booking> findByUserIdAndState(UUID userId, BookingState state);
     
-    boolean existsBySlotIdAndState(String slotId, String state);
+    /**
+     * Есть ли у слота запись в состоянии state (поиск в секции времени слота)
+     */
+    boolean existsBySlotIdAndSlotStartTimeAndState(UUID slotId, LocalDateTime slotStartTime, BookingState state);
 }
@@ -0,0 +1,401 @@
+package com.laundry.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Массовые операции админки одним SQL-оператором на весь набор ID.
+ * Каждый запрос возвращает исход по каждому запрошенному ID:
+ * строки выбираются в CTE requested (список ID или фильтр), меняются одним UPDATE ... WHERE id = ANY(...),
+ * а итоговый SELECT сопоставляет запрошенные ID с изменёнными.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BulkAdminRepository {
+
+    public enum Status {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+
+    /**
+     * Исход для одного ID; slotStartTime заполнен только для удалённых бронирований
+     */
+    public record Outcome(UUID id, Status status, LocalDateTime slotStartTime) {
+    }
+
+    private static final RowMapper<Outcome> OUTCOME_MAPPER = (rs, rowNum) -> {
+        Timestamp slotStartTime = rs.getTimestamp("slot_start_time");
+        return new Outcome(
+                rs.getObject("id", UUID.class),
+                Status.valueOf(rs.getString("status")),
+                slotStartTime != null ? slotStartTime.toLocalDateTime() : null);
+    };
+
+    // Порядок результата совпадает с порядком ID в запросе
+    private static final String REQUESTED_IDS = """
+            requested AS (
+                SELECT id, MIN(ord) AS ord
+                FROM unnest(CAST(:ids AS uuid[])) WITH ORDINALITY AS r(id, ord)
+                GROUP BY id
+            )""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // ============= USERS =============
+
+    public List<Outcome> setUsersBlocked(List<UUID> userIds, boolean blocked) {
+        return setUsersBlocked(REQUESTED_IDS, idsParam(userIds), blocked);
+    }
+
+    /**
+     * Пользователи комнат с номерами в диапазоне [roomFrom, roomTo] (комнаты с нечисловым номером не попадают)
+     */
+    public List<Outcome> setUsersBlockedByRoomRange(int roomFrom, int roomTo, boolean blocked) {
+        return setUsersBlocked("""
+                requested AS (
+                    SELECT id, 0 AS ord
+                    FROM users
+                    WHERE room ~ '^[0-9]+$' AND CAST(room AS integer) BETWEEN :roomFrom AND :roomTo
+                )""",
+                new MapSqlParameterSource().addValue("roomFrom", roomFrom).addValue("roomTo", roomTo),
+                blocked);
+    }
+
+    private List<Outcome> setUsersBlocked(String requested, MapSqlParameterSource params, boolean blocked) {
+        params.addValue("blocked", blocked);
+        // Администраторов не блокируем; разблокировка их не касается
+        return jdbcTemplate.query("WITH " + requested + """
+                ,
+                updated AS (
+                    UPDATE users
+                    SET is_blocked = :blocked
+                    WHERE id = ANY(ARRAY(SELECT id FROM requested))
+                      AND is_blocked <> :blocked
+                      AND (NOT :blocked OR role <> 2)
+                    RETURNING id
+                )
+                SELECT r.id,
+                       CASE WHEN up.id IS NOT NULL THEN 'UPDATED'
+                            WHEN u.id IS NULL THEN 'NOT_FOUND'
+                            WHEN u.is_blocked = :blocked THEN 'UNCHANGED'
+                            ELSE 'FORBIDDEN' END AS status,
+                       NULL AS slot_start_time
+                FROM requested r
+                LEFT JOIN updated up ON up.id = r.id
+                LEFT JOIN users u ON u.id = r.id
+                ORDER BY r.ord, r.id
+                """, params, OUTCOME_MAPPER);
+    }
+
+    // ============= MACHINES =============
+
+    public List<Outcome> setMachinesStatus(List<UUID> machineIds, short status) {
+        MapSqlParameterSource params = idsParam(machineIds).addValue("status", status);
+        return jdbcTemplate.query("WITH " + REQUESTED_IDS + """
+                ,
+                updated AS (
+                    UPDATE machines
+                    SET status = :status
+                    WHERE id = ANY(ARRAY(SELECT id FROM requested))
+                      AND status <> :status
+                      AND status <> 3
+                    RETURNING id
+                )
+                SELECT r.id,
+                       CASE WHEN up.id IS NOT NULL THEN 'UPDATED'
+                            WHEN m.id IS NULL THEN 'NOT_FOUND'
+                            WHEN m.status = 3 THEN 'FORBIDDEN'
+                            ELSE 'UNCHANGED' END AS status,
+                       NULL AS slot_start_time
+                FROM requested r
+                LEFT JOIN updated up ON up.id = r.id
+                LEFT JOIN machines m ON m.id = r.id
+                ORDER BY r.ord, r.id
+                """, params, OUTCOME_MAPPER);
+    }
+
+    /**
+     * Часть каскада блокировки: до :limit будущих активных записей машинки переводятся в "canceled",
+     * их слоты остаются недоступными, владельцу пишется уведомление.
+     * Строки, занятые другими транзакциями, пропускаются (SKIP LOCKED). Возвращает время начала слотов
+     */
+    public List<LocalDateTime> cancelFutureBookingsChunk(UUID machineId, LocalDateTime from, int limit) {
+        return jdbcTemplate.queryForList("""
+                WITH batch AS (
+                    SELECT id, user_id, slot_id, slot_start_time
+                    FROM bookings
+                    WHERE machine_id = :machineId AND state = 1 AND slot_start_time >= :from
+                    ORDER BY slot_start_time
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                ),
+                canceled AS (
+                    UPDATE bookings b
+                    SET state = 2
+                    FROM batch t
+                    WHERE b.id = t.id AND b.slot_start_time = t.slot_start_time
+                    RETURNING b.id, b.user_id, b.slot_start_time
+                ),
+                closed AS (
+                    UPDATE timeslots s
+                    SET is_available = FALSE
+                    FROM batch t
+                    WHERE s.id = t.slot_id AND s.start_time = t.slot_start_time
+                ),
+                notified AS (
+                    INSERT INTO notifications (user_id, booking_id, message)
+                    SELECT c.user_id, c.id,
+                           'Запись на ' || to_char(c.slot_start_time, 'DD.MM.YYYY HH24:MI')
+                               || ' (' || m.name || ') отменена: машинка заблокирована'
+                    FROM canceled c
+                    JOIN machines m ON m.id = :machineId
+                )
+                SELECT slot_start_time FROM canceled
+                """, futureParams(machineId, from, limit), LocalDateTime.class);
+    }
+
+    /**
+     * Часть каскада блокировки: до :limit свободных будущих слотов машинки становятся недоступными
+     */
+    public List<LocalDateTime> closeFutureSlotsChunk(UUID machineId, LocalDateTime from, int limit) {
+        return jdbcTemplate.queryForList("""
+                WITH batch AS (
+                    SELECT id, start_time
+                    FROM timeslots
+                    WHERE machine_id = :machineId AND start_time >= :from AND is_available
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                UPDATE timeslots s
+                SET is_available = FALSE
+                FROM batch t
+                WHERE s.id = t.id AND s.start_time = t.start_time
+                RETURNING s.start_time
+                """, futureParams(machineId, from, limit), LocalDateTime.class);
+    }
+
+    /**
+     * Обратное к каскаду: до :limit недоступных будущих слотов машинки без активной записи снова открываются
+     */
+    public List<LocalDateTime> reopenFutureSlotsChunk(UUID machineId, LocalDateTime from, int limit) {
+        return jdbcTemplate.queryForList("""
+                WITH batch AS (
+                    SELECT s.id, s.start_time
+                    FROM timeslots s
+                    WHERE s.machine_id = :machineId AND s.start_time >= :from AND NOT s.is_available
+                      AND NOT EXISTS (
+                          SELECT 1 FROM bookings b
+                          WHERE b.slot_id = s.id AND b.slot_start_time = s.start_time AND b.state = 1
+                      )
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                UPDATE timeslots s
+                SET is_available = TRUE
+                FROM batch t
+                WHERE s.id = t.id AND s.start_time = t.start_time
+                RETURNING s.start_time
+                """, futureParams(machineId, from, limit), LocalDateTime.class);
+    }
+
+    public long countFutureActiveBookings(UUID machineId, LocalDateTime from) {
+        return count("""
+                SELECT COUNT(*) FROM bookings
+                WHERE machine_id = :machineId AND state = 1 AND slot_start_time >= :from
+                """, machineId, from);
+    }
+
+    public long countOpenFutureSlots(UUID machineId, LocalDateTime from) {
+        return count("""
+                SELECT COUNT(*) FROM timeslots
+                WHERE machine_id = :machineId AND start_time >= :from AND is_available
+                """, machineId, from);
+    }
+
+    private long count(String sql, UUID machineId, LocalDateTime from) {
+        Long count = jdbcTemplate.queryForObject(sql, futureParams(machineId, from, 0), Long.class);
+        return count != null ? count : 0;
+    }
+
+    // ============= BOOKINGS =============
+
+    public List<Outcome> deleteBookings(List<UUID> bookingIds) {
+        return deleteBookings(REQUESTED_IDS, idsParam(bookingIds));
+    }
+
+    /**
+     * Все неудалённые бронирования машинки на даты [dateFrom, dateTo]
+     */
+    public List<Outcome> deleteBookingsByMachineAndDates(UUID machineId, LocalDate dateFrom, LocalDate dateTo) {
+        return deleteBookings("""
+                requested AS (
+                    SELECT id, 0 AS ord
+                    FROM bookings
+                    WHERE machine_id = :machineId
+                      AND slot_start_time >= :from AND slot_start_time < :to
+                      AND state <> 3
+                )""",
+                new MapSqlParameterSource()
+                        .addValue("machineId", machineId)
+                        .addValue("from", dateFrom.atStartOfDay())
+                        .addValue("to", dateTo.plusDays(1).atStartOfDay()));
+    }
+
+    private List<Outcome> deleteBookings(String requested, MapSqlParameterSource params) {
+        // Слот освобождается, только если удаляемая запись была активной:
+        // слот отменённой записи уже свободен или занят другой записью
+        return jdbcTemplate.query("WITH " + requested + """
+                ,
+                targets AS (
+                    SELECT id, slot_id, slot_start_time, state
+                    FROM bookings
+                    WHERE id = ANY(ARRAY(SELECT id FROM requested))
+                      AND state <> 3
+                    FOR UPDATE
+                ),
+                deleted AS (
+                    UPDATE bookings b
+                    SET state = 3
+                    FROM targets t
+                    WHERE b.id = t.id AND b.slot_start_time = t.slot_start_time
+                    RETURNING b.id, b.slot_start_time
+                ),
+                freed AS (
+                    UPDATE timeslots s
+                    SET is_available = TRUE
+                    FROM targets t
+                    WHERE t.state = 1 AND s.id = t.slot_id AND s.start_time = t.slot_start_time
+                    RETURNING s.id
+                )
+                SELECT r.id,
+                       CASE WHEN d.id IS NOT NULL THEN 'UPDATED'
+                            WHEN b.id IS NULL THEN 'NOT_FOUND'
+                            ELSE 'UNCHANGED' END AS status,
+                       d.slot_start_time
+                FROM requested r
+                LEFT JOIN deleted d ON d.id = r.id
+                LEFT JOIN bookings b ON b.id = r.id
+                ORDER BY r.ord, r.id
+                """, params, OUTCOME_MAPPER);
+    }
+
+    // ============= DELETION CHUNKS =============
+    // Удаление машинки/расписания частями: сначала записи, затем слоты, каждая часть - своя короткая транзакция
+
+    public int deleteMachineBookingsChunk(UUID machineId, int limit) {
+        return jdbcTemplate.update("""
+                WITH batch AS (
+                    SELECT id, slot_start_time FROM bookings
+                    WHERE machine_id = :targetId
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                DELETE FROM bookings b USING batch t
+                WHERE b.id = t.id AND b.slot_start_time = t.slot_start_time
+                """, targetParams(machineId, limit));
+    }
+
+    public int deleteMachineSlotsChunk(UUID machineId, int limit) {
+        return jdbcTemplate.update("""
+                WITH batch AS (
+                    SELECT id, start_time FROM timeslots
+                    WHERE machine_id = :targetId
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                )
+                DELETE FROM timeslots s USING batch t
+                WHERE s.id = t.id AND s.start_time = t.start_time
+                """, targetParams(machineId, limit));
+    }
+
+    public long countMachineRows(UUID machineId) {
+        Long count = jdbcTemplate.queryForObject("""
+                SELECT (SELECT COUNT(*) FROM bookings WHERE machine_id = :targetId)
+                     + (SELECT COUNT(*) FROM timeslots WHERE machine_id = :targetId)
+                """, targetParams(machineId, 0), Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Записи на дату расписания у машинок этого расписания
+     */
+    public int deleteScheduleBookingsChunk(UUID scheduleId, int limit) {
+        return jdbcTemplate.update("""
+                WITH batch AS (
+                    SELECT b.id, b.slot_start_time
+                    FROM bookings b
+                    JOIN schedules sc ON sc.id = :targetId
+                    WHERE b.machine_id IN (SELECT machine_id FROM schedule_machines WHERE schedule_id = :targetId)
+                      AND b.slot_start_time >= sc.date AND b.slot_start_time < sc.date + 1
+                    LIMIT :limit
+                    FOR UPDATE OF b SKIP LOCKED
+                )
+                DELETE FROM bookings b USING batch t
+                WHERE b.id = t.id AND b.slot_start_time = t.slot_start_time
+                """, targetParams(scheduleId, limit));
+    }
+
+    /**
+     * Слоты на дату расписания у машинок этого расписания
+     */
+    public int deleteScheduleSlotsChunk(UUID scheduleId, int limit) {
+        return jdbcTemplate.update("""
+                WITH batch AS (
+                    SELECT s.id, s.start_time
+                    FROM timeslots s
+                    JOIN schedules sc ON sc.id = :targetId
+                    WHERE s.machine_id IN (SELECT machine_id FROM schedule_machines WHERE schedule_id = :targetId)
+                      AND s.start_time >= sc.date AND s.start_time < sc.date + 1
+                    LIMIT :limit
+                    FOR UPDATE OF s SKIP LOCKED
+                )
+                DELETE FROM timeslots s USING batch t
+                WHERE s.id = t.id AND s.start_time = t.start_time
+                """, targetParams(scheduleId, limit));
+    }
+
+    public long countScheduleRows(UUID scheduleId) {
+        Long count = jdbcTemplate.queryForObject("""
+                WITH target AS (
+                    SELECT sm.machine_id, sc.date
+                    FROM schedules sc
+                    JOIN schedule_machines sm ON sm.schedule_id = sc.id
+                    WHERE sc.id = :targetId
+                )
+                SELECT (SELECT COUNT(*) FROM bookings b JOIN target t ON b.machine_id = t.machine_id
+                        WHERE b.slot_start_time >= t.date AND b.slot_start_time < t.date + 1)
+                     + (SELECT COUNT(*) FROM timeslots s JOIN target t ON s.machine_id = t.machine_id
+                        WHERE s.start_time >= t.date AND s.start_time < t.date + 1)
+                """, targetParams(scheduleId, 0), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static MapSqlParameterSource targetParams(UUID targetId, int limit) {
+        return new MapSqlParameterSource().addValue("targetId", targetId).addValue("limit", limit);
+    }
+
+    private static MapSqlParameterSource futureParams(UUID machineId, LocalDateTime from, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("machineId", machineId)
+                .addValue("from", from)
+                .addValue("limit", limit);
+    }
+
+    private static MapSqlParameterSource idsParam(List<UUID> ids) {
+        // Массив строк: NamedParameterJdbcTemplate не раскрывает его в список "?", а драйвер передаёт как text[]
+        String[] values = ids.stream().map(UUID::toString).toArray(String[]::new);
+        return new MapSqlParameterSource("ids", values);
+    }
+}
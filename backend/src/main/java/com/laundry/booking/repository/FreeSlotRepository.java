@@ -0,0 +1,116 @@
+package com.laundry.booking.repository;
+
+import com.laundry.booking.dto.FreeSlotDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Свободные слоты для индекса ближайших слотов (FreeSlotIndex) и состояния слотов по дням (AvailabilityCache).
+ * Правила те же, что у расписания (ScheduleService): машинка доступна, а если на дату есть расписание —
+ * запись открыта и машинка в нём выбрана; слот доступен и не занят активной записью.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FreeSlotRepository {
+
+    // Машинка m открыта для записи на дату расписания sc (sc - LEFT JOIN, NULL если расписания нет)
+    private static final String MACHINE_OPEN = """
+            m.status = 1
+            AND (sc.id IS NULL OR (sc.is_open AND EXISTS (
+                SELECT 1 FROM schedule_machines sm WHERE sm.schedule_id = sc.id AND sm.machine_id = m.id
+            )))""";
+
+    private static final RowMapper<FreeSlotDto> SLOT_MAPPER = (rs, rowNum) -> new FreeSlotDto(
+            rs.getObject("id", UUID.class),
+            rs.getObject("machine_id", UUID.class),
+            rs.getString("machine_name"),
+            rs.getTimestamp("start_time").toLocalDateTime(),
+            rs.getTimestamp("end_time").toLocalDateTime());
+
+    /**
+     * Машинка, открытая для записи на дату
+     */
+    public record OpenMachine(LocalDate date, UUID machineId, String machineName) {
+    }
+
+    /**
+     * Слот, видимый в расписании даты, и свободен ли он для записи
+     */
+    public record SlotState(LocalDate date, UUID machineId, UUID slotId, boolean free) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Свободные слоты на даты [from, to]
+     */
+    public List<FreeSlotDto> findFreeSlots(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT s.id, s.machine_id, m.name AS machine_name, s.start_time, s.end_time
+                FROM timeslots s
+                JOIN machines m ON m.id = s.machine_id
+                LEFT JOIN schedules sc ON sc.date = CAST(s.start_time AS date)
+                WHERE s.start_time >= :from AND s.start_time < :to
+                  AND s.is_available
+                  AND NOT EXISTS (
+                      SELECT 1 FROM bookings b
+                      WHERE b.slot_id = s.id AND b.slot_start_time = s.start_time AND b.state = 1
+                  )
+                  AND """ + MACHINE_OPEN, rangeParams(from, to), SLOT_MAPPER);
+    }
+
+    /**
+     * Машинки, открытые для записи, по датам [from, to]
+     */
+    public List<OpenMachine> findOpenMachines(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT CAST(d AS date) AS date, m.id, m.name
+                FROM generate_series(CAST(:fromDate AS date), CAST(:toDate AS date), interval '1 day') d
+                CROSS JOIN machines m
+                LEFT JOIN schedules sc ON sc.date = CAST(d AS date)
+                WHERE """ + MACHINE_OPEN,
+                rangeParams(from, to),
+                (rs, rowNum) -> new OpenMachine(
+                        rs.getObject("date", LocalDate.class),
+                        rs.getObject("id", UUID.class),
+                        rs.getString("name")));
+    }
+
+    /**
+     * Все видимые в расписании слоты за [from, to] с признаком "свободен"
+     */
+    public List<SlotState> findSlotStates(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT CAST(s.start_time AS date) AS date, s.machine_id, s.id,
+                       s.is_available AND NOT EXISTS (
+                           SELECT 1 FROM bookings b
+                           WHERE b.slot_id = s.id AND b.slot_start_time = s.start_time AND b.state = 1
+                       ) AS free
+                FROM timeslots s
+                JOIN machines m ON m.id = s.machine_id
+                LEFT JOIN schedules sc ON sc.date = CAST(s.start_time AS date)
+                WHERE s.start_time >= :from AND s.start_time < :to
+                  AND """ + MACHINE_OPEN,
+                rangeParams(from, to),
+                (rs, rowNum) -> new SlotState(
+                        rs.getObject("date", LocalDate.class),
+                        rs.getObject("machine_id", UUID.class),
+                        rs.getObject("id", UUID.class),
+                        rs.getBoolean("free")));
+    }
+
+    private static MapSqlParameterSource rangeParams(LocalDate from, LocalDate to) {
+        return new MapSqlParameterSource()
+                .addValue("from", from.atStartOfDay())
+                .addValue("to", to.plusDays(1).atStartOfDay())
+                .addValue("fromDate", from)
+                .addValue("toDate", to);
+    }
+}
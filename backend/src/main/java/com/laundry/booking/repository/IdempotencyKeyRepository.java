@@ -0,0 +1,112 @@
+package com.laundry.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ключи идемпотентности мутаций записей (таблица idempotency_keys)
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+    /**
+     * Сохранённый исход операции
+     */
+    public record StoredResult(short operation, int requestHash, Boolean result, String message) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Репозиторий на соединении вне пула (соединение не закрывается) - для ключей, которые занимаются
+     * в транзакции пачки BookingBatchWriter
+     */
+    public static IdempotencyKeyRepository on(Connection connection) {
+        return new IdempotencyKeyRepository(new NamedParameterJdbcTemplate(new SingleConnectionDataSource(connection, true)));
+    }
+
+    /**
+     * Занять ключ в текущей транзакции. Если ключ занят незавершённой транзакцией, вставка ждёт её коммита.
+     * Строка старше ttl (просроченная, но ещё не удалённая) занимается заново; время - по часам Postgres.
+     *
+     * @return true, если ключ занят этим вызовом и операцию нужно выполнить
+     */
+    public boolean claim(UUID userId, String key, short operation, int requestHash, Duration ttl) {
+        return !jdbcTemplate.queryForList("""
+                INSERT INTO idempotency_keys (user_id, idempotency_key, operation, request_hash)
+                VALUES (:userId, :key, :operation, :requestHash)
+                ON CONFLICT (user_id, idempotency_key) DO UPDATE
+                    SET operation = EXCLUDED.operation,
+                        request_hash = EXCLUDED.request_hash,
+                        result = NULL,
+                        message = NULL,
+                        created_at = CURRENT_TIMESTAMP
+                    WHERE idempotency_keys.created_at < CURRENT_TIMESTAMP - make_interval(secs => :ttlSeconds)
+                RETURNING 1
+                """,
+                keyParams(userId, key)
+                        .addValue("operation", operation)
+                        .addValue("requestHash", requestHash)
+                        .addValue("ttlSeconds", ttl.toSeconds()),
+                Integer.class).isEmpty();
+    }
+
+    /**
+     * Записать исход операции по занятому ключу
+     */
+    public void complete(UUID userId, String key, Boolean result, String message) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_keys SET result = :result, message = :message
+                WHERE user_id = :userId AND idempotency_key = :key
+                """,
+                keyParams(userId, key).addValue("result", result).addValue("message", message));
+    }
+
+    public Optional<StoredResult> find(UUID userId, String key) {
+        return jdbcTemplate.query("""
+                SELECT operation, request_hash, result, message
+                FROM idempotency_keys
+                WHERE user_id = :userId AND idempotency_key = :key
+                """,
+                keyParams(userId, key),
+                (rs, rowNum) -> new StoredResult(
+                        rs.getShort("operation"),
+                        rs.getInt("request_hash"),
+                        rs.getObject("result", Boolean.class),
+                        rs.getString("message")))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Удалить не больше limit ключей старше ttl
+     *
+     * @return сколько строк удалено
+     */
+    public int deleteExpired(Duration ttl, int limit) {
+        return jdbcTemplate.update("""
+                DELETE FROM idempotency_keys
+                WHERE ctid = ANY(ARRAY(
+                    SELECT ctid FROM idempotency_keys
+                    WHERE created_at < CURRENT_TIMESTAMP - make_interval(secs => :ttlSeconds)
+                    LIMIT :limit
+                ))
+                """,
+                new MapSqlParameterSource().addValue("ttlSeconds", ttl.toSeconds()).addValue("limit", limit));
+    }
+
+    private static MapSqlParameterSource keyParams(UUID userId, String key) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("key", key);
+    }
+}
@@ -1,13 +1,15 @@
 package com.laundry.booking.repository;
 
 import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.MachineStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface MachineRepository extends JpaRepository<Machine, String> {
+public interface MachineRepository extends JpaRepository<Machine, UUID> {
     
-    List<Machine> findByStatus(String status);
+    List<Machine> findByStatus(MachineStatus status);
 }
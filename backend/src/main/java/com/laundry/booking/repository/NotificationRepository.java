@@ -0,0 +1,22 @@
+package com.laundry.booking.repository;
+
+import com.laundry.booking.entity.Notification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, UUID> {
+
+    List<Notification> findTop50ByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.readAt = :now WHERE n.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+}
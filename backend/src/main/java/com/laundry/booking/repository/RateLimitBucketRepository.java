@@ -0,0 +1,58 @@
+package com.laundry.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Общие корзины ограничителя частоты (таблица rate_limit_buckets)
+ */
+@Repository
+@RequiredArgsConstructor
+public class RateLimitBucketRepository {
+
+    /**
+     * Приёмник общего состояния корзины: сколько микросекунд осталось до её TAT
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(int stripe, long remainingMicros);
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Добавить расход узла к корзинам правила и прочитать все неполные корзины правила одним запросом.
+     * Время - по часам Postgres, чтобы расхождение часов узлов не влияло на лимит.
+     */
+    public void exchange(String policy, int[] stripes, long[] costsMicros, BucketConsumer consumer) {
+        jdbcTemplate.query("""
+                WITH now AS (
+                    SELECT CAST(extract(epoch FROM clock_timestamp()) * 1000000 AS bigint) AS us
+                ),
+                pushed AS (
+                    INSERT INTO rate_limit_buckets AS b (policy, stripe, tat_us)
+                    SELECT :policy, d.stripe, now.us + d.cost_us
+                    FROM unnest(CAST(:stripes AS integer[]), CAST(:costs AS bigint[])) AS d(stripe, cost_us), now
+                    ON CONFLICT (policy, stripe) DO UPDATE
+                        SET tat_us = GREATEST(b.tat_us, (SELECT us FROM now)) + EXCLUDED.tat_us - (SELECT us FROM now)
+                    RETURNING b.stripe, b.tat_us
+                )
+                SELECT p.stripe, p.tat_us - now.us AS remaining_us
+                FROM pushed p, now
+                UNION ALL
+                SELECT b.stripe, b.tat_us - now.us
+                FROM rate_limit_buckets b, now
+                WHERE b.policy = :policy
+                  AND b.tat_us > now.us
+                  AND b.stripe <> ALL(CAST(:stripes AS integer[]))
+                """,
+                new MapSqlParameterSource()
+                        .addValue("policy", policy)
+                        .addValue("stripes", stripes)
+                        .addValue("costs", costsMicros),
+                (RowCallbackHandler) rs -> consumer.accept(rs.getInt("stripe"), rs.getLong("remaining_us")));
+    }
+}
@@ -7,18 +7,22 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface ScheduleMachineRepository extends JpaRepository<ScheduleMachine, String> {
+public interface ScheduleMachineRepository extends JpaRepository<ScheduleMachine, UUID> {
     
-    List<ScheduleMachine> findByScheduleId(String scheduleId);
+    List<ScheduleMachine> findByScheduleId(UUID scheduleId);
+
+    List<ScheduleMachine> findByScheduleIdIn(Collection<UUID> scheduleIds);
     
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM ScheduleMachine sm WHERE sm.scheduleId = :scheduleId")
-    void deleteByScheduleId(@Param("scheduleId") String scheduleId);
+    void deleteByScheduleId(@Param("scheduleId") UUID scheduleId);
     
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM ScheduleMachine sm WHERE sm.machineId = :machineId")
-    void deleteByMachineId(@Param("machineId") String machineId);
+    void deleteByMachineId(@Param("machineId") UUID machineId);
 }
@@ -0,0 +1,192 @@
+package com.laundry.booking.repository;
+
+import com.laundry.booking.dto.BookingView;
+import com.laundry.booking.dto.MachineView;
+import com.laundry.booking.dto.TimeslotView;
+import com.laundry.booking.entity.BookingState;
+import com.laundry.booking.entity.MachineStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Чтение расписания без сущностей JPA (ScheduleService, schedule.read-path=projection).
+ * Строки сразу отображаются в неизменяемые записи с полями экрана записи:
+ * ни контекста персистентности, ни снимков для dirty checking, ни createdAt.
+ * При schedule.read-path=json-agg расписание даты собирает сам Postgres (findScheduleDocument).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ScheduleReadRepository {
+
+    /**
+     * Готовый JSON расписания на дату - те же правила и поля, что у ScheduleService.assemble:
+     * - записи закрыты: всё пусто;
+     * - есть настройки даты: слоты только выбранных машинок, в списке машинок - выбранные и доступные;
+     * - настроек нет: все слоты, все доступные машинки;
+     * - бронирования - все бронирования даты (кроме закрытой даты).
+     * Параметры: :fromDate - дата, [:from, :to) - границы суток. Используется и реактивным приложением (R2DBC).
+     */
+    public static final String SCHEDULE_DOCUMENT_SQL = """
+            WITH sc AS (
+                SELECT id, is_open FROM schedules WHERE date = :fromDate
+            ),
+            visible AS (
+                SELECT m.id, m.name, m.status
+                FROM machines m
+                WHERE NOT EXISTS (SELECT 1 FROM sc)
+                   OR EXISTS (
+                       SELECT 1 FROM sc
+                       JOIN schedule_machines sm ON sm.schedule_id = sc.id
+                       WHERE sc.is_open AND sm.machine_id = m.id
+                   )
+            ),
+            day_slots AS (
+                SELECT s.id, s.start_time, s.end_time, s.is_available, s.machine_id
+                FROM timeslots s
+                WHERE s.start_time >= :from AND s.start_time < :to
+                  AND s.machine_id IN (SELECT id FROM visible)
+            ),
+            day_bookings AS (
+                SELECT b.id, b.user_id, b.machine_id, b.slot_id, b.slot_start_time, b.state
+                FROM bookings b
+                WHERE b.slot_start_time >= :from AND b.slot_start_time < :to
+                  AND NOT EXISTS (SELECT 1 FROM sc WHERE NOT sc.is_open)
+            )
+            SELECT CAST(json_build_object(
+                -- в список попадают только доступные машинки (status = 1)
+                'machines', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', v.id, 'name', v.name, 'status', 'available', 'alreadyBlocked', false
+                    ) ORDER BY v.id)
+                    FROM visible v
+                    WHERE v.status = 1
+                ), '[]'),
+                'timeslots', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', s.id, 'slotId', s.id, 'startTime', s.start_time, 'endTime', s.end_time,
+                        'isAvailable', s.is_available, 'machineId', s.machine_id
+                    ) ORDER BY s.start_time, s.machine_id)
+                    FROM day_slots s
+                ), '[]'),
+                'bookings', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'id', b.id, 'userId', b.user_id, 'machineId', b.machine_id, 'slotId', b.slot_id,
+                        'slotStartTime', b.slot_start_time,
+                        'state', CASE b.state WHEN 1 THEN 'active' WHEN 2 THEN 'canceled' ELSE 'deleted' END
+                    ) ORDER BY b.slot_start_time, b.id)
+                    FROM day_bookings b
+                ), '[]')
+            ) AS text)
+            """;
+
+    private static final RowMapper<MachineView> MACHINE_MAPPER = (rs, rowNum) -> new MachineView(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            MachineStatus.fromCode(rs.getShort("status")));
+
+    private static final RowMapper<TimeslotView> SLOT_MAPPER = (rs, rowNum) -> new TimeslotView(
+            rs.getObject("id", UUID.class),
+            rs.getTimestamp("start_time").toLocalDateTime(),
+            rs.getTimestamp("end_time").toLocalDateTime(),
+            rs.getBoolean("is_available"),
+            rs.getObject("machine_id", UUID.class));
+
+    private static final RowMapper<BookingView> BOOKING_MAPPER = (rs, rowNum) -> new BookingView(
+            rs.getObject("id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getObject("machine_id", UUID.class),
+            rs.getObject("slot_id", UUID.class),
+            rs.getTimestamp("slot_start_time").toLocalDateTime(),
+            BookingState.fromCode(rs.getShort("state")));
+
+    /**
+     * Настройки даты вместе с выбранными машинками
+     */
+    public record ScheduleDay(UUID id, LocalDate date, boolean isOpen, Set<UUID> machineIds) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public List<MachineView> findMachines() {
+        return jdbcTemplate.query("SELECT id, name, status FROM machines ORDER BY id", MACHINE_MAPPER);
+    }
+
+    /**
+     * Настройки дат [from, to] и их машинки одним запросом
+     */
+    public List<ScheduleDay> findScheduleDays(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT sc.id, sc.date, sc.is_open,
+                       array_agg(sm.machine_id) FILTER (WHERE sm.machine_id IS NOT NULL) AS machine_ids
+                FROM schedules sc
+                LEFT JOIN schedule_machines sm ON sm.schedule_id = sc.id
+                WHERE sc.date BETWEEN :fromDate AND :toDate
+                GROUP BY sc.id, sc.date, sc.is_open
+                """,
+                new MapSqlParameterSource().addValue("fromDate", from).addValue("toDate", to),
+                (rs, rowNum) -> new ScheduleDay(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("date", LocalDate.class),
+                        rs.getBoolean("is_open"),
+                        uuidSet(rs.getArray("machine_ids"))));
+    }
+
+    /**
+     * Слоты с началом в [from, to) — диапазон по start_time, чтобы Postgres отсекал ненужные секции
+     */
+    public List<TimeslotView> findSlots(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                SELECT id, start_time, end_time, is_available, machine_id
+                FROM timeslots
+                WHERE start_time >= :from AND start_time < :to
+                """, rangeParams(from, to), SLOT_MAPPER);
+    }
+
+    /**
+     * Бронирования слотов с началом в [from, to)
+     */
+    public List<BookingView> findBookings(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                SELECT id, user_id, machine_id, slot_id, slot_start_time, state
+                FROM bookings
+                WHERE slot_start_time >= :from AND slot_start_time < :to
+                """, rangeParams(from, to), BOOKING_MAPPER);
+    }
+
+    /**
+     * Готовый JSON расписания на дату одним запросом (SCHEDULE_DOCUMENT_SQL).
+     * Возвращаются байты документа как они пришли от драйвера, без разбора и промежуточных объектов.
+     */
+    public byte[] findScheduleDocument(LocalDate date) {
+        return jdbcTemplate.queryForObject(SCHEDULE_DOCUMENT_SQL,
+                new MapSqlParameterSource()
+                        .addValue("fromDate", date)
+                        .addValue("from", date.atStartOfDay())
+                        .addValue("to", date.plusDays(1).atStartOfDay()),
+                (rs, rowNum) -> rs.getBytes(1));
+    }
+
+    private static Set<UUID> uuidSet(Array array) throws SQLException {
+        if (array == null) {
+            return Set.of();
+        }
+        return Set.of((UUID[]) array.getArray());
+    }
+
+    private static MapSqlParameterSource rangeParams(LocalDateTime from, LocalDateTime to) {
+        return new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+    }
+}
@@ -2,6 +2,7 @@ package com.laundry.booking.repository;
 
 import com.laundry.booking.entity.Timeslot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,17 +11,70 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface TimeslotRepository extends JpaRepository<Timeslot, String> {
+public interface TimeslotRepository extends JpaRepository<Timeslot, UUID> {
     
-    @Query("SELECT t FROM Timeslot t WHERE DATE(t.startTime) = :date")
-    List<Timeslot> findByDate(@Param("date") LocalDate date);
-    
-    @Query("SELECT t FROM Timeslot t WHERE t.machineId = :machineId AND DATE(t.startTime) = :date")
-    List<Timeslot> findByMachineIdAndDate(@Param("machineId") String machineId, @Param("date") LocalDate date);
+    // Диапазон по start_time (а не DATE(start_time)), чтобы Postgres отсекал ненужные секции
+    @Query("SELECT t FROM Timeslot t WHERE t.startTime >= :from AND t.startTime < :to")
+    List<Timeslot> findByStartTimeRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT t FROM Timeslot t WHERE t.machineId = :machineId AND t.startTime >= :from AND t.startTime < :to")
+    List<Timeslot> findByMachineIdAndStartTimeRange(@Param("machineId") UUID machineId,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    default List<Timeslot> findByDate(LocalDate date) {
+        return findByStartTimeRange(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    default List<Timeslot> findByMachineIdAndDate(UUID machineId, LocalDate date) {
+        return findByMachineIdAndStartTimeRange(machineId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Поиск слота с ключом секции — читает одну секцию вместо всех
+     */
+    Optional<Timeslot> findByIdAndStartTime(UUID id, LocalDateTime startTime);
     
-    Optional<Timeslot> findByMachineIdAndId(String machineId, String id);
+    Optional<Timeslot> findByMachineIdAndId(UUID machineId, UUID id);
     
-    List<Timeslot> findByMachineId(String machineId);
+    List<Timeslot> findByMachineId(UUID machineId);
+
+    /**
+     * Создать слоты по умолчанию (08:00-22:00 по 2 часа) на сегодня и daysAhead дней вперёд
+     * для доступных машинок, у которых на этот день слотов нет.
+     * Дни с настроенным администратором расписанием пропускаются.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO timeslots (id, start_time, end_time, is_available, machine_id, created_at)
+            SELECT uuid_generate_v7(),
+                   (CURRENT_DATE + days.n) + make_interval(hours => hours.h),
+                   (CURRENT_DATE + days.n) + make_interval(hours => hours.h + 2),
+                   true,
+                   m.id,
+                   CURRENT_TIMESTAMP
+            FROM machines m
+            CROSS JOIN generate_series(0, :daysAhead) AS days(n)
+            CROSS JOIN generate_series(8, 20, 2) AS hours(h)
+            WHERE m.status = 1 -- MachineStatus.AVAILABLE
+              AND NOT EXISTS (SELECT 1 FROM schedules s WHERE s.date = CURRENT_DATE + days.n)
+              AND NOT EXISTS (SELECT 1 FROM timeslots t
+                              WHERE t.machine_id = m.id
+                                AND t.start_time >= CURRENT_DATE + days.n
+                                AND t.start_time < CURRENT_DATE + days.n + 1)
+            """)
+    int generateDefaultSlots(@Param("daysAhead") int daysAhead);
+
+    /**
+     * Создать секции timeslots и bookings на месяц даты, если их ещё нет.
+     * Возвращает количество созданных секций.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT CAST(ensure_month_partition('timeslots', :date) AS INTEGER)
+                 + CAST(ensure_month_partition('bookings', :date) AS INTEGER)
+            """)
+    int ensureMonthPartitions(@Param("date") LocalDate date);
 }
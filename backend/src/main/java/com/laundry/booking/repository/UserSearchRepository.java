@@ -0,0 +1,157 @@
+package com.laundry.booking.repository;
+
+import com.laundry.booking.dto.AdminUserDto;
+import com.laundry.booking.dto.UserSearchPage;
+import com.laundry.booking.dto.UserSearchSort;
+import com.laundry.booking.entity.UserRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Поиск пользователей для админки (индексы pg_trgm, миграция V3).
+ * 1. Запрос короче 3 символов - совпадение по началу любого из полей name, full_name, room, contract
+ * 2. Иначе - подстрока в любом поле или нечёткое совпадение (word_similarity) с name / full_name
+ * 3. Пагинация по курсору (значение сортировки, id): страница читается с места остановки,
+ *    без OFFSET и без повторного чтения предыдущих страниц
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserSearchRepository {
+
+    private static final int MIN_TRIGRAM_QUERY = 3;
+
+    private static final RowMapper<AdminUserDto> USER_MAPPER = (rs, rowNum) -> new AdminUserDto(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("full_name"),
+            rs.getString("room"),
+            rs.getString("contract"),
+            UserRole.fromCode(rs.getShort("role")).getValue(),
+            rs.getBoolean("is_blocked"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserSearchPage search(String query, UserSearchSort sort, boolean descending, String cursor, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, name, email, full_name, room, contract, role, is_blocked, created_at
+                FROM users
+                WHERE TRUE
+                """);
+
+        // Шаг 1: Условие поиска
+        String q = query != null ? query.trim() : "";
+        if (!q.isEmpty()) {
+            String escaped = escapeLike(q);
+            if (q.length() < MIN_TRIGRAM_QUERY) {
+                params.addValue("pattern", escaped + "%");
+                sql.append("""
+                        AND (name ILIKE :pattern OR full_name ILIKE :pattern
+                             OR room ILIKE :pattern OR contract ILIKE :pattern)
+                        """);
+            } else {
+                params.addValue("pattern", "%" + escaped + "%");
+                params.addValue("query", q);
+                sql.append("""
+                        AND (name ILIKE :pattern OR full_name ILIKE :pattern
+                             OR room ILIKE :pattern OR contract ILIKE :pattern
+                             OR :query <% name OR :query <% full_name)
+                        """);
+            }
+        }
+
+        // Шаг 2: Продолжение с позиции курсора
+        String sortColumn = sortColumn(sort);
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            params.addValue("afterValue", after.sortValue(sort));
+            params.addValue("afterId", after.id());
+            sql.append("AND (").append(sortColumn).append(", id) ")
+                    .append(descending ? "<" : ">")
+                    .append(" (:afterValue, :afterId)\n");
+        }
+
+        // Шаг 3: Сортировка и лишняя строка, чтобы узнать, есть ли следующая страница
+        String direction = descending ? "DESC" : "ASC";
+        sql.append("ORDER BY ").append(sortColumn).append(' ').append(direction)
+                .append(", id ").append(direction).append('\n')
+                .append("LIMIT :limit");
+        params.addValue("limit", limit + 1);
+
+        List<AdminUserDto> rows = jdbcTemplate.query(sql.toString(), params, USER_MAPPER);
+        if (rows.size() <= limit) {
+            return new UserSearchPage(rows, null);
+        }
+        List<AdminUserDto> page = rows.subList(0, limit);
+        AdminUserDto last = page.get(limit - 1);
+        return new UserSearchPage(List.copyOf(page), new Cursor(sortValue(sort, last), last.getId()).encode());
+    }
+
+    private static String sortColumn(UserSearchSort sort) {
+        // Выражения совпадают с индексами из V3, NULL сортируется как пустая строка
+        return switch (sort) {
+            case NAME -> "name";
+            case FULL_NAME -> "COALESCE(full_name, '')";
+            case ROOM -> "COALESCE(room, '')";
+            case CREATED_AT -> "created_at";
+        };
+    }
+
+    private static String sortValue(UserSearchSort sort, AdminUserDto user) {
+        return switch (sort) {
+            case NAME -> user.getName();
+            case FULL_NAME -> user.getFullName() != null ? user.getFullName() : "";
+            case ROOM -> user.getRoom() != null ? user.getRoom() : "";
+            case CREATED_AT -> user.getCreatedAt().toString();
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Позиция последней строки страницы; для клиента - непрозрачная строка
+     */
+    private record Cursor(String value, UUID id) {
+
+        String encode() {
+            String raw = id + ":" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Object sortValue(UserSearchSort sort) {
+            if (sort != UserSearchSort.CREATED_AT) {
+                return value;
+            }
+            try {
+                return Timestamp.valueOf(LocalDateTime.parse(value));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sort.getParam(), e);
+            }
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                return new Cursor(raw.substring(separator + 1), UUID.fromString(raw.substring(0, separator)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
@@ -1,48 +1,122 @@
 package com.laundry.booking.service;
 
+import com.laundry.booking.admission.BookingAdmission;
+import com.laundry.booking.cache.BoundedTtlCache;
+import com.laundry.booking.cache.CachePrewarmer;
+import com.laundry.booking.cache.ReferenceDataCache;
+import com.laundry.booking.cache.UserCache;
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
+import com.laundry.booking.diagnostics.AllocationMeter;
 import com.laundry.booking.dto.AdminBookingDto;
+import com.laundry.booking.dto.AdminJobDto;
+import com.laundry.booking.dto.AdminJobResult;
 import com.laundry.booking.dto.BookingResult;
+import com.laundry.booking.dto.BulkBookingRequest;
+import com.laundry.booking.dto.BulkItemResult;
+import com.laundry.booking.dto.BulkMachineRequest;
+import com.laundry.booking.dto.BulkResult;
+import com.laundry.booking.dto.BulkUserRequest;
 import com.laundry.booking.dto.ScheduleDto;
 import com.laundry.booking.dto.ScheduleRequest;
+import com.laundry.booking.dto.UserSearchPage;
+import com.laundry.booking.dto.UserSearchSort;
 import com.laundry.booking.entity.Booking;
+import com.laundry.booking.entity.BookingState;
 import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.MachineStatus;
 import com.laundry.booking.entity.Schedule;
 import com.laundry.booking.entity.ScheduleMachine;
 import com.laundry.booking.entity.Timeslot;
 import com.laundry.booking.entity.User;
+import com.laundry.booking.entity.UserRole;
+import com.laundry.booking.ratelimit.RateLimiters;
+import com.laundry.booking.ratelimit.TokenBucketLimiter;
+import com.laundry.booking.repository.AdminJobRepository;
 import com.laundry.booking.repository.BookingRepository;
+import com.laundry.booking.repository.BulkAdminRepository;
 import com.laundry.booking.repository.MachineRepository;
 import com.laundry.booking.repository.ScheduleMachineRepository;
 import com.laundry.booking.repository.ScheduleRepository;
 import com.laundry.booking.repository.TimeslotRepository;
 import com.laundry.booking.repository.UserRepository;
+import com.laundry.booking.repository.UserSearchRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
+    private static final int DEFAULT_USER_PAGE_SIZE = 20;
+    private static final int MAX_USER_PAGE_SIZE = 100;
+    private static final int MAX_BULK_IDS = 1000;
+    private static final int RECENT_JOBS_LIMIT = 50;
+
+    private static final Map<BulkAdminRepository.Status, String> USER_BLOCK_MESSAGES = Map.of(
+            BulkAdminRepository.Status.UPDATED, "Пользователь успешно заблокирован",
+            BulkAdminRepository.Status.UNCHANGED, "Пользователь уже заблокирован",
+            BulkAdminRepository.Status.FORBIDDEN, "Невозможно заблокировать администратора",
+            BulkAdminRepository.Status.NOT_FOUND, "Пользователь не найден");
+    private static final Map<BulkAdminRepository.Status, String> USER_UNBLOCK_MESSAGES = Map.of(
+            BulkAdminRepository.Status.UPDATED, "Пользователь успешно разблокирован",
+            BulkAdminRepository.Status.UNCHANGED, "Пользователь не заблокирован",
+            BulkAdminRepository.Status.NOT_FOUND, "Пользователь не найден");
+    private static final Map<BulkAdminRepository.Status, String> MACHINE_BLOCK_MESSAGES = Map.of(
+            BulkAdminRepository.Status.UPDATED, "Машинка успешно заблокирована",
+            BulkAdminRepository.Status.UNCHANGED, "Машинка уже заблокирована",
+            BulkAdminRepository.Status.FORBIDDEN, "Машинка удаляется",
+            BulkAdminRepository.Status.NOT_FOUND, "Машинка не найдена");
+    private static final Map<BulkAdminRepository.Status, String> MACHINE_UNBLOCK_MESSAGES = Map.of(
+            BulkAdminRepository.Status.UPDATED, "Машинка успешно разблокирована",
+            BulkAdminRepository.Status.UNCHANGED, "Машинка не заблокирована",
+            BulkAdminRepository.Status.FORBIDDEN, "Машинка удаляется",
+            BulkAdminRepository.Status.NOT_FOUND, "Машинка не найдена");
+    private static final Map<BulkAdminRepository.Status, String> BOOKING_DELETE_MESSAGES = Map.of(
+            BulkAdminRepository.Status.UPDATED, "Запись успешно удалена",
+            BulkAdminRepository.Status.UNCHANGED, "Запись уже удалена",
+            BulkAdminRepository.Status.NOT_FOUND, "Запись не найдена");
+
     private final MachineRepository machineRepository;
     private final ScheduleRepository scheduleRepository;
     private final ScheduleMachineRepository scheduleMachineRepository;
     private final BookingRepository bookingRepository;
     private final TimeslotRepository timeslotRepository;
     private final UserRepository userRepository;
+    private final UserSearchRepository userSearchRepository;
+    private final BulkAdminRepository bulkAdminRepository;
+    private final AdminJobRepository adminJobRepository;
+    private final InvalidationBus invalidationBus;
+    private final MachineBookingCascade machineBookingCascade;
+    private final PlatformTransactionManager transactionManager;
+    private final AllocationMeter allocationMeter;
+    private final ObjectProvider<CachePrewarmer> cachePrewarmer;
+    private final ReferenceDataCache referenceDataCache;
+    private final UserCache userCache;
+    private final IdempotencyService idempotencyService;
+    private final RateLimiters rateLimiters;
+    private final BookingAdmission bookingAdmission;
 
     // ============= MACHINES =============
 
     /**
      * Получить все машинки
      */
+    @Transactional(readOnly = true)
     public List<Machine> getAllMachines() {
         return machineRepository.findAll();
     }
@@ -54,44 +128,99 @@ public class AdminService {
     public Machine createMachine(String name) {
         Machine machine = new Machine();
         machine.setName(name);
-        machine.setStatus("available");
-        return machineRepository.save(machine);
+        machine.setStatus(MachineStatus.AVAILABLE);
+        Machine saved = machineRepository.save(machine);
+        invalidationBus.publish(Invalidation.machines());
+        return saved;
     }
 
     /**
-     * Удалить машинку
+     * Admin Controller - deleteMachine method
+     * Последовательность вызовов:
+     * 1. Найти машину
+     * 2. Скрыть машинку (статус "deleting") и убрать её из расписаний
+     * 3. Поставить фоновую задачу удаления записей и слотов (см. AdminDeletionJob)
+     * 4. Вернуть задачу для отслеживания прогресса
+     *
+     * Записи и слоты удаляются фоновой задачей порциями в отдельных транзакциях,
+     * поэтому удаление машинки с длинной историей не блокирует запись.
      */
     @Transactional
-    public BookingResult deleteMachine(String machineId) {
+    public AdminJobResult deleteMachine(UUID machineId) {
+        // Шаг 1: Найти машину
         Machine machine = machineRepository.findById(machineId).orElse(null);
         if (machine == null) {
-            return new BookingResult(false, "Машинка не найдена");
+            return new AdminJobResult(false, "Машинка не найдена", null);
         }
 
-        // Удаляем связи с расписаниями
-        scheduleMachineRepository.deleteByMachineId(machineId);
-        
-        // Удаляем машинку (каскадно удалятся timeslots и bookings)
-        machineRepository.delete(machine);
+        // Шаг 2: Скрыть машинку
+        if (!machine.isDeleting()) {
+            machine.setStatus(MachineStatus.DELETING);
+            machineRepository.save(machine);
+            scheduleMachineRepository.deleteByMachineId(machineId);
+            invalidationBus.publish(Invalidation.machines());
+        }
+
+        // Шаг 3: Поставить задачу (повторный вызов вернёт уже поставленную)
+        AdminJobDto job = adminJobRepository.enqueue(
+                AdminJobRepository.MACHINE_DELETE, machineId, bulkAdminRepository.countMachineRows(machineId));
 
-        return new BookingResult(true, "Машинка успешно удалена");
+        // Шаг 4: Вернуть задачу
+        return new AdminJobResult(true, "Машинка скрыта и удаляется в фоне", job.getId());
     }
-    @Transactional
-    public BookingResult blockMachine(String machineId) {
+
+    /**
+     * Admin Controller - blockMachine method
+     * Последовательность вызовов:
+     * 1. Найти машину
+     * 2. Проверить, не заблокирована ли уже
+     * 3. Установить статус "blocked"
+     * 4. Если запрошено - отменить будущие активные записи и закрыть будущие слоты
+     * 5. Вернуть результат
+     *
+     * Статус фиксируется отдельной короткой транзакцией до каскада: каскад идёт частями
+     * (см. MachineBookingCascade) и не держит строку машинки всё это время.
+     * Повторная блокировка с отменой записей дорабатывает то, что осталось от прошлого каскада.
+     */
+    public BookingResult blockMachine(UUID machineId, boolean cancelFutureBookings) {
+        // Шаги 1-3: Сменить статус
+        BookingResult result = new TransactionTemplate(transactionManager)
+                .execute(status -> setMachineBlocked(machineId, cancelFutureBookings));
+        if (!result.getResult() || !cancelFutureBookings) {
+            return result;
+        }
+
+        // Шаг 4: Каскад на будущие записи и слоты
+        MachineBookingCascade.Summary summary = machineBookingCascade.cancelFutureBookings(machineId);
+
+        // Шаг 5: Вернуть результат
+        String message = "Машинка заблокирована, отменено записей: " + summary.canceledBookings();
+        if (summary.skipped() > 0) {
+            message += "; заняты другими операциями: " + summary.skipped() + " (повторите блокировку позже)";
+        }
+        return new BookingResult(true, message);
+    }
+
+    private BookingResult setMachineBlocked(UUID machineId, boolean cancelFutureBookings) {
         // Шаг 1: Найти машину
         Machine machine = machineRepository.findById(machineId).orElse(null);
         if (machine == null) {
             return new BookingResult(false, "Машинка не найдена");
         }
 
+        if (machine.isDeleting()) {
+            return new BookingResult(false, "Машинка удаляется");
+        }
+
         // Шаг 2: Проверить, не заблокирована ли уже
         if (machine.isAlreadyBlocked()) {
-            return new BookingResult(false, "Машинка уже заблокирована");
+            return new BookingResult(cancelFutureBookings, "Машинка уже заблокирована");
         }
 
         // Шаг 3: Установить статус "blocked"
-        machine.setStatus("blocked");
+        machine.setStatus(MachineStatus.BLOCKED);
         machineRepository.save(machine);
+        invalidationBus.publish(Invalidation.machines());
 
         return new BookingResult(true, "Машинка успешно заблокирована");
     }
@@ -101,19 +230,36 @@ public class AdminService {
      * Последовательность вызовов:
      * 1. Найти машину
      * 2. Установить статус "available"
-     * 3. Вернуть результат
+     * 3. Открыть будущие слоты, закрытые каскадом блокировки
+     * 4. Вернуть результат
      */
-    @Transactional
-    public BookingResult unblockMachine(String machineId) {
+    public BookingResult unblockMachine(UUID machineId) {
+        BookingResult result = new TransactionTemplate(transactionManager)
+                .execute(status -> setMachineAvailable(machineId));
+        if (!result.getResult()) {
+            return result;
+        }
+
+        // Шаг 3: Открыть слоты без активной записи (частями)
+        machineBookingCascade.reopenFutureSlots(machineId);
+
+        return result;
+    }
+
+    private BookingResult setMachineAvailable(UUID machineId) {
         // Шаг 1: Найти машину
         Machine machine = machineRepository.findById(machineId).orElse(null);
         if (machine == null) {
             return new BookingResult(false, "Машинка не найдена");
         }
+        if (machine.isDeleting()) {
+            return new BookingResult(false, "Машинка удаляется");
+        }
 
         // Шаг 2: Установить статус "available"
-        machine.setStatus("available");
+        machine.setStatus(MachineStatus.AVAILABLE);
         machineRepository.save(machine);
+        invalidationBus.publish(Invalidation.machines());
 
         return new BookingResult(true, "Машинка успешно разблокирована");
     }
@@ -123,6 +269,7 @@ public class AdminService {
     /**
      * Получить все расписания
      */
+    @Transactional(readOnly = true)
     public List<ScheduleDto> getAllSchedules() {
         List<Schedule> schedules = scheduleRepository.findAll();
         List<ScheduleDto> result = new ArrayList<>();
@@ -136,7 +283,7 @@ public class AdminService {
 
             // Получаем машинки для этого расписания
             List<ScheduleMachine> scheduleMachines = scheduleMachineRepository.findByScheduleId(schedule.getId());
-            List<String> machineIds = scheduleMachines.stream()
+            List<UUID> machineIds = scheduleMachines.stream()
                     .map(ScheduleMachine::getMachineId)
                     .collect(Collectors.toList());
             dto.setMachineIds(machineIds);
@@ -160,6 +307,12 @@ public class AdminService {
                     return newSchedule;
                 });
 
+        // Расписание в процессе удаления не редактируется: задача удалит и новые слоты
+        if (schedule.getId() != null
+                && adminJobRepository.findActive(AdminJobRepository.SCHEDULE_DELETE, schedule.getId()).isPresent()) {
+            throw new IllegalStateException("Расписание удаляется");
+        }
+
         // Сначала сохраняем schedule, чтобы получить id (для нового)
         schedule = scheduleRepository.saveAndFlush(schedule);
         
@@ -173,7 +326,7 @@ public class AdminService {
 
         // Создаём новые связи
         if (request.getMachineIds() != null) {
-            for (String machineId : request.getMachineIds()) {
+            for (UUID machineId : request.getMachineIds()) {
                 ScheduleMachine sm = new ScheduleMachine();
                 sm.setScheduleId(schedule.getId());
                 sm.setMachineId(machineId);
@@ -191,6 +344,8 @@ public class AdminService {
             }
         }
 
+        invalidationBus.publish(Invalidation.schedule(schedule.getDate()));
+
         // Возвращаем DTO
         ScheduleDto dto = new ScheduleDto();
         dto.setId(schedule.getId());
@@ -208,9 +363,12 @@ public class AdminService {
      * @param machineIds список ID машинок
      * @param timeSlots список временных слотов в формате "HH:mm-HH:mm" или null для всех слотов по умолчанию
      */
-    private void createTimeslotsForDate(LocalDate date, List<String> machineIds, List<String> timeSlots) {
+    private void createTimeslotsForDate(LocalDate date, List<UUID> machineIds, List<String> timeSlots) {
+        // Дата может быть дальше заранее созданных месячных секций
+        timeslotRepository.ensureMonthPartitions(date);
+
         // Сначала удаляем существующие слоты для этой даты и этих машинок
-        for (String machineId : machineIds) {
+        for (UUID machineId : machineIds) {
             List<Timeslot> existingSlots = timeslotRepository.findByMachineIdAndDate(machineId, date);
             timeslotRepository.deleteAll(existingSlots);
         }
@@ -218,7 +376,7 @@ public class AdminService {
         // Если временные слоты не указаны, создаем все по умолчанию
         if (timeSlots == null || timeSlots.isEmpty()) {
             int[][] defaultSlots = {{8, 10}, {10, 12}, {12, 14}, {14, 16}, {16, 18}, {18, 20}, {20, 22}};
-            for (String machineId : machineIds) {
+            for (UUID machineId : machineIds) {
                 for (int[] slot : defaultSlots) {
                     LocalDateTime startTime = LocalDateTime.of(date, LocalTime.of(slot[0], 0));
                     LocalDateTime endTime = LocalDateTime.of(date, LocalTime.of(slot[1], 0));
@@ -233,7 +391,7 @@ public class AdminService {
             }
         } else {
             // Создаем только выбранные слоты
-            for (String machineId : machineIds) {
+            for (UUID machineId : machineIds) {
                 for (String timeSlot : timeSlots) {
                     // Парсим формат "08:00-10:00"
                     String[] parts = timeSlot.split("-");
@@ -262,22 +420,93 @@ public class AdminService {
     }
 
     /**
-     * Удалить расписание
+     * Admin Controller - deleteSchedule method
+     * Последовательность вызовов:
+     * 1. Найти расписание
+     * 2. Закрыть запись на дату (расписание сразу скрывается)
+     * 3. Поставить фоновую задачу удаления слотов и записей даты (см. AdminDeletionJob)
+     * 4. Вернуть задачу для отслеживания прогресса
      */
     @Transactional
-    public BookingResult deleteSchedule(String scheduleId) {
+    public AdminJobResult deleteSchedule(UUID scheduleId) {
+        // Шаг 1: Найти расписание
         Schedule schedule = scheduleRepository.findById(scheduleId).orElse(null);
         if (schedule == null) {
-            return new BookingResult(false, "Расписание не найдено");
+            return new AdminJobResult(false, "Расписание не найдено", null);
         }
 
-        // Удаляем связи с машинками
-        scheduleMachineRepository.deleteByScheduleId(scheduleId);
+        // Шаг 2: Закрыть запись на дату
+        if (Boolean.TRUE.equals(schedule.getIsOpen())) {
+            schedule.setIsOpen(false);
+            scheduleRepository.save(schedule);
+            invalidationBus.publish(Invalidation.schedule(schedule.getDate()));
+        }
+
+        // Шаг 3: Поставить задачу (повторный вызов вернёт уже поставленную)
+        AdminJobDto job = adminJobRepository.enqueue(
+                AdminJobRepository.SCHEDULE_DELETE, scheduleId, bulkAdminRepository.countScheduleRows(scheduleId));
+
+        // Шаг 4: Вернуть задачу
+        return new AdminJobResult(true, "Расписание скрыто и удаляется в фоне", job.getId());
+    }
+
+    // ============= JOBS =============
+
+    /**
+     * Последние фоновые задачи админки
+     */
+    @Transactional(readOnly = true)
+    public List<AdminJobDto> getRecentJobs() {
+        return adminJobRepository.findRecent(RECENT_JOBS_LIMIT);
+    }
 
-        // Удаляем расписание
-        scheduleRepository.delete(schedule);
+    /**
+     * Прогресс фоновой задачи
+     */
+    @Transactional(readOnly = true)
+    public AdminJobDto getJob(UUID jobId) {
+        return adminJobRepository.findById(jobId).orElse(null);
+    }
 
-        return new BookingResult(true, "Расписание успешно удалено");
+    // ============= STATS =============
+
+    /**
+     * Выделения памяти на загрузку расписания по путям чтения (schedule.projection, schedule.entity, ...)
+     */
+    public Map<String, AllocationMeter.Snapshot> getAllocationStats() {
+        return allocationMeter.snapshot();
+    }
+
+    /**
+     * Итог последнего прогрева кэшей или null, если прогрева ещё не было (или он выключен)
+     */
+    public CachePrewarmer.Report getPrewarmReport() {
+        CachePrewarmer prewarmer = cachePrewarmer.getIfAvailable();
+        return prewarmer != null ? prewarmer.getLastReport() : null;
+    }
+
+    /**
+     * Счётчики кэшей справочных данных (машинки, настройки дат), пользователей и ключей идемпотентности
+     */
+    public Map<String, BoundedTtlCache.Stats> getCacheStats() {
+        Map<String, BoundedTtlCache.Stats> stats = new TreeMap<>(referenceDataCache.stats());
+        stats.putAll(userCache.stats());
+        stats.put("idempotencyKeys", idempotencyService.stats());
+        return stats;
+    }
+
+    /**
+     * Разрешённые и отклонённые ограничителем частоты запросы по правилам
+     */
+    public Map<String, TokenBucketLimiter.Stats> getRateLimitStats() {
+        return rateLimiters.stats();
+    }
+
+    /**
+     * Счётчики очередей допуска записей
+     */
+    public BookingAdmission.Stats getAdmissionStats() {
+        return bookingAdmission.stats();
     }
 
     // ============= BOOKINGS =============
@@ -286,7 +515,7 @@ public class AdminService {
      * Удалить бронирование
      */
     @Transactional
-    public BookingResult deleteBooking(String bookingId) {
+    public BookingResult deleteBooking(UUID bookingId) {
         // Шаг 1: Найти бронирование
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
@@ -294,14 +523,18 @@ public class AdminService {
         }
 
         // Шаг 2: Установить состояние "deleted"
-        booking.setState("deleted");
+        boolean wasActive = booking.getState() == BookingState.ACTIVE;
+        booking.setState(BookingState.DELETED);
         bookingRepository.save(booking);
 
-        // Шаг 3: Освободить слот
-        Timeslot slot = timeslotRepository.findById(booking.getSlotId()).orElse(null);
+        // Шаг 3: Освободить слот (только у активной записи: слот отменённой уже свободен или занят другой записью)
+        Timeslot slot = wasActive
+                ? timeslotRepository.findByIdAndStartTime(booking.getSlotId(), booking.getSlotStartTime()).orElse(null)
+                : null;
         if (slot != null) {
             slot.markAvailable();
             timeslotRepository.save(slot);
+            invalidationBus.publish(Invalidation.slot(slot, true));
         }
 
         return new BookingResult(true, "Запись успешно удалена");
@@ -311,16 +544,34 @@ public class AdminService {
      * Admin Controller - getAllUsers method
      * Возвращает список всех пользователей
      */
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
+    /**
+     * Admin Controller - searchUsers method
+     * Поиск пользователей по логину, ФИО, комнате и договору с постраничным выводом
+     * 1. Проверить параметры сортировки и размер страницы
+     * 2. Найти страницу, начиная с позиции курсора
+     */
+    @Transactional(readOnly = true)
+    public UserSearchPage searchUsers(String query, String sort, String direction, String cursor, Integer limit) {
+        // Шаг 1: Проверить параметры
+        UserSearchSort sortField = UserSearchSort.fromParam(sort);
+        boolean descending = "desc".equalsIgnoreCase(direction);
+        int pageSize = limit == null ? DEFAULT_USER_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_USER_PAGE_SIZE));
+
+        // Шаг 2: Одна выборка по индексам, не больше pageSize + 1 строк
+        return userSearchRepository.search(query, sortField, descending, cursor, pageSize);
+    }
+
     /**
      * Admin Controller - blockUser method
      * Блокирует пользователя
      */
     @Transactional
-    public BookingResult blockUser(String userId) {
+    public BookingResult blockUser(UUID userId) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) {
             return new BookingResult(false, "Пользователь не найден");
@@ -331,12 +582,13 @@ public class AdminService {
         }
 
         // Нельзя блокировать админа
-        if ("admin".equals(user.getRole())) {
+        if (user.getRole() == UserRole.ADMIN) {
             return new BookingResult(false, "Невозможно заблокировать администратора");
         }
 
         user.setIsBlocked(true);
         userRepository.save(user);
+        invalidationBus.publish(Invalidation.user(userId));
 
         return new BookingResult(true, "Пользователь успешно заблокирован");
     }
@@ -346,7 +598,7 @@ public class AdminService {
      * Разблокирует пользователя
      */
     @Transactional
-    public BookingResult unblockUser(String userId) {
+    public BookingResult unblockUser(UUID userId) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) {
             return new BookingResult(false, "Пользователь не найден");
@@ -358,6 +610,7 @@ public class AdminService {
 
         user.setIsBlocked(false);
         userRepository.save(user);
+        invalidationBus.publish(Invalidation.user(userId));
 
         return new BookingResult(true, "Пользователь успешно разблокирован");
     }
@@ -366,6 +619,7 @@ public class AdminService {
      * Admin Controller - getAllBookingsWithDetails method
      * Возвращает все бронирования с деталями
      */
+    @Transactional(readOnly = true)
     public List<AdminBookingDto> getAllBookingsWithDetails() {
         List<Booking> bookings = bookingRepository.findAll();
         List<AdminBookingDto> result = new ArrayList<>();
@@ -376,7 +630,7 @@ public class AdminService {
             dto.setUserId(booking.getUserId());
             dto.setMachineId(booking.getMachineId());
             dto.setSlotId(booking.getSlotId());
-            dto.setState(booking.getState());
+            dto.setState(booking.getState().getValue());
             dto.setCreatedAt(booking.getCreatedAt());
 
             // Получаем данные пользователя
@@ -394,7 +648,7 @@ public class AdminService {
             }
 
             // Получаем данные слота
-            Timeslot slot = timeslotRepository.findById(booking.getSlotId()).orElse(null);
+            Timeslot slot = timeslotRepository.findByIdAndStartTime(booking.getSlotId(), booking.getSlotStartTime()).orElse(null);
             if (slot != null) {
                 dto.setSlotStartTime(slot.getStartTime());
                 dto.setSlotEndTime(slot.getEndTime());
@@ -405,4 +659,149 @@ public class AdminService {
 
         return result;
     }
+
+    // ============= BULK =============
+
+    /**
+     * Admin Controller - blockUsers method
+     * Последовательность вызовов:
+     * 1. Проверить выбор пользователей (список ID или диапазон комнат)
+     * 2. Заблокировать всех одним UPDATE (администраторы пропускаются)
+     * 3. Вернуть исход по каждому пользователю
+     */
+    @Transactional
+    public BulkResult blockUsers(BulkUserRequest request) {
+        return setUsersBlocked(request, true);
+    }
+
+    /**
+     * Admin Controller - unblockUsers method
+     * Последовательность вызовов как у blockUsers
+     */
+    @Transactional
+    public BulkResult unblockUsers(BulkUserRequest request) {
+        return setUsersBlocked(request, false);
+    }
+
+    private BulkResult setUsersBlocked(BulkUserRequest request, boolean blocked) {
+        // Шаг 1: Проверить выбор
+        List<BulkAdminRepository.Outcome> outcomes;
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            if (request.getUserIds().size() > MAX_BULK_IDS) {
+                return BulkResult.rejected("Не больше " + MAX_BULK_IDS + " пользователей за раз");
+            }
+            // Шаг 2: Один UPDATE на весь список
+            outcomes = bulkAdminRepository.setUsersBlocked(request.getUserIds(), blocked);
+        } else if (request.getRoomFrom() != null && request.getRoomTo() != null) {
+            if (request.getRoomFrom() > request.getRoomTo()) {
+                return BulkResult.rejected("Неверный диапазон комнат");
+            }
+            outcomes = bulkAdminRepository.setUsersBlockedByRoomRange(request.getRoomFrom(), request.getRoomTo(), blocked);
+        } else {
+            return BulkResult.rejected("Укажите userIds или диапазон комнат roomFrom-roomTo");
+        }
+        // Массовая операция сбрасывает все снимки пользователей одним сообщением
+        if (outcomes.stream().anyMatch(o -> o.status() == BulkAdminRepository.Status.UPDATED)) {
+            invalidationBus.publish(Invalidation.users());
+        }
+
+        // Шаг 3: Исход по каждому пользователю
+        return toBulkResult(outcomes, blocked ? USER_BLOCK_MESSAGES : USER_UNBLOCK_MESSAGES);
+    }
+
+    /**
+     * Admin Controller - blockMachines method
+     * Последовательность вызовов:
+     * 1. Проверить список машинок
+     * 2. Установить статус "blocked" одним UPDATE
+     * 3. Вернуть исход по каждой машинке
+     */
+    @Transactional
+    public BulkResult blockMachines(BulkMachineRequest request) {
+        return setMachinesStatus(request, MachineStatus.BLOCKED, MACHINE_BLOCK_MESSAGES);
+    }
+
+    /**
+     * Admin Controller - unblockMachines method
+     * Последовательность вызовов как у blockMachines, статус "available";
+     * затем у разблокированных машинок открываются будущие слоты, закрытые каскадом блокировки.
+     * UPDATE статусов - один оператор, поэтому отдельная транзакция вокруг него не нужна
+     */
+    public BulkResult unblockMachines(BulkMachineRequest request) {
+        BulkResult result = setMachinesStatus(request, MachineStatus.AVAILABLE, MACHINE_UNBLOCK_MESSAGES);
+        if (result.getItems() != null) {
+            result.getItems().stream()
+                    .filter(item -> Boolean.TRUE.equals(item.getResult()))
+                    .forEach(item -> machineBookingCascade.reopenFutureSlots(item.getId()));
+        }
+        return result;
+    }
+
+    private BulkResult setMachinesStatus(BulkMachineRequest request, MachineStatus status,
+                                         Map<BulkAdminRepository.Status, String> messages) {
+        // Шаг 1: Проверить список
+        if (request.getMachineIds() == null || request.getMachineIds().isEmpty()) {
+            return BulkResult.rejected("Укажите machineIds");
+        }
+        if (request.getMachineIds().size() > MAX_BULK_IDS) {
+            return BulkResult.rejected("Не больше " + MAX_BULK_IDS + " машинок за раз");
+        }
+
+        // Шаг 2: Один UPDATE на весь список
+        List<BulkAdminRepository.Outcome> outcomes = bulkAdminRepository.setMachinesStatus(request.getMachineIds(), status.getCode());
+        if (outcomes.stream().anyMatch(o -> o.status() == BulkAdminRepository.Status.UPDATED)) {
+            invalidationBus.publish(Invalidation.machines());
+        }
+
+        // Шаг 3: Исход по каждой машинке
+        return toBulkResult(outcomes, messages);
+    }
+
+    /**
+     * Admin Controller - deleteBookings method
+     * Последовательность вызовов:
+     * 1. Проверить выбор бронирований (список ID или машинка и даты)
+     * 2. Установить состояние "deleted" и освободить слоты активных записей одним запросом
+     * 3. Сбросить кэш расписания на затронутые даты
+     * 4. Вернуть исход по каждому бронированию
+     */
+    @Transactional
+    public BulkResult deleteBookings(BulkBookingRequest request) {
+        // Шаг 1: Проверить выбор
+        List<BulkAdminRepository.Outcome> outcomes;
+        if (request.getBookingIds() != null && !request.getBookingIds().isEmpty()) {
+            if (request.getBookingIds().size() > MAX_BULK_IDS) {
+                return BulkResult.rejected("Не больше " + MAX_BULK_IDS + " записей за раз");
+            }
+            // Шаг 2: Удаление и освобождение слотов
+            outcomes = bulkAdminRepository.deleteBookings(request.getBookingIds());
+        } else if (request.getMachineId() != null && request.getDateFrom() != null && request.getDateTo() != null) {
+            if (request.getDateFrom().isAfter(request.getDateTo())) {
+                return BulkResult.rejected("Неверный диапазон дат");
+            }
+            outcomes = bulkAdminRepository.deleteBookingsByMachineAndDates(
+                    request.getMachineId(), request.getDateFrom(), request.getDateTo());
+        } else {
+            return BulkResult.rejected("Укажите bookingIds или machineId с датами dateFrom-dateTo");
+        }
+
+        // Шаг 3: Сбросить кэш расписания
+        outcomes.stream()
+                .filter(o -> o.slotStartTime() != null)
+                .map(o -> o.slotStartTime().toLocalDate())
+                .distinct()
+                .forEach(date -> invalidationBus.publish(Invalidation.date(date)));
+
+        // Шаг 4: Исход по каждому бронированию
+        return toBulkResult(outcomes, BOOKING_DELETE_MESSAGES);
+    }
+
+    private BulkResult toBulkResult(List<BulkAdminRepository.Outcome> outcomes,
+                                    Map<BulkAdminRepository.Status, String> messages) {
+        List<BulkItemResult> items = outcomes.stream()
+                .map(o -> new BulkItemResult(o.id(), o.status() == BulkAdminRepository.Status.UPDATED, messages.get(o.status())))
+                .toList();
+        int succeeded = (int) items.stream().filter(BulkItemResult::getResult).count();
+        return new BulkResult(true, "Выполнено: " + succeeded + " из " + items.size(), succeeded, items);
+    }
 }
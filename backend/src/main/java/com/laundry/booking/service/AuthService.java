@@ -1,8 +1,13 @@
 package com.laundry.booking.service;
 
+import com.laundry.booking.cache.UserCache;
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
 import com.laundry.booking.dto.LoginRequest;
 import com.laundry.booking.dto.LoginResponse;
+import com.laundry.booking.dto.UserView;
 import com.laundry.booking.entity.User;
+import com.laundry.booking.entity.UserRole;
 import com.laundry.booking.repository.UserRepository;
 import com.laundry.booking.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +21,8 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserCache userCache;
+    private final InvalidationBus invalidationBus;
 
     /**
      * Auth Controller - login method
@@ -25,10 +32,9 @@ public class AuthService {
      * 3. Вернуть результат
      */
     public LoginResponse login(LoginRequest request) {
-        // Шаг 1: Найти пользователя
-        User user = userRepository.findByName(request.getUsername())
-                .orElse(null);
-        
+        // Шаг 1: Найти пользователя (снимок из кэша)
+        UserView user = userCache.byName(request.getUsername());
+
         if (user == null) {
             return new LoginResponse(false, "Пользователь не найден", null, null);
         }
@@ -44,9 +50,9 @@ public class AuthService {
         }
 
         // Шаг 3: Сгенерировать JWT токен
-        String token = jwtUtil.generateToken(user.getName(), user.getRole());
+        String token = jwtUtil.generateToken(user.name(), user.role().getValue());
 
-        return new LoginResponse(true, "Вход выполнен успешно", token, user.getRole());
+        return new LoginResponse(true, "Вход выполнен успешно", token, user.role().getValue());
     }
 
     /**
@@ -54,7 +60,7 @@ public class AuthService {
      */
     public LoginResponse register(String username, String password, String email, String fullName, String room, String contract) {
         // Проверка существования пользователя
-        if (userRepository.findByName(username).isPresent()) {
+        if (userCache.byName(username) != null) {
             return new LoginResponse(false, "Пользователь с таким логином уже существует", null, null);
         }
 
@@ -62,7 +68,7 @@ public class AuthService {
         User newUser = new User();
         newUser.setName(username);
         newUser.setPasswordHash(passwordEncoder.encode(password));
-        newUser.setRole("user");
+        newUser.setRole(UserRole.USER);
         newUser.setIsBlocked(false);
         newUser.setEmail(email);
         newUser.setFullName(fullName);
@@ -70,24 +76,25 @@ public class AuthService {
         newUser.setContract(contract);
 
         userRepository.save(newUser);
+        invalidationBus.publish(Invalidation.user(newUser.getId()));
 
         // Генерация токена для автоматического входа
-        String token = jwtUtil.generateToken(newUser.getName(), newUser.getRole());
+        String token = jwtUtil.generateToken(newUser.getName(), newUser.getRole().getValue());
 
-        return new LoginResponse(true, "Registration successful", token, newUser.getRole());
+        return new LoginResponse(true, "Registration successful", token, newUser.getRole().getValue());
     }
 
     /**
      * Получить пользователя по имени
      */
-    public User getUser(String username) {
-        return userRepository.findByName(username).orElse(null);
+    public UserView getUser(String username) {
+        return userCache.byName(username);
     }
 
     /**
      * Проверка пароля
      */
-    private boolean verifyPassword(User user, String password) {
-        return passwordEncoder.matches(password, user.getPasswordHash());
+    private boolean verifyPassword(UserView user, String password) {
+        return passwordEncoder.matches(password, user.passwordHash());
     }
 }
@@ -1,76 +1,124 @@
 package com.laundry.booking.service;
 
+import com.laundry.booking.admission.BookingAdmission;
+import com.laundry.booking.cache.SlotLocator;
+import com.laundry.booking.cache.UserCache;
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
 import com.laundry.booking.dto.BookingResult;
 import com.laundry.booking.dto.UserBookingDto;
 import com.laundry.booking.entity.Booking;
+import com.laundry.booking.entity.BookingState;
 import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.Notification;
 import com.laundry.booking.entity.Timeslot;
-import com.laundry.booking.entity.User;
 import com.laundry.booking.repository.BookingRepository;
 import com.laundry.booking.repository.MachineRepository;
+import com.laundry.booking.repository.NotificationRepository;
 import com.laundry.booking.repository.TimeslotRepository;
-import com.laundry.booking.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    // Лимит будущих активных записей пользователя и сообщения создания записи (общие с очередями допуска)
+    public static final int MAX_ACTIVE_BOOKINGS = 2;
+    public static final String LIMIT_REACHED = "Вы достигли лимита активных записей (максимум " + MAX_ACTIVE_BOOKINGS + ")";
+    public static final String SLOT_UNAVAILABLE = "Слот недоступен";
+    public static final String BOOKING_CREATED = "Запись успешно создана";
+
     private final BookingRepository bookingRepository;
     private final TimeslotRepository timeslotRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final MachineRepository machineRepository;
+    private final NotificationRepository notificationRepository;
+    private final InvalidationBus invalidationBus;
+    private final BookingAdmission bookingAdmission;
+    private final IdempotencyService idempotencyService;
+    private final SlotLocator slotLocator;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * Booking Controller - createBooking method
+     * С Idempotency-Key повтор вернёт исход первого выполнения: при очередях допуска ключ занимается
+     * в транзакции пачки (IdempotencyService.executeQueued), иначе - в транзакции запроса вместе с записью.
+     */
+    public BookingResult createBooking(UUID userId, UUID machineId, UUID slotId, String idempotencyKey, int requestHash) {
+        if (bookingAdmission.isEnabled()) {
+            return idempotencyService.executeQueued(idempotencyKey, userId, IdempotencyService.Operation.CREATE,
+                    requestHash, claim -> createBooking(userId, machineId, slotId, claim), BookingAdmission::isRetryable);
+        }
+        return idempotencyService.execute(idempotencyKey, userId, IdempotencyService.Operation.CREATE,
+                requestHash, () -> createBooking(userId, machineId, slotId, null));
+    }
+
+    /**
+     * Создание записи
      * Последовательность вызовов:
      * 1. Проверить права пользователя
-     * 2. Проверить доступность слота
-     * 3. Создать бронирование
+     * 2. При booking.admission.enabled - передать команду в очередь (дата, машинка) и дождаться её решения
+     * 3. Иначе в транзакции запроса: проверить доступность слота, создать бронирование
      * 4. Вернуть результат
      */
-    @Transactional
-    public BookingResult createBooking(String userId, String machineId, String slotId) {
-        // Шаг 1.1: Проверка прав пользователя
+    private BookingResult createBooking(UUID userId, UUID machineId, UUID slotId, IdempotencyService.Claim claim) {
+        // Шаг 1: Проверка прав пользователя (вне транзакции: соединение не держится, пока команда в очереди)
         if (!canUserBook(userId)) {
-            return new BookingResult(false, "Вы достигли лимита активных записей (максимум 2)");
+            return new BookingResult(false, LIMIT_REACHED);
         }
 
-        // Шаг 1.2: Проверка доступности слота
+        // Шаг 2: Очередь допуска
+        if (bookingAdmission.isEnabled()) {
+            return bookingAdmission.submit(userId, machineId, slotId, claim);
+        }
+
+        // Шаг 3: Запись в транзакции запроса
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> createBookingInTransaction(userId, machineId, slotId));
+    }
+
+    private BookingResult createBookingInTransaction(UUID userId, UUID machineId, UUID slotId) {
+        // Шаг 3.1: Проверка доступности слота
         if (!isSlotAvailable(machineId, slotId)) {
-            return new BookingResult(false, "Слот недоступен");
+            return new BookingResult(false, SLOT_UNAVAILABLE);
         }
 
-        // Шаг 1.3: Повторная проверка лимита внутри транзакции (защита от race condition)
+        // Шаг 3.2: Повторная проверка лимита внутри транзакции (защита от race condition)
         // Считаем только будущие записи
         long futureBookings = countFutureActiveBookings(userId);
-        if (futureBookings >= 2) {
-            return new BookingResult(false, "Вы достигли лимита активных записей (максимум 2)");
+        if (futureBookings >= MAX_ACTIVE_BOOKINGS) {
+            return new BookingResult(false, LIMIT_REACHED);
         }
 
-        // Шаг 2: Создание бронирования
+        Timeslot slot = slotLocator.findSlot(slotId).orElse(null);
+        if (slot == null) {
+            return new BookingResult(false, SLOT_UNAVAILABLE);
+        }
+
+        // Шаг 3.3: Создание бронирования
         Booking booking = new Booking();
         booking.setUserId(userId);
         booking.setMachineId(machineId);
-        booking.setSlotId(slotId);
-        booking.setState("active");
+        booking.setSlot(slot);
+        booking.setState(BookingState.ACTIVE);
         
         bookingRepository.save(booking);
 
         // Зарезервировать слот
-        Timeslot slot = timeslotRepository.findById(slotId).orElse(null);
-        if (slot != null) {
-            slot.reserve();
-            timeslotRepository.save(slot);
-        }
+        slot.reserve();
+        timeslotRepository.save(slot);
+        invalidationBus.publish(Invalidation.slot(slot, false));
 
-        return new BookingResult(true, "Запись успешно создана");
+        return new BookingResult(true, BOOKING_CREATED);
     }
 
     /**
@@ -82,7 +130,7 @@ public class BookingService {
      * 4. Вернуть результат
      */
     @Transactional
-    public BookingResult cancelBooking(String bookingId, String userId) {
+    public BookingResult cancelBooking(UUID bookingId, UUID userId) {
         // Шаг 1: Проверить права на отмену
         if (!canCancel(bookingId, userId)) {
             return new BookingResult(false, "Невозможно отменить эту запись");
@@ -94,14 +142,15 @@ public class BookingService {
             return new BookingResult(false, "Запись не найдена");
         }
 
-        booking.setState("canceled");
+        booking.setState(BookingState.CANCELED);
         bookingRepository.save(booking);
 
         // Шаг 3: Освободить слот
-        Timeslot slot = timeslotRepository.findById(booking.getSlotId()).orElse(null);
+        Timeslot slot = findBookedSlot(booking);
         if (slot != null) {
             slot.free();
             timeslotRepository.save(slot);
+            invalidationBus.publish(Invalidation.slot(slot, true));
         }
 
         return new BookingResult(true, "Запись успешно отменена");
@@ -119,7 +168,7 @@ public class BookingService {
      * 7. Вернуть результат
      */
     @Transactional
-    public BookingResult rescheduleBooking(String bookingId, String newSlotId, String userId) {
+    public BookingResult rescheduleBooking(UUID bookingId, UUID newSlotId, UUID userId) {
         // Шаг 1: Проверить возможность переноса
         if (!canReschedule(bookingId, newSlotId, userId)) {
             return new BookingResult(false, "Невозможно перенести эту запись");
@@ -131,25 +180,28 @@ public class BookingService {
             return new BookingResult(false, "Запись не найдена");
         }
 
-        // Шаг 3: Получить ID старого слота
-        String oldSlotId = booking.getSlotId();
+        Timeslot newSlot = slotLocator.findSlot(newSlotId).orElse(null);
+        if (newSlot == null) {
+            return new BookingResult(false, "Невозможно перенести эту запись");
+        }
+
+        // Шаг 3: Получить старый слот
+        Timeslot oldSlot = findBookedSlot(booking);
 
         // Шаг 4: Освободить старый слот
-        Timeslot oldSlot = timeslotRepository.findById(oldSlotId).orElse(null);
         if (oldSlot != null) {
             oldSlot.free();
             timeslotRepository.save(oldSlot);
+            invalidationBus.publish(Invalidation.slot(oldSlot, true));
         }
 
         // Шаг 5: Зарезервировать новый слот
-        Timeslot newSlot = timeslotRepository.findById(newSlotId).orElse(null);
-        if (newSlot != null) {
-            newSlot.reserve();
-            timeslotRepository.save(newSlot);
-        }
+        newSlot.reserve();
+        timeslotRepository.save(newSlot);
+        invalidationBus.publish(Invalidation.slot(newSlot, false));
 
-        // Шаг 6: Установить новый слот
-        booking.setSlot(newSlotId);
+        // Шаг 6: Установить новый слот (строка может переехать в секцию другого месяца)
+        booking.setSlot(newSlot);
         bookingRepository.save(booking);
 
         return new BookingResult(true, "Запись успешно перенесена");
@@ -158,44 +210,41 @@ public class BookingService {
     /**
      * Проверка прав пользователя на бронирование
      */
-    public boolean canUserBook(String userId) {
-        User user = userRepository.findById(userId).orElse(null);
-        if (user == null) {
-            return false;
-        }
-        
-        // Проверить, не заблокирован ли пользователь
-        if (user.isBlocked()) {
+    public boolean canUserBook(UUID userId) {
+        // Проверить, что пользователь есть и не заблокирован (снимок из кэша, без запроса к БД)
+        if (userCache.isBlocked(userId)) {
             return false;
         }
 
         // Проверить количество будущих активных бронирований (прошедшие не считаются)
         long futureBookings = countFutureActiveBookings(userId);
-        return futureBookings < 2; // Максимум 2 будущих бронирования
+        return futureBookings < MAX_ACTIVE_BOOKINGS;
     }
 
     /**
      * Подсчёт будущих активных бронирований пользователя
      */
-    private long countFutureActiveBookings(String userId) {
-        List<Booking> activeBookings = bookingRepository.findByUserIdAndState(userId, "active");
+    private long countFutureActiveBookings(UUID userId) {
+        // Слот считается будущим, если его конец ещё не наступил
         LocalDateTime now = LocalDateTime.now();
-        
-        return activeBookings.stream()
-            .filter(booking -> {
-                Timeslot slot = timeslotRepository.findById(booking.getSlotId()).orElse(null);
-                if (slot == null) return false;
-                // Слот считается будущим, если его конец ещё не наступил
-                return slot.getEndTime() != null && slot.getEndTime().isAfter(now);
-            })
-            .count();
+        return bookingRepository.countUnfinished(userId, BookingState.ACTIVE, now, now.minusDays(1));
+    }
+
+    /**
+     * Слот бронирования (поиск по ключу секции, если он известен)
+     */
+    private Timeslot findBookedSlot(Booking booking) {
+        if (booking.getSlotStartTime() != null) {
+            return timeslotRepository.findByIdAndStartTime(booking.getSlotId(), booking.getSlotStartTime()).orElse(null);
+        }
+        return slotLocator.findSlot(booking.getSlotId()).orElse(null);
     }
 
     /**
-     * Проверка доступности слота
+     * Проверка доступности слота (слот и его записи читаются из секции времени слота)
      */
-    public boolean isSlotAvailable(String machineId, String slotId) {
-        Timeslot slot = timeslotRepository.findById(slotId).orElse(null);
+    public boolean isSlotAvailable(UUID machineId, UUID slotId) {
+        Timeslot slot = slotLocator.findSlot(slotId).orElse(null);
         if (slot == null) {
             return false;
         }
@@ -211,13 +260,13 @@ public class BookingService {
         }
 
         // Проверить, что слот не занят активным бронированием
-        return !bookingRepository.existsBySlotIdAndState(slotId, "active");
+        return !bookingRepository.existsBySlotIdAndSlotStartTimeAndState(slotId, slot.getStartTime(), BookingState.ACTIVE);
     }
 
     /**
      * Проверка возможности отмены бронирования
      */
-    private boolean canCancel(String bookingId, String userId) {
+    private boolean canCancel(UUID bookingId, UUID userId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             return false;
@@ -229,13 +278,13 @@ public class BookingService {
         }
 
         // Можно отменить только активное бронирование
-        return "active".equals(booking.getState());
+        return booking.getState() == BookingState.ACTIVE;
     }
 
     /**
      * Проверка возможности переноса бронирования
      */
-    private boolean canReschedule(String bookingId, String newSlotId, String userId) {
+    private boolean canReschedule(UUID bookingId, UUID newSlotId, UUID userId) {
         Booking booking = bookingRepository.findById(bookingId).orElse(null);
         if (booking == null) {
             return false;
@@ -247,26 +296,27 @@ public class BookingService {
         }
 
         // Можно перенести только активное бронирование
-        if (!"active".equals(booking.getState())) {
+        if (booking.getState() != BookingState.ACTIVE) {
             return false;
         }
 
         // Проверить доступность нового слота
-        Timeslot newSlot = timeslotRepository.findById(newSlotId).orElse(null);
+        Timeslot newSlot = slotLocator.findSlot(newSlotId).orElse(null);
         if (newSlot == null || !newSlot.getIsAvailable()) {
             return false;
         }
 
         // Проверить, что новый слот не занят
-        return !bookingRepository.existsBySlotIdAndState(newSlotId, "active");
+        return !bookingRepository.existsBySlotIdAndSlotStartTimeAndState(newSlotId, newSlot.getStartTime(), BookingState.ACTIVE);
     }
 
     /**
      * Получить все активные записи пользователя с информацией о машинках и слотах
      * Возвращает все записи (и будущие, и прошедшие)
      */
-    public List<UserBookingDto> getUserBookings(String userId) {
-        List<Booking> bookings = bookingRepository.findByUserIdAndState(userId, "active");
+    @Transactional(readOnly = true)
+    public List<UserBookingDto> getUserBookings(UUID userId) {
+        List<Booking> bookings = bookingRepository.findByUserIdAndState(userId, BookingState.ACTIVE);
         List<UserBookingDto> result = new ArrayList<>();
 
         for (Booking booking : bookings) {
@@ -274,7 +324,7 @@ public class BookingService {
             dto.setId(booking.getId());
             dto.setMachineId(booking.getMachineId());
             dto.setSlotId(booking.getSlotId());
-            dto.setState(booking.getState());
+            dto.setState(booking.getState().getValue());
             dto.setCreatedAt(booking.getCreatedAt());
 
             // Получаем данные машинки
@@ -284,7 +334,7 @@ public class BookingService {
             }
 
             // Получаем данные слота
-            Timeslot slot = timeslotRepository.findById(booking.getSlotId()).orElse(null);
+            Timeslot slot = findBookedSlot(booking);
             if (slot != null) {
                 dto.setSlotStartTime(slot.getStartTime());
                 dto.setSlotEndTime(slot.getEndTime());
@@ -299,4 +349,21 @@ public class BookingService {
 
         return result;
     }
+
+    /**
+     * Последние уведомления пользователя (новые сверху)
+     */
+    @Transactional(readOnly = true)
+    public List<Notification> getNotifications(UUID userId) {
+        return notificationRepository.findTop50ByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    /**
+     * Отметить все уведомления пользователя прочитанными
+     */
+    @Transactional
+    public BookingResult markNotificationsRead(UUID userId) {
+        int updated = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        return new BookingResult(true, "Прочитано уведомлений: " + updated);
+    }
 }
@@ -0,0 +1,197 @@
+package com.laundry.booking.service;
+
+import com.laundry.booking.cache.BoundedTtlCache;
+import com.laundry.booking.cache.SingleFlight;
+import com.laundry.booking.dto.BookingResult;
+import com.laundry.booking.repository.IdempotencyKeyRepository;
+import com.laundry.booking.repository.IdempotencyKeyRepository.StoredResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Идемпотентность мутаций записей по заголовку Idempotency-Key.
+ *
+ * Повтор запроса с тем же ключом возвращает исход первого выполнения, не вызывая логику записи.
+ * Исходы хранятся в idempotency_keys (общая для узлов) и в ограниченном кэше узла.
+ * Одновременные дубликаты на узле ждут первое выполнение (SingleFlight), на разных узлах - уникальный ключ таблицы.
+ * Ключ действует в пределах пользователя; повтор с тем же ключом, но другой операцией или телом отклоняется.
+ *
+ * Операция, которая выполняется в чужой транзакции (создание записи через очереди допуска), получает
+ * Claim и занимает ключ сама, в транзакции своей пачки (executeQueued): запрос не держит соединение
+ * и блокировку ключа, пока команда ждёт в очереди, а исход и запись фиксируются вместе.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    public enum Operation {
+        CREATE(1),
+        CANCEL(2),
+        RESCHEDULE(3);
+
+        private final short code;
+
+        Operation(int code) {
+            this.code = (short) code;
+        }
+    }
+
+    private record Key(UUID userId, String key) {
+    }
+
+    /**
+     * Ключ для операции, которая занимает его сама в своей транзакции (IdempotencyKeyRepository.claim/complete)
+     */
+    public record Claim(UUID userId, String key, short operation, int requestHash, Duration ttl) {
+    }
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Duration ttl;
+    private final BoundedTtlCache<Key, StoredResult> completed;
+    private final SingleFlight<Key, StoredResult> executions = new SingleFlight<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.max-cached:10000}") int maxCached) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionManager = transactionManager;
+        this.ttl = ttl;
+        this.completed = new BoundedTtlCache<>(maxCached, ttl);
+    }
+
+    /**
+     * Booking Controller - create/cancel/reschedule
+     * Последовательность вызовов:
+     * 1. Без ключа - выполнить операцию как обычно
+     * 2. Найти исход в кэше узла
+     * 3. Иначе занять ключ в таблице и выполнить операцию в той же транзакции (или прочитать исход первого выполнения)
+     * 4. Вернуть исход, если ключ использован той же операцией с тем же телом
+     *
+     * @param requestHash отпечаток тела запроса (hashCode DTO)
+     */
+    public BookingResult execute(String idempotencyKey, UUID userId, Operation operation, int requestHash,
+                                 Supplier<BookingResult> action) {
+        // Шаг 1: Без ключа
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        if (userId == null || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return new BookingResult(false, "Некорректный ключ " + HEADER);
+        }
+        Key key = new Key(userId, idempotencyKey);
+
+        // Шаг 2: Исход из кэша узла
+        StoredResult stored = completed.getIfPresent(key);
+
+        // Шаг 3: Первое выполнение или исход из таблицы
+        if (stored == null) {
+            completed.recordMiss();
+            stored = executions.execute(key, () -> executeOnce(key, operation, requestHash, action));
+        }
+
+        // Шаг 4: Ключ должен относиться к тому же запросу
+        if (stored.operation() != operation.code || stored.requestHash() != requestHash) {
+            return new BookingResult(false, "Ключ " + HEADER + " уже использован для другого запроса");
+        }
+        return new BookingResult(stored.result(), stored.message());
+    }
+
+    /**
+     * Booking Service - createBooking (booking.admission.enabled=true)
+     * Последовательность вызовов:
+     * 1. Без ключа - выполнить операцию как обычно
+     * 2. Найти исход в кэше узла или в таблице (без транзакции)
+     * 3. Выполнить операцию с Claim: она занимает ключ и сохраняет исход в своей транзакции,
+     *    а если ключ уже занят - не выполняется
+     * 4. Короткой транзакцией занять ключ с исходом шага 3, если операция его не заняла, иначе прочитать исход
+     *    из таблицы (выигрывает тот, кто занял ключ первым); исходы, для которых retryable истинно
+     *    (операция точно не выполнилась), не сохраняются - повтор с тем же ключом выполнит её заново
+     * 5. Вернуть исход, если ключ использован той же операцией с тем же телом
+     */
+    public BookingResult executeQueued(String idempotencyKey, UUID userId, Operation operation, int requestHash,
+                                       Function<Claim, BookingResult> action, Predicate<BookingResult> retryable) {
+        // Шаг 1: Без ключа
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.apply(null);
+        }
+        if (userId == null || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return new BookingResult(false, "Некорректный ключ " + HEADER);
+        }
+        Key key = new Key(userId, idempotencyKey);
+
+        // Шаги 2-4: Исход из кэша, таблицы или выполнения
+        StoredResult stored = completed.getIfPresent(key);
+        if (stored == null) {
+            completed.recordMiss();
+            stored = executions.execute(key, () -> executeQueuedOnce(key, operation, requestHash, action, retryable));
+        }
+
+        // Шаг 5: Ключ должен относиться к тому же запросу
+        if (stored.operation() != operation.code || stored.requestHash() != requestHash) {
+            return new BookingResult(false, "Ключ " + HEADER + " уже использован для другого запроса");
+        }
+        return new BookingResult(stored.result(), stored.message());
+    }
+
+    public BoundedTtlCache.Stats stats() {
+        return completed.stats();
+    }
+
+    private StoredResult executeOnce(Key key, Operation operation, int requestHash, Supplier<BookingResult> action) {
+        long generationBefore = completed.generation();
+        StoredResult stored = new TransactionTemplate(transactionManager).execute(status -> {
+            if (!idempotencyKeyRepository.claim(key.userId(), key.key(), operation.code, requestHash, ttl)) {
+                // Ключ уже выполнен, в том числе на другом узле: вставка дождалась его коммита
+                return idempotencyKeyRepository.find(key.userId(), key.key()).orElseThrow();
+            }
+            // Операция присоединяется к этой транзакции: исход и изменения фиксируются вместе
+            BookingResult result = action.get();
+            idempotencyKeyRepository.complete(key.userId(), key.key(), result.getResult(), result.getMessage());
+            return new StoredResult(operation.code, requestHash, result.getResult(), result.getMessage());
+        });
+        completed.put(key, stored, generationBefore);
+        return stored;
+    }
+
+    private StoredResult executeQueuedOnce(Key key, Operation operation, int requestHash,
+                                           Function<Claim, BookingResult> action, Predicate<BookingResult> retryable) {
+        long generationBefore = completed.generation();
+
+        // Шаг 2: Исход первого выполнения (строка без исхода - ключ занят незавершённой операцией, ждать её нечем)
+        StoredResult found = idempotencyKeyRepository.find(key.userId(), key.key()).orElse(null);
+        if (found != null && found.result() != null) {
+            completed.put(key, found, generationBefore);
+            return found;
+        }
+
+        // Шаг 3: Выполнение с ключом
+        BookingResult result = action.apply(new Claim(key.userId(), key.key(), operation.code, requestHash, ttl));
+        if (retryable.test(result)) {
+            return new StoredResult(operation.code, requestHash, result.getResult(), result.getMessage());
+        }
+
+        // Шаг 4: Исход, зафиксированный первым
+        StoredResult stored = new TransactionTemplate(transactionManager).execute(status -> {
+            if (!idempotencyKeyRepository.claim(key.userId(), key.key(), operation.code, requestHash, ttl)) {
+                return idempotencyKeyRepository.find(key.userId(), key.key()).orElseThrow();
+            }
+            idempotencyKeyRepository.complete(key.userId(), key.key(), result.getResult(), result.getMessage());
+            return new StoredResult(operation.code, requestHash, result.getResult(), result.getMessage());
+        });
+        completed.put(key, stored, generationBefore);
+        return stored;
+    }
+}
@@ -0,0 +1,131 @@
+package com.laundry.booking.service;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.cluster.InvalidationBus;
+import com.laundry.booking.repository.BulkAdminRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Каскад блокировки машинки на будущие записи и слоты.
+ * Работает частями по chunk-size строк: каждая часть — отдельная короткая транзакция
+ * с FOR UPDATE SKIP LOCKED, поэтому машинка с записями на месяцы вперёд
+ * не держит блокировки строк на всё время каскада и не ждёт чужих транзакций.
+ * Строки, занятые в момент прохода, добираются повторными проходами (locked-retries).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MachineBookingCascade {
+
+    private final BulkAdminRepository bulkAdminRepository;
+    private final InvalidationBus invalidationBus;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${admin.machine-block.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${admin.machine-block.chunk-pause-ms:20}")
+    private long chunkPauseMs;
+
+    @Value("${admin.machine-block.locked-retries:3}")
+    private int lockedRetries;
+
+    /**
+     * Итог каскада: отменённые записи, закрытые свободные слоты и строки,
+     * которые так и остались занятыми другими транзакциями
+     */
+    public record Summary(int canceledBookings, int closedSlots, long skipped) {
+    }
+
+    /**
+     * Отменить будущие активные записи машинки (с уведомлением владельцу) и закрыть её будущие слоты
+     */
+    public Summary cancelFutureBookings(UUID machineId) {
+        LocalDateTime from = LocalDateTime.now();
+
+        // Шаг 1: Отменить записи; их слоты остаются недоступными
+        int canceled = runInChunks(machineId, from, bulkAdminRepository::cancelFutureBookingsChunk);
+        long skippedBookings = retryLocked(machineId, from, bulkAdminRepository::cancelFutureBookingsChunk,
+                () -> bulkAdminRepository.countFutureActiveBookings(machineId, from));
+
+        // Шаг 2: Закрыть оставшиеся свободные слоты, чтобы на них нельзя было записаться
+        int closed = runInChunks(machineId, from, bulkAdminRepository::closeFutureSlotsChunk);
+        long skippedSlots = retryLocked(machineId, from, bulkAdminRepository::closeFutureSlotsChunk,
+                () -> bulkAdminRepository.countOpenFutureSlots(machineId, from));
+
+        Summary summary = new Summary(canceled, closed, skippedBookings + skippedSlots);
+        log.info("Machine {} blocked: canceled {} bookings, closed {} slots, {} rows left locked",
+                machineId, summary.canceledBookings(), summary.closedSlots(), summary.skipped());
+        return summary;
+    }
+
+    /**
+     * Открыть будущие слоты машинки без активной записи (обратное к cancelFutureBookings)
+     */
+    public int reopenFutureSlots(UUID machineId) {
+        LocalDateTime from = LocalDateTime.now();
+        return runInChunks(machineId, from, bulkAdminRepository::reopenFutureSlotsChunk);
+    }
+
+    private long retryLocked(UUID machineId, LocalDateTime from, Chunk chunk, LongSupplier pending) {
+        long left = pending.getAsLong();
+        for (int attempt = 0; attempt < lockedRetries && left > 0; attempt++) {
+            pause();
+            runInChunks(machineId, from, chunk);
+            left = pending.getAsLong();
+        }
+        return left;
+    }
+
+    /**
+     * Повторять часть, пока она что-то меняет; между частями — пауза, чтобы не забивать пул и диски в час пик
+     */
+    private int runInChunks(UUID machineId, LocalDateTime from, Chunk chunk) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int total = 0;
+        while (true) {
+            List<LocalDateTime> affected = transaction.execute(status -> {
+                List<LocalDateTime> slotStarts = chunk.apply(machineId, from, chunkSize);
+                slotStarts.stream()
+                        .map(LocalDateTime::toLocalDate)
+                        .distinct()
+                        .forEach(date -> invalidationBus.publish(Invalidation.date(date)));
+                return slotStarts;
+            });
+            if (affected == null || affected.isEmpty()) {
+                return total;
+            }
+            total += affected.size();
+            pause();
+        }
+    }
+
+    private void pause() {
+        if (chunkPauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(chunkPauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Chunk {
+        List<LocalDateTime> apply(UUID machineId, LocalDateTime from, int limit);
+    }
+}
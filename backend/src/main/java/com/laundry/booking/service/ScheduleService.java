@@ -1,35 +1,92 @@
 package com.laundry.booking.service;
 
+import com.laundry.booking.cache.AvailabilityCache;
+import com.laundry.booking.cache.ReferenceDataCache;
+import com.laundry.booking.cache.ScheduleVersions;
+import com.laundry.booking.cache.SingleFlight;
+import com.laundry.booking.cache.SlotLocator;
+import com.laundry.booking.cache.VersionedCache;
+import com.laundry.booking.diagnostics.AllocationMeter;
+import com.laundry.booking.dto.BookingView;
+import com.laundry.booking.dto.DayAvailabilityDto;
+import com.laundry.booking.dto.MachineAvailabilityDto;
+import com.laundry.booking.dto.MachineSlotsV2;
+import com.laundry.booking.dto.MachineView;
 import com.laundry.booking.dto.ScheduleData;
+import com.laundry.booking.dto.ScheduleDataV2;
+import com.laundry.booking.dto.TimeslotView;
 import com.laundry.booking.entity.Booking;
-import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.BookingState;
+import com.laundry.booking.entity.MachineStatus;
 import com.laundry.booking.entity.Schedule;
 import com.laundry.booking.entity.ScheduleMachine;
 import com.laundry.booking.entity.Timeslot;
 import com.laundry.booking.repository.BookingRepository;
 import com.laundry.booking.repository.MachineRepository;
 import com.laundry.booking.repository.ScheduleMachineRepository;
+import com.laundry.booking.repository.ScheduleReadRepository;
+import com.laundry.booking.repository.ScheduleReadRepository.ScheduleDay;
 import com.laundry.booking.repository.ScheduleRepository;
 import com.laundry.booking.repository.TimeslotRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ScheduleService {
 
+    private static final int MAX_AVAILABILITY_DAYS = 62;
+    private static final int MAX_RANGE_DAYS = 31;
+    private static final int MAX_CACHED_DATES = 120;
+    private static final Duration CACHED_SCHEDULE_TTL = Duration.ofMinutes(10);
+    private static final String ENTITY_READ_PATH = "entity";
+    private static final String JSON_AGG_READ_PATH = "json-agg";
+
     private final MachineRepository machineRepository;
     private final TimeslotRepository timeslotRepository;
     private final BookingRepository bookingRepository;
     private final ScheduleRepository scheduleRepository;
     private final ScheduleMachineRepository scheduleMachineRepository;
+    private final ScheduleVersions scheduleVersions;
+    private final PlatformTransactionManager transactionManager;
+    private final AvailabilityCache availabilityCache;
+    private final ScheduleReadRepository scheduleReadRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final SlotLocator slotLocator;
+    private final AllocationMeter allocationMeter;
+
+    // projection - записи из JDBC без сущностей; entity - прежнее чтение через JPA (для сравнения);
+    // json-agg - GET /api/schedule отдаёт JSON, собранный Postgres (остальные методы читают как projection)
+    @Value("${schedule.read-path:projection}")
+    private String readPath;
+
+    // Одновременные чтения одной и той же версии расписания разделяют одну загрузку
+    private final SingleFlight<ScheduleKey, ScheduleData> scheduleLoads = new SingleFlight<>();
+    private final SingleFlight<ScheduleKey, byte[]> documentLoads = new SingleFlight<>();
+
+    // Загруженные расписания по датам; отдаются, пока версия даты не изменилась (прогревает CachePrewarmer)
+    private final VersionedCache<LocalDate, ScheduleData> scheduleCache = new VersionedCache<>(MAX_CACHED_DATES, CACHED_SCHEDULE_TTL);
+    private final VersionedCache<LocalDate, byte[]> documentCache = new VersionedCache<>(MAX_CACHED_DATES, CACHED_SCHEDULE_TTL);
 
     /**
      * Schedule Controller - getSchedule method
@@ -41,61 +98,412 @@ public class ScheduleService {
      * 5. Получить бронирования на дату
      * 6. Собрать данные расписания
      * 7. Вернуть расписание
+     *
+     * Параллельные запросы на одну дату объединяются в одну загрузку из БД.
+     * Ключ включает версию даты, поэтому запрос, пришедший после мутации,
+     * не присоединится к загрузке, начатой до неё.
+     * Загрузка читает primary, а не пул для чтения: реплика может отставать, и прочитанные
+     * до мутации строки закэшировались бы под новой версией даты до следующей мутации.
+     * Ожидающие запросы транзакцию не открывают и соединение из пула не занимают.
+     * Строки читаются сразу в неизменяемые записи (ScheduleReadRepository), без сущностей JPA;
+     * выделенная на загрузку память учитывается в AllocationMeter.
+     * Загруженное расписание кэшируется с версией даты и отдаётся без обращения к БД, пока версия не изменится.
      */
     public ScheduleData getSchedule(LocalDate date, String userId) {
-        // Шаг 1: Получить все машины
-        List<Machine> allMachines = machineRepository.findAll();
-
-        // Шаг 2: Проверить расписание на эту дату
-        Optional<Schedule> scheduleOpt = scheduleRepository.findByDate(date);
-        
-        List<Machine> availableMachines;
-        List<Timeslot> slots;
-        
-        if (scheduleOpt.isPresent()) {
-            Schedule schedule = scheduleOpt.get();
-            
+        long version = scheduleVersions.current(date);
+        ScheduleData cached = scheduleCache.get(date, version);
+        if (cached != null) {
+            return cached;
+        }
+        return scheduleLoads.execute(new ScheduleKey(date, version), () -> {
+            ScheduleData loaded = allocationMeter.measure("schedule." + readPath,
+                    () -> primaryTransaction().execute(status -> loadSchedule(date)));
+            scheduleCache.put(date, version, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Schedule Controller - getSchedule method (schedule.read-path=json-agg)
+     * Последовательность вызовов:
+     * 1. Одним запросом получить от Postgres готовый JSON расписания (CTE + json_agg)
+     * 2. Вернуть байты документа без промежуточных объектов
+     *
+     * Правила и поля те же, что у getSchedule; параллельные запросы одной версии даты разделяют одну загрузку,
+     * документ кэшируется с версией даты и так же читается из primary.
+     */
+    public byte[] getScheduleDocument(LocalDate date, String userId) {
+        long version = scheduleVersions.current(date);
+        byte[] cached = documentCache.get(date, version);
+        if (cached != null) {
+            return cached;
+        }
+        return documentLoads.execute(new ScheduleKey(date, version), () -> {
+            byte[] loaded = allocationMeter.measure("schedule." + JSON_AGG_READ_PATH,
+                    () -> primaryTransaction().execute(status -> scheduleReadRepository.findScheduleDocument(date)));
+            documentCache.put(date, version, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * GET /api/schedule отдаётся готовым документом из Postgres (getScheduleDocument)
+     */
+    public boolean documentReadPath() {
+        return JSON_AGG_READ_PATH.equals(readPath);
+    }
+
+    /**
+     * Прогрев кэша расписаний (CachePrewarmer)
+     * Последовательность вызовов:
+     * 1. Запомнить версии дат до чтения
+     * 2. Прочитать даты [from, to] пачками по MAX_RANGE_DAYS дней (как getScheduleRange, но из primary)
+     * 3. Положить в кэш с версиями шага 1 - дата, изменённая во время чтения, в кэше не совпадёт с текущей версией
+     * 4. При schedule.read-path=json-agg - так же прогреть готовые документы
+     *
+     * @return количество прогретых дат
+     */
+    public int prewarm(LocalDate from, LocalDate to) {
+        int warmed = 0;
+        for (LocalDate chunkFrom = from; !chunkFrom.isAfter(to); chunkFrom = chunkFrom.plusDays(MAX_RANGE_DAYS)) {
+            LocalDate chunkTo = chunkFrom.plusDays(MAX_RANGE_DAYS - 1L).isBefore(to)
+                    ? chunkFrom.plusDays(MAX_RANGE_DAYS - 1L)
+                    : to;
+
+            // Шаг 1: Версии до чтения
+            Map<LocalDate, Long> versions = new HashMap<>();
+            for (LocalDate date = chunkFrom; !date.isAfter(chunkTo); date = date.plusDays(1)) {
+                versions.put(date, scheduleVersions.current(date));
+            }
+
+            // Шаги 2-3: Чтение пачкой и установка в кэш
+            LocalDate rangeFrom = chunkFrom;
+            LocalDate rangeTo = chunkTo;
+            Map<LocalDate, ScheduleData> loaded = primaryTransaction().execute(status -> entityReadPath()
+                    ? loadScheduleRangeFromEntities(rangeFrom, rangeTo)
+                    : loadScheduleRange(rangeFrom, rangeTo));
+            if (loaded != null) {
+                loaded.forEach((date, data) -> scheduleCache.put(date, versions.get(date), data));
+                warmed += loaded.size();
+            }
+        }
+
+        // Шаг 4: Готовые документы
+        if (documentReadPath()) {
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                getScheduleDocument(date, null);
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * Убрать из кэша расписаний даты раньше указанной, затем их версии
+     */
+    public void evictCachedBefore(LocalDate date) {
+        scheduleCache.removeIf(day -> day.isBefore(date));
+        documentCache.removeIf(day -> day.isBefore(date));
+        scheduleVersions.evictBefore(date);
+    }
+
+    /**
+     * Schedule Controller - getAvailability method
+     * Последовательность вызовов:
+     * 1. Проверить диапазон
+     * 2. Взять счётчики по дням из кэша (недостающие дни - одним агрегирующим запросом)
+     * 3. Сложить счётчики машинок в итог дня
+     * 4. Вернуть дни по порядку
+     */
+    public List<DayAvailabilityDto> getAvailability(LocalDate from, LocalDate to, boolean byMachine) {
+        // Шаг 1: Проверить диапазон
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_AVAILABILITY_DAYS) {
+            throw new IllegalArgumentException("Range must be 1.." + MAX_AVAILABILITY_DAYS + " days");
+        }
+        availabilityCache.evictBefore(LocalDate.now().minusDays(MAX_AVAILABILITY_DAYS));
+
+        // Шаг 2: Счётчики по дням
+        Map<LocalDate, Map<UUID, AvailabilityCache.Counts>> days = availabilityCache.get(from, to);
+
+        // Шаги 3-4: Итоги дней
+        List<DayAvailabilityDto> result = new ArrayList<>();
+        days.forEach((date, machines) -> {
+            int free = 0;
+            int total = 0;
+            for (AvailabilityCache.Counts counts : machines.values()) {
+                free += counts.free();
+                total += counts.total();
+            }
+            List<MachineAvailabilityDto> perMachine = null;
+            if (byMachine) {
+                perMachine = machines.entrySet().stream()
+                        .map(e -> new MachineAvailabilityDto(e.getKey(), e.getValue().free(), e.getValue().total()))
+                        .sorted(Comparator.comparing(MachineAvailabilityDto::getMachineId))
+                        .collect(Collectors.toList());
+            }
+            result.add(new DayAvailabilityDto(date, free, total, perMachine));
+        });
+        return result;
+    }
+
+    /**
+     * Schedule Controller - getScheduleV2 method
+     * Последовательность вызовов:
+     * 1. Получить расписание на дату (тот же путь и кэш, что у getSchedule)
+     * 2. Построить общую сетку слотов (минуты от начала дня)
+     * 3. Для каждой машинки разложить слоты по сетке и собрать маски занятости
+     * 4. Вернуть компактное расписание
+     */
+    public ScheduleDataV2 getScheduleV2(LocalDate date, String userId) {
+        // Шаг 1: Расписание на дату
+        ScheduleData data = getSchedule(date, userId);
+        UUID requester = parseUserId(userId);
+        LocalDateTime dayStart = date.atStartOfDay();
+
+        // Шаг 2: Общая сетка слотов
+        TreeMap<Long, Integer> grid = new TreeMap<>();
+        for (TimeslotView slot : data.getTimeslots()) {
+            grid.put(gridKey(dayStart, slot), 0);
+        }
+        int[] starts = new int[grid.size()];
+        int[] ends = new int[grid.size()];
+        int index = 0;
+        for (Map.Entry<Long, Integer> cell : grid.entrySet()) {
+            cell.setValue(index);
+            starts[index] = (int) (cell.getKey() >> 32);
+            ends[index] = (int) (cell.getKey() & 0xFFFFFFFFL);
+            index++;
+        }
+
+        // Шаг 3: Слоты и маски по машинкам
+        Map<UUID, UUID> activeBookingUserBySlot = new HashMap<>();
+        for (BookingView booking : data.getBookings()) {
+            if (booking.state() == BookingState.ACTIVE) {
+                activeBookingUserBySlot.put(booking.slotId(), booking.userId());
+            }
+        }
+        int words = (grid.size() + 31) / 32;
+        Map<UUID, MachineSlotsV2> machines = new LinkedHashMap<>();
+        for (MachineView machine : data.getMachines()) {
+            machines.put(machine.id(), new MachineSlotsV2(
+                    machine.id(), machine.name(), new UUID[grid.size()], new int[words], new int[words]));
+        }
+        for (TimeslotView slot : data.getTimeslots()) {
+            MachineSlotsV2 machine = machines.get(slot.machineId());
+            if (machine == null) {
+                continue;
+            }
+            int cell = grid.get(gridKey(dayStart, slot));
+            machine.getSlotIds()[cell] = slot.id();
+            UUID bookedBy = activeBookingUserBySlot.get(slot.id());
+            if (bookedBy != null || !slot.isAvailable()) {
+                machine.getBusy()[cell / 32] |= 1 << (cell % 32);
+            }
+            if (bookedBy != null && bookedBy.equals(requester)) {
+                machine.getMine()[cell / 32] |= 1 << (cell % 32);
+            }
+        }
+
+        // Шаг 4: Компактное расписание
+        return new ScheduleDataV2(date, starts, ends, new ArrayList<>(machines.values()));
+    }
+
+    // Ключ ячейки сетки: минуты начала в старших 32 битах, минуты конца - в младших
+    private static long gridKey(LocalDateTime dayStart, TimeslotView slot) {
+        long start = ChronoUnit.MINUTES.between(dayStart, slot.startTime());
+        long end = ChronoUnit.MINUTES.between(dayStart, slot.endTime());
+        return (start << 32) | end;
+    }
+
+    private static UUID parseUserId(String userId) {
+        try {
+            return userId != null ? UUID.fromString(userId) : null;
+        } catch (IllegalArgumentException e) {
+            // Админка запрашивает расписание с userId=admin
+            return null;
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    // Транзакция без флага readOnly всегда идёт в primary (ReadWriteRoutingDataSource) -
+    // для загрузок, которые кэшируются с версией даты
+    private TransactionTemplate primaryTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private boolean entityReadPath() {
+        return ENTITY_READ_PATH.equals(readPath);
+    }
+
+    private ScheduleData loadSchedule(LocalDate date) {
+        if (entityReadPath()) {
+            return loadScheduleRangeFromEntities(date, date).get(date);
+        }
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = date.plusDays(1).atStartOfDay();
+
+        // Шаг 1: Получить все машины (справочные данные - из кэша)
+        List<MachineView> allMachines = referenceDataCache.machines();
+
+        // Шаг 2: Проверить расписание на эту дату (вместе с машинками, из кэша)
+        ScheduleDay schedule = referenceDataCache.scheduleDay(date);
+
+        // Шаги 3-7: Собрать данные расписания
+        return assemble(allMachines, schedule,
+                () -> slotLocator.remember(scheduleReadRepository.findSlots(dayStart, dayEnd)),
+                () -> scheduleReadRepository.findBookings(dayStart, dayEnd));
+    }
+
+    /**
+     * Schedule Controller - getScheduleRange method
+     * Последовательность вызовов:
+     * 1. Проверить диапазон
+     * 2. Получить все машины (один раз на диапазон)
+     * 3. Получить расписания и их машинки на диапазон
+     * 4. Получить слоты и бронирования на диапазон (запросы по диапазону start_time)
+     * 5. Разложить слоты и бронирования по датам за один проход
+     * 6. Собрать данные каждой даты по тем же правилам, что и getSchedule
+     * 7. Вернуть расписания по датам
+     */
+    public Map<LocalDate, ScheduleData> getScheduleRange(LocalDate from, LocalDate to, String userId) {
+        // Шаг 1: Проверить диапазон
+        if (to.isBefore(from) || ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be 1.." + MAX_RANGE_DAYS + " days");
+        }
+        return allocationMeter.measure("schedule-range." + readPath,
+                () -> readOnlyTransaction().execute(status -> entityReadPath()
+                        ? loadScheduleRangeFromEntities(from, to)
+                        : loadScheduleRange(from, to)));
+    }
+
+    private Map<LocalDate, ScheduleData> loadScheduleRange(LocalDate from, LocalDate to) {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+
+        // Шаг 2: Получить все машины
+        List<MachineView> allMachines = referenceDataCache.machines();
+
+        // Шаг 3: Расписания и их машинки (недостающие в кэше даты - одним запросом)
+        Map<LocalDate, ScheduleDay> schedulesByDate = referenceDataCache.scheduleDays(from, to);
+
+        // Шаги 4-5: Слоты и бронирования по датам
+        Map<LocalDate, List<TimeslotView>> slotsByDate = new HashMap<>();
+        for (TimeslotView slot : slotLocator.remember(scheduleReadRepository.findSlots(rangeStart, rangeEnd))) {
+            slotsByDate.computeIfAbsent(slot.startTime().toLocalDate(), d -> new ArrayList<>()).add(slot);
+        }
+        Map<LocalDate, List<BookingView>> bookingsByDate = new HashMap<>();
+        for (BookingView booking : scheduleReadRepository.findBookings(rangeStart, rangeEnd)) {
+            bookingsByDate.computeIfAbsent(booking.slotStartTime().toLocalDate(), d -> new ArrayList<>()).add(booking);
+        }
+
+        // Шаги 6-7: Данные каждой даты
+        return assembleRange(from, to, allMachines, schedulesByDate, slotsByDate, bookingsByDate);
+    }
+
+    /**
+     * Тот же диапазон через сущности JPA (schedule.read-path=entity) - для сравнения выделений памяти.
+     * Сущности попадают в контекст персистентности read-only транзакции и копируются в записи расписания.
+     */
+    private Map<LocalDate, ScheduleData> loadScheduleRangeFromEntities(LocalDate from, LocalDate to) {
+        LocalDateTime rangeStart = from.atStartOfDay();
+        LocalDateTime rangeEnd = to.plusDays(1).atStartOfDay();
+
+        List<MachineView> allMachines = machineRepository.findAll().stream()
+                .map(MachineView::of)
+                .toList();
+
+        List<Schedule> schedules = scheduleRepository.findByDateBetween(from, to);
+        Map<UUID, Set<UUID>> machineIdsBySchedule = new HashMap<>();
+        if (!schedules.isEmpty()) {
+            List<UUID> scheduleIds = schedules.stream().map(Schedule::getId).toList();
+            for (ScheduleMachine link : scheduleMachineRepository.findByScheduleIdIn(scheduleIds)) {
+                machineIdsBySchedule.computeIfAbsent(link.getScheduleId(), id -> new HashSet<>()).add(link.getMachineId());
+            }
+        }
+        Map<LocalDate, ScheduleDay> schedulesByDate = new HashMap<>();
+        for (Schedule schedule : schedules) {
+            schedulesByDate.put(schedule.getDate(), new ScheduleDay(schedule.getId(), schedule.getDate(),
+                    schedule.getIsOpen(), machineIdsBySchedule.getOrDefault(schedule.getId(), Set.of())));
+        }
+
+        Map<LocalDate, List<TimeslotView>> slotsByDate = new HashMap<>();
+        for (Timeslot slot : timeslotRepository.findByStartTimeRange(rangeStart, rangeEnd)) {
+            slotsByDate.computeIfAbsent(slot.getStartTime().toLocalDate(), d -> new ArrayList<>()).add(TimeslotView.of(slot));
+        }
+        Map<LocalDate, List<BookingView>> bookingsByDate = new HashMap<>();
+        for (Booking booking : bookingRepository.findBySlotStartTimeRange(rangeStart, rangeEnd)) {
+            bookingsByDate.computeIfAbsent(booking.getSlotStartTime().toLocalDate(), d -> new ArrayList<>()).add(BookingView.of(booking));
+        }
+
+        return assembleRange(from, to, allMachines, schedulesByDate, slotsByDate, bookingsByDate);
+    }
+
+    private Map<LocalDate, ScheduleData> assembleRange(LocalDate from, LocalDate to, List<MachineView> allMachines,
+                                                       Map<LocalDate, ScheduleDay> schedulesByDate,
+                                                       Map<LocalDate, List<TimeslotView>> slotsByDate,
+                                                       Map<LocalDate, List<BookingView>> bookingsByDate) {
+        Map<LocalDate, ScheduleData> result = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDate day = date;
+            result.put(day, assemble(allMachines, schedulesByDate.get(day),
+                    () -> slotsByDate.getOrDefault(day, List.of()),
+                    () -> bookingsByDate.getOrDefault(day, List.of())));
+        }
+        return result;
+    }
+
+    /**
+     * Данные расписания одной даты (шаги 3-7 getSchedule)
+     *
+     * @param schedule настройки даты с её машинками или null, если их нет
+     */
+    private ScheduleData assemble(List<MachineView> allMachines, ScheduleDay schedule,
+                                  Supplier<List<TimeslotView>> slotsOfDay, Supplier<List<BookingView>> bookingsOfDay) {
+        List<MachineView> availableMachines;
+        List<TimeslotView> slots;
+
+        if (schedule != null) {
             // Шаг 3: Если записи закрыты - вернуть пустые данные
-            if (!schedule.getIsOpen()) {
+            if (!schedule.isOpen()) {
                 ScheduleData result = new ScheduleData();
                 result.setMachines(new ArrayList<>()); // Пустой список машинок
                 result.setTimeslots(new ArrayList<>());
                 result.setBookings(new ArrayList<>());
                 return result;
             }
-            
-            // Шаг 4: Получить разрешённые машинки для этой даты
-            List<ScheduleMachine> scheduleMachines = scheduleMachineRepository.findByScheduleId(schedule.getId());
-            Set<String> allowedMachineIds = scheduleMachines.stream()
-                    .map(ScheduleMachine::getMachineId)
-                    .collect(Collectors.toSet());
-            
+
+            // Шаг 4: Разрешённые машинки для этой даты
             // Если список машинок пустой - значит НИ ОДНА машинка не доступна для записи
             // (запись открыта, но машинки не выбраны - записаться нельзя)
+            Set<UUID> allowedMachineIds = schedule.machineIds();
             if (allowedMachineIds.isEmpty()) {
                 availableMachines = new ArrayList<>();
                 slots = new ArrayList<>();
             } else {
                 // Фильтруем машинки - только те, что в расписании и не заблокированы
                 availableMachines = allMachines.stream()
-                        .filter(m -> allowedMachineIds.contains(m.getId()) && m.getStatus().equals("available"))
+                        .filter(m -> allowedMachineIds.contains(m.id()) && m.status() == MachineStatus.AVAILABLE)
                         .collect(Collectors.toList());
-                
-                // Получить слоты только для разрешённых машинок
-                slots = timeslotRepository.findByDate(date).stream()
-                        .filter(slot -> allowedMachineIds.contains(slot.getMachineId()))
+
+                // Слоты только для разрешённых машинок
+                slots = slotsOfDay.get().stream()
+                        .filter(slot -> allowedMachineIds.contains(slot.machineId()))
                         .collect(Collectors.toList());
             }
         } else {
             // Нет настроек расписания - все незаблокированные машинки доступны
             availableMachines = allMachines.stream()
-                    .filter(m -> m.getStatus().equals("available"))
+                    .filter(m -> m.status() == MachineStatus.AVAILABLE)
                     .collect(Collectors.toList());
-            slots = timeslotRepository.findByDate(date);
+            slots = new ArrayList<>(slotsOfDay.get());
         }
 
-        // Шаг 5: Получить бронирования на дату
-        List<Booking> bookings = bookingRepository.findByDate(date);
+        // Шаг 5: Бронирования на дату
+        List<BookingView> bookings = new ArrayList<>(bookingsOfDay.get());
 
         // Шаг 6: Собрать данные расписания
         ScheduleData scheduleData = new ScheduleData();
@@ -105,4 +513,7 @@ public class ScheduleService {
 
         return scheduleData;
     }
+
+    private record ScheduleKey(LocalDate date, long version) {
+    }
 }
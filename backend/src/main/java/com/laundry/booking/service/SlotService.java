@@ -0,0 +1,111 @@
+package com.laundry.booking.service;
+
+import com.laundry.booking.cache.FreeSlotIndex;
+import com.laundry.booking.dto.FreeSlotDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+@Service
+@RequiredArgsConstructor
+public class SlotService {
+
+    private static final int DEFAULT_DAYS = 7;
+    private static final int DEFAULT_LIMIT = 5;
+    private static final int MAX_LIMIT = 50;
+
+    private final FreeSlotIndex freeSlotIndex;
+
+    // Насколько вперёд отвечает индекс (дальше слоты обычно ещё не созданы)
+    @Value("${slots.index.horizon-days:14}")
+    private int horizonDays;
+
+    /**
+     * Slot Controller - findNextAvailable method
+     * Последовательность вызовов:
+     * 1. Проверить параметры и ограничить период горизонтом индекса
+     * 2. Собрать фильтр по времени суток, дням недели
+     * 3. Найти ближайшие свободные слоты в индексе (без загрузки расписаний по дням)
+     * 4. Вернуть слоты по возрастанию времени начала
+     *
+     * @param from      первая дата поиска (по умолчанию сегодня; прошедшее время не возвращается)
+     * @param days      сколько дней искать, включая from
+     * @param timeFrom  слот начинается не раньше
+     * @param timeTo    слот заканчивается не позже
+     * @param weekdays  дни недели через запятую: MON,TUE или 1,2 (1 - понедельник)
+     * @param machineId только эта машинка
+     * @param limit     сколько слотов вернуть
+     */
+    public List<FreeSlotDto> findNextAvailable(LocalDate from, Integer days, LocalTime timeFrom, LocalTime timeTo,
+                                               String weekdays, UUID machineId, Integer limit) {
+        // Шаг 1: Параметры
+        LocalDate today = LocalDate.now();
+        LocalDate firstDate = from == null || from.isBefore(today) ? today : from;
+        LocalDate horizon = today.plusDays(horizonDays - 1L);
+        int dayCount = days == null ? DEFAULT_DAYS : days;
+        if (dayCount < 1) {
+            throw new IllegalArgumentException("days must be positive");
+        }
+        LocalDate lastDate = firstDate.plusDays(dayCount - 1L);
+        if (lastDate.isAfter(horizon)) {
+            lastDate = horizon;
+        }
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        if (firstDate.isAfter(lastDate)) {
+            return List.of();
+        }
+        LocalDateTime start = firstDate.equals(today) ? LocalDateTime.now() : firstDate.atStartOfDay();
+
+        // Шаг 2: Фильтр
+        Set<DayOfWeek> allowedDays = parseWeekdays(weekdays);
+        Predicate<FreeSlotDto> filter = slot -> allowedDays.contains(slot.getStartTime().getDayOfWeek())
+                && (timeFrom == null || !slot.getStartTime().toLocalTime().isBefore(timeFrom))
+                && (timeTo == null || !slot.getEndTime().toLocalTime().isAfter(timeTo));
+
+        // Шаги 3-4: Поиск в индексе; прошедшие даты больше не нужны
+        freeSlotIndex.evictBefore(today);
+        return freeSlotIndex.findNext(start, lastDate, machineId, filter, pageSize);
+    }
+
+    private static Set<DayOfWeek> parseWeekdays(String weekdays) {
+        if (weekdays == null || weekdays.isBlank()) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        Set<DayOfWeek> result = EnumSet.noneOf(DayOfWeek.class);
+        for (String item : weekdays.split(",")) {
+            String value = item.trim().toUpperCase(Locale.ROOT);
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (Character.isDigit(value.charAt(0))) {
+                int number = Integer.parseInt(value);
+                if (number < 1 || number > 7) {
+                    throw new IllegalArgumentException("Unknown weekday: " + item);
+                }
+                result.add(DayOfWeek.of(number));
+                continue;
+            }
+            // MON, MONDAY и т.п. (не короче трёх букв)
+            result.add(Arrays.stream(DayOfWeek.values())
+                    .filter(day -> value.length() >= 3 && day.name().startsWith(value))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown weekday: " + item)));
+        }
+        return result;
+    }
+}
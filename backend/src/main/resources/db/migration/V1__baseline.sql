@@ -0,0 +1,151 @@
+-- Базовая схема. Уже существующая БД без schema_history помечается этой версией
+-- без выполнения скрипта (migrations.baseline-on-migrate)
+
+-- UUID версии 7 (RFC 9562): первые 48 бит - миллисекунды Unix-времени,
+-- поэтому новые ключи вставляются в правую часть B-tree индекса, а не в случайные страницы
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS UUID
+LANGUAGE sql VOLATILE AS $$
+SELECT encode(
+    set_bit(
+        set_bit(
+            overlay(uuid_send(gen_random_uuid())
+                    placing substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3)
+                    FROM 1 FOR 6),
+            52, 1),
+        53, 1),
+    'hex')::uuid
+$$;
+
+-- Create users table
+-- role: 1 - user, 2 - admin (UserRole)
+CREATE TABLE users (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    password_hash VARCHAR(255) NOT NULL,
+    role SMALLINT NOT NULL,
+    is_blocked BOOLEAN NOT NULL DEFAULT FALSE,
+    email VARCHAR(255),
+    full_name VARCHAR(255),
+    room VARCHAR(10),
+    contract VARCHAR(20),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CHECK (role IN (1, 2))
+);
+
+-- Create machines table
+-- status: 1 - available, 2 - blocked (MachineStatus)
+CREATE TABLE machines (
+    id UUID PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    status SMALLINT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CHECK (status IN (1, 2))
+);
+
+-- Create timeslots table
+-- Секционирована по месяцам start_time: запросы по датам читают только нужные секции,
+-- а старые месяцы отсоединяются в схему history задачей partition-maintenance
+CREATE TABLE timeslots (
+    id UUID NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    is_available BOOLEAN NOT NULL DEFAULT TRUE,
+    machine_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, start_time),
+    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE
+) PARTITION BY RANGE (start_time);
+
+-- Create bookings table
+-- Секционирована по месяцам слота (slot_start_time), как и timeslots,
+-- поэтому секции одного месяца отсоединяются вместе
+-- state: 1 - active, 2 - canceled, 3 - deleted (BookingState)
+CREATE TABLE bookings (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    machine_id UUID NOT NULL,
+    slot_id UUID NOT NULL,
+    slot_start_time TIMESTAMP NOT NULL,
+    state SMALLINT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, slot_start_time),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE,
+    FOREIGN KEY (slot_id, slot_start_time) REFERENCES timeslots(id, start_time) ON DELETE CASCADE,
+    CHECK (state IN (1, 2, 3))
+) PARTITION BY RANGE (slot_start_time);
+
+-- Create schedules table
+CREATE TABLE schedules (
+    id UUID PRIMARY KEY,
+    date DATE NOT NULL UNIQUE,
+    is_open BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Create schedule_machines table (связь расписания с машинками)
+CREATE TABLE schedule_machines (
+    id UUID PRIMARY KEY,
+    schedule_id UUID NOT NULL,
+    machine_id UUID NOT NULL,
+    FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE,
+    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE,
+    UNIQUE(schedule_id, machine_id)
+);
+
+-- Create job_runs table (журнал запусков кластерных задач)
+CREATE TABLE job_runs (
+    id BIGSERIAL PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    node_id VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP,
+    duration_ms BIGINT,
+    error TEXT,
+    CHECK (status IN ('running', 'succeeded', 'failed'))
+);
+
+-- Create job_leases table (какой узел сейчас выполняет задачу)
+CREATE TABLE job_leases (
+    job_name VARCHAR(100) PRIMARY KEY,
+    node_id VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMP NOT NULL,
+    renewed_at TIMESTAMP NOT NULL
+);
+
+-- Месячные секции: <parent>_YYYY_MM, границы [начало месяца, начало следующего)
+CREATE OR REPLACE FUNCTION ensure_month_partition(parent TEXT, month_start DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::date;
+    partition_name TEXT := parent || '_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent, first_day, (first_day + INTERVAL '1 month')::date);
+    RETURN TRUE;
+END;
+$$;
+
+-- Секции с прошлого месяца на 3 месяца вперёд; дальше их создаёт задача partition-maintenance
+SELECT ensure_month_partition('timeslots', (date_trunc('month', CURRENT_DATE) + make_interval(months => m))::date),
+       ensure_month_partition('bookings', (date_trunc('month', CURRENT_DATE) + make_interval(months => m))::date)
+FROM generate_series(-1, 3) AS m;
+
+-- Отсоединённые старые секции
+CREATE SCHEMA IF NOT EXISTS history;
+
+-- Create indexes for better performance
+CREATE INDEX idx_users_name ON users(name);
+CREATE INDEX idx_machines_status ON machines(status);
+CREATE INDEX idx_timeslots_machine_id ON timeslots(machine_id);
+CREATE INDEX idx_timeslots_start_time ON timeslots(start_time);
+CREATE INDEX idx_bookings_user_id ON bookings(user_id);
+CREATE INDEX idx_bookings_user_id_state ON bookings(user_id, state);
+CREATE INDEX idx_bookings_slot_id ON bookings(slot_id);
+CREATE INDEX idx_bookings_state ON bookings(state);
+CREATE INDEX idx_schedules_date ON schedules(date);
+CREATE INDEX idx_job_runs_job_name_started_at ON job_runs(job_name, started_at);
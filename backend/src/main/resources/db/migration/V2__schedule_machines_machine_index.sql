@@ -0,0 +1,13 @@
+-- migrate:no-transaction
+-- Индексы строятся и удаляются CONCURRENTLY, без блокировки записи в таблицы.
+-- Такие команды нельзя выполнять в транзакции, поэтому скрипт идёт вне неё.
+-- Если построение прервалось, останется INVALID-индекс: удалить его (DROP INDEX CONCURRENTLY),
+-- удалить строку версии 2 из schema_history и перезапустить приложение.
+
+-- Удаление машинки каскадом чистит schedule_machines по machine_id,
+-- а UNIQUE(schedule_id, machine_id) такой поиск не покрывает
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_schedule_machines_machine_id ON schedule_machines(machine_id);
+
+-- Дублируют индексы ограничений UNIQUE(name) и UNIQUE(date)
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_name;
+DROP INDEX CONCURRENTLY IF EXISTS idx_schedules_date;
@@ -0,0 +1,14 @@
+-- migrate:no-transaction
+-- Поиск пользователей в админке: подстрока и нечёткое совпадение по name, full_name, room, contract.
+-- GIN-индексы pg_trgm обслуживают ILIKE '%q%', ILIKE 'q%' и оператор word_similarity (<%).
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (full_name gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_room_trgm ON users USING gin (room gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_contract_trgm ON users USING gin (contract gin_trgm_ops);
+
+-- Постраничный вывод без поиска: сортировка и курсор по (колонка, id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_full_name_id ON users (COALESCE(full_name, ''), id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_room_id ON users (COALESCE(room, ''), id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,16 @@
+-- Уведомления пользователям (например, об отмене записи при блокировке машинки)
+CREATE TABLE notifications (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    user_id UUID NOT NULL,
+    booking_id UUID,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    read_at TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_notifications_user_id_created_at ON notifications(user_id, created_at DESC);
+
+-- Будущие активные записи машинки (каскад при блокировке).
+-- Для секционированной таблицы CONCURRENTLY недоступен; индекс частичный и строится быстро
+CREATE INDEX idx_bookings_machine_id_active ON bookings(machine_id, slot_start_time) WHERE state = 1;
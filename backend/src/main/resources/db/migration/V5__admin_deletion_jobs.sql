@@ -0,0 +1,27 @@
+-- Статус машинки 3 - deleting: машинка скрыта, зависимые строки удаляются фоновой задачей
+ALTER TABLE machines DROP CONSTRAINT IF EXISTS machines_status_check;
+ALTER TABLE machines ADD CONSTRAINT machines_status_check CHECK (status IN (1, 2, 3));
+
+-- Фоновые задачи админки (удаление машинок и расписаний частями) и их прогресс
+CREATE TABLE admin_jobs (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v7(),
+    kind VARCHAR(30) NOT NULL,
+    target_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'queued',
+    total_rows BIGINT NOT NULL DEFAULT 0,
+    deleted_rows BIGINT NOT NULL DEFAULT 0,
+    error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP,
+    CHECK (kind IN ('machine-delete', 'schedule-delete')),
+    CHECK (status IN ('queued', 'running', 'succeeded', 'failed'))
+);
+
+-- Не больше одной незавершённой задачи на объект
+CREATE UNIQUE INDEX idx_admin_jobs_active_target ON admin_jobs(kind, target_id)
+    WHERE status IN ('queued', 'running');
+CREATE INDEX idx_admin_jobs_created_at ON admin_jobs(created_at);
+
+-- Удаление записей машинки частями (не только активных, в отличие от idx_bookings_machine_id_active)
+CREATE INDEX idx_bookings_machine_id ON bookings(machine_id);
@@ -0,0 +1,18 @@
+-- Результаты мутаций записей по заголовку Idempotency-Key (создание, отмена, перенос).
+-- Строка вставляется до выполнения операции и заполняется в той же транзакции:
+-- параллельный дубликат с другого узла ждёт на уникальном ключе до коммита первого выполнения.
+-- operation: 1 - create, 2 - cancel, 3 - reschedule; request_hash - отпечаток тела запроса
+CREATE TABLE idempotency_keys (
+    user_id UUID NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    operation SMALLINT NOT NULL,
+    request_hash INTEGER NOT NULL,
+    result BOOLEAN,
+    message TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (user_id, idempotency_key),
+    CHECK (operation IN (1, 2, 3))
+);
+
+-- Очистка просроченных ключей (IdempotencyKeyCleanupJob)
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
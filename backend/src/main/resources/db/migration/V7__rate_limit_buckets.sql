@@ -0,0 +1,10 @@
+-- Общие для узлов корзины ограничителя частоты запросов (RateLimitClusterSync).
+-- tat_us - теоретическое время прибытия (GCRA) в микросекундах эпохи по часам Postgres:
+-- корзина полна, если tat_us в прошлом. Состояние одноразовое, поэтому таблица UNLOGGED (без WAL);
+-- размер ограничен числом правил, умноженным на rate-limit.stripes.
+CREATE UNLOGGED TABLE rate_limit_buckets (
+    policy VARCHAR(40) NOT NULL,
+    stripe INTEGER NOT NULL,
+    tat_us BIGINT NOT NULL,
+    PRIMARY KEY (policy, stripe)
+);
@@ -0,0 +1,86 @@
+-- Тестовые данные для разработки; подключается только в профиле dev (migrations.locations).
+-- Повторяемый скрипт: выполняется после версионных и при каждом изменении файла.
+-- Повторный прогон на уже заполненной БД ничего не дублирует
+
+-- Insert test users
+-- role: 1 - user, 2 - admin
+-- Password for all users: "password123"
+-- BCrypt hash generated with BCrypt strength 10
+INSERT INTO users (id, name, password_hash, role, is_blocked) VALUES
+('018f0000-0000-7000-8000-000000000001', 'admin', '$2a$10$iu2zg0zoMgtbJvwq6gHGXuhpkQ35Mpyfg.7uSUIbaL/j/9SotxWHi', 2, false),
+('018f0000-0000-7000-8000-000000000002', 'john_doe', '$2a$10$iu2zg0zoMgtbJvwq6gHGXuhpkQ35Mpyfg.7uSUIbaL/j/9SotxWHi', 1, false),
+('018f0000-0000-7000-8000-000000000003', 'jane_smith', '$2a$10$iu2zg0zoMgtbJvwq6gHGXuhpkQ35Mpyfg.7uSUIbaL/j/9SotxWHi', 1, false),
+('018f0000-0000-7000-8000-000000000004', 'blocked_user', '$2a$10$iu2zg0zoMgtbJvwq6gHGXuhpkQ35Mpyfg.7uSUIbaL/j/9SotxWHi', 1, true)
+ON CONFLICT DO NOTHING;
+
+-- Insert machines
+-- status: 1 - available, 2 - blocked
+INSERT INTO machines (id, name, status) VALUES
+('018f0000-0000-7000-8000-000000000101', 'Стиральная машина #1', 1),
+('018f0000-0000-7000-8000-000000000102', 'Стиральная машина #2', 1),
+('018f0000-0000-7000-8000-000000000103', 'Стиральная машина #3', 1),
+('018f0000-0000-7000-8000-000000000104', 'Стиральная машина #4', 2)
+ON CONFLICT DO NOTHING;
+
+-- Insert timeslots for today and next 7 days
+-- Generate slots from 08:00 to 22:00 with 2-hour intervals
+INSERT INTO timeslots (id, start_time, end_time, is_available, machine_id)
+SELECT 
+    uuid_generate_v7(),
+    (CURRENT_DATE + days.day_offset) + (INTERVAL '1 hour' * (8 + hours.hour_offset * 2)),
+    (CURRENT_DATE + days.day_offset) + (INTERVAL '1 hour' * (10 + hours.hour_offset * 2)),
+    true,
+    m.id
+FROM 
+    machines m,
+    generate_series(0, 7) AS days(day_offset),
+    generate_series(0, 6) AS hours(hour_offset)
+WHERE 
+    m.status = 1
+    AND NOT EXISTS (SELECT 1 FROM timeslots t WHERE t.machine_id = m.id AND DATE(t.start_time) = CURRENT_DATE + days.day_offset);
+
+-- Insert sample schedules for next 7 days
+INSERT INTO schedules (id, date, is_open)
+SELECT 
+    uuid_generate_v7(),
+    CURRENT_DATE + day_offset,
+    CASE WHEN day_offset <= 2 THEN true ELSE false END
+FROM 
+    generate_series(0, 7) AS day_offset
+ON CONFLICT (date) DO NOTHING;
+
+-- Insert sample bookings
+INSERT INTO bookings (id, user_id, machine_id, slot_id, slot_start_time, state)
+SELECT
+    uuid_generate_v7(),
+    '018f0000-0000-7000-8000-000000000002',
+    machine_id,
+    id,
+    start_time,
+    1
+FROM timeslots
+WHERE DATE(start_time) = CURRENT_DATE
+AND machine_id = '018f0000-0000-7000-8000-000000000101'
+AND NOT EXISTS (SELECT 1 FROM bookings WHERE user_id = '018f0000-0000-7000-8000-000000000002')
+LIMIT 1;
+
+INSERT INTO bookings (id, user_id, machine_id, slot_id, slot_start_time, state)
+SELECT
+    uuid_generate_v7(),
+    '018f0000-0000-7000-8000-000000000003',
+    machine_id,
+    id,
+    start_time,
+    1
+FROM timeslots
+WHERE DATE(start_time) = CURRENT_DATE + 1
+AND machine_id = '018f0000-0000-7000-8000-000000000102'
+AND NOT EXISTS (SELECT 1 FROM bookings WHERE user_id = '018f0000-0000-7000-8000-000000000003')
+LIMIT 1;
+
+-- Mark booked slots as unavailable
+UPDATE timeslots
+SET is_available = false
+WHERE id IN (
+    SELECT slot_id FROM bookings WHERE state = 1
+);
@@ -1,83 +0,0 @@
--- Drop tables if exist
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS timeslots CASCADE;
-DROP TABLE IF EXISTS schedule_machines CASCADE;
-DROP TABLE IF EXISTS schedules CASCADE;
-DROP TABLE IF EXISTS machines CASCADE;
-DROP TABLE IF EXISTS users CASCADE;
-
--- Create users table
-CREATE TABLE users (
-    id VARCHAR(255) PRIMARY KEY,
-    name VARCHAR(255) NOT NULL UNIQUE,
-    password_hash VARCHAR(255) NOT NULL,
-    role VARCHAR(50) NOT NULL,
-    is_blocked BOOLEAN NOT NULL DEFAULT FALSE,
-    email VARCHAR(255),
-    full_name VARCHAR(255),
-    room VARCHAR(10),
-    contract VARCHAR(20),
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
-
--- Create machines table
-CREATE TABLE machines (
-    id VARCHAR(255) PRIMARY KEY,
-    name VARCHAR(255) NOT NULL,
-    status VARCHAR(50) NOT NULL DEFAULT 'available',
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    CHECK (status IN ('available', 'blocked'))
-);
-
--- Create timeslots table
-CREATE TABLE timeslots (
-    id VARCHAR(255) PRIMARY KEY,
-    start_time TIMESTAMP NOT NULL,
-    end_time TIMESTAMP NOT NULL,
-    is_available BOOLEAN NOT NULL DEFAULT TRUE,
-    machine_id VARCHAR(255) NOT NULL,
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE
-);
-
--- Create bookings table
-CREATE TABLE bookings (
-    id VARCHAR(255) PRIMARY KEY,
-    user_id VARCHAR(255) NOT NULL,
-    machine_id VARCHAR(255) NOT NULL,
-    slot_id VARCHAR(255) NOT NULL,
-    state VARCHAR(50) NOT NULL DEFAULT 'active',
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
-    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE,
-    FOREIGN KEY (slot_id) REFERENCES timeslots(id) ON DELETE CASCADE,
-    CHECK (state IN ('active', 'canceled', 'deleted'))
-);
-
--- Create schedules table
-CREATE TABLE schedules (
-    id VARCHAR(255) PRIMARY KEY,
-    date DATE NOT NULL UNIQUE,
-    is_open BOOLEAN NOT NULL DEFAULT FALSE,
-    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
-);
-
--- Create schedule_machines table (связь расписания с машинками)
-CREATE TABLE schedule_machines (
-    id VARCHAR(255) PRIMARY KEY,
-    schedule_id VARCHAR(255) NOT NULL,
-    machine_id VARCHAR(255) NOT NULL,
-    FOREIGN KEY (schedule_id) REFERENCES schedules(id) ON DELETE CASCADE,
-    FOREIGN KEY (machine_id) REFERENCES machines(id) ON DELETE CASCADE,
-    UNIQUE(schedule_id, machine_id)
-);
-
--- Create indexes for better performance
-CREATE INDEX idx_users_name ON users(name);
-CREATE INDEX idx_machines_status ON machines(status);
-CREATE INDEX idx_timeslots_machine_id ON timeslots(machine_id);
-CREATE INDEX idx_timeslots_start_time ON timeslots(start_time);
-CREATE INDEX idx_bookings_user_id ON bookings(user_id);
-CREATE INDEX idx_bookings_slot_id ON bookings(slot_id);
-CREATE INDEX idx_bookings_state ON bookings(state);
-CREATE INDEX idx_schedules_date ON schedules(date);
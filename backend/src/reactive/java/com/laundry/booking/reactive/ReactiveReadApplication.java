@@ -0,0 +1,36 @@
+package com.laundry.booking.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Реактивное приложение только для чтения: Netty + WebFlux + R2DBC (сборка mvn -Preactive package).
+ * Отвечает на те же URL, что и основной backend, для самых нагруженных чтений:
+ * расписание на дату, записи пользователя, списки админки.
+ * Сканирует только свой пакет; JDBC, JPA и фоновые задачи основного приложения здесь не поднимаются.
+ * Профиль reactive не даёт основному приложению подхватить эти классы при сканировании com.laundry.booking.
+ */
+@Profile(ReactiveReadApplication.PROFILE)
+@SpringBootApplication(exclude = {
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    ReactiveUserDetailsServiceAutoConfiguration.class
+})
+public class ReactiveReadApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .profiles(PROFILE)
+            .run(args);
+    }
+}
@@ -0,0 +1,98 @@
+package com.laundry.booking.reactive;
+
+import com.laundry.booking.dto.AdminBookingDto;
+import com.laundry.booking.dto.UserBookingDto;
+import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Reactive Read Controller - те же URL чтения, что у ScheduleController, BookingController и AdminController.
+ * Списки отдаются потоком: JSON-массивом (application/json) или построчно (application/x-ndjson),
+ * строки из БД запрашиваются по мере записи ответа клиенту.
+ * Endpoints:
+ * - GET /api/schedule?date={date}&userId={userId}
+ * - GET /api/bookings/user/:userId
+ * - GET /api/admin/machines
+ * - GET /api/admin/bookings
+ * - GET /api/admin/users
+ */
+@Profile(ReactiveReadApplication.PROFILE)
+@RestController
+@RequestMapping("/api")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class ReactiveReadController {
+
+    private final ReactiveReadRepository reactiveReadRepository;
+
+    /**
+     * GET /api/schedule?date={date}&userId={userId}
+     * Документ собирает Postgres (CTE + json_agg), строка пишется в ответ как есть
+     * Response: ScheduleData
+     */
+    @GetMapping("/schedule")
+    public Mono<ResponseEntity<String>> getSchedule(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @RequestParam String userId
+    ) {
+        return reactiveReadRepository.findScheduleDocument(date)
+            .map(document -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(document));
+    }
+
+    /**
+     * GET /api/bookings/user/:userId
+     * Response: List<UserBookingDto>
+     */
+    @GetMapping(value = "/bookings/user/{userId}", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+    })
+    public Flux<UserBookingDto> getUserBookings(@PathVariable UUID userId) {
+        return reactiveReadRepository.findUserBookings(userId);
+    }
+
+    /**
+     * GET /api/admin/machines
+     * Response: List<Machine>
+     */
+    @GetMapping(value = "/admin/machines", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+    })
+    public Flux<Machine> getAllMachines() {
+        return reactiveReadRepository.findMachines();
+    }
+
+    /**
+     * GET /api/admin/bookings
+     * Response: List<AdminBookingDto>
+     */
+    @GetMapping(value = "/admin/bookings", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+    })
+    public Flux<AdminBookingDto> getAllBookings() {
+        return reactiveReadRepository.findAllBookings();
+    }
+
+    /**
+     * GET /api/admin/users
+     * Response: List<User>
+     */
+    @GetMapping(value = "/admin/users", produces = {
+        MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE
+    })
+    public Flux<User> getAllUsers() {
+        return reactiveReadRepository.findUsers();
+    }
+}
@@ -0,0 +1,155 @@
+package com.laundry.booking.reactive;
+
+import com.laundry.booking.dto.AdminBookingDto;
+import com.laundry.booking.dto.UserBookingDto;
+import com.laundry.booking.entity.BookingState;
+import com.laundry.booking.entity.Machine;
+import com.laundry.booking.entity.MachineStatus;
+import com.laundry.booking.entity.User;
+import com.laundry.booking.entity.UserRole;
+import com.laundry.booking.repository.ScheduleReadRepository;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Чтения реактивного приложения через R2DBC.
+ * Списки читаются порциями по fetch-size (портал Postgres): следующая порция запрашивается,
+ * только когда подписчик (ответ клиенту) готов принять строки, - медленный клиент не раздувает память.
+ * Запросы и поля ответов совпадают с чтениями основного приложения.
+ */
+@Profile(ReactiveReadApplication.PROFILE)
+@Repository
+@RequiredArgsConstructor
+public class ReactiveReadRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${reactive.fetch-size:256}")
+    private int fetchSize;
+
+    /**
+     * Готовый JSON расписания на дату (тот же запрос, что у schedule.read-path=json-agg)
+     */
+    public Mono<String> findScheduleDocument(LocalDate date) {
+        return databaseClient.sql(ScheduleReadRepository.SCHEDULE_DOCUMENT_SQL)
+                .bind("fromDate", date)
+                .bind("from", date.atStartOfDay())
+                .bind("to", date.plusDays(1).atStartOfDay())
+                .map((row, metadata) -> row.get(0, String.class))
+                .one();
+    }
+
+    /**
+     * Активные записи пользователя с машинкой и временем слота; прошедшие помечаются "past"
+     */
+    public Flux<UserBookingDto> findUserBookings(UUID userId) {
+        return databaseClient.sql("""
+                SELECT b.id, b.machine_id, m.name AS machine_name, b.slot_id,
+                       s.start_time, s.end_time, b.created_at
+                FROM bookings b
+                LEFT JOIN machines m ON m.id = b.machine_id
+                LEFT JOIN timeslots s ON s.id = b.slot_id AND s.start_time = b.slot_start_time
+                WHERE b.user_id = :userId AND b.state = 1
+                ORDER BY b.slot_start_time
+                """)
+                .bind("userId", userId)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> {
+                    LocalDateTime endTime = row.get("end_time", LocalDateTime.class);
+                    boolean past = endTime != null && endTime.isBefore(LocalDateTime.now());
+                    return new UserBookingDto(
+                            row.get("id", UUID.class),
+                            row.get("machine_id", UUID.class),
+                            row.get("machine_name", String.class),
+                            row.get("slot_id", UUID.class),
+                            row.get("start_time", LocalDateTime.class),
+                            endTime,
+                            past ? "past" : "active",
+                            row.get("created_at", LocalDateTime.class));
+                })
+                .all();
+    }
+
+    /**
+     * Все машинки (как GET /api/admin/machines основного приложения)
+     */
+    public Flux<Machine> findMachines() {
+        return databaseClient.sql("SELECT id, name, status, created_at FROM machines ORDER BY id")
+                .map((row, metadata) -> new Machine(
+                        row.get("id", UUID.class),
+                        row.get("name", String.class),
+                        MachineStatus.fromCode(shortValue(row, "status")),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    /**
+     * Все бронирования с пользователем, машинкой и временем слота одним запросом
+     */
+    public Flux<AdminBookingDto> findAllBookings() {
+        return databaseClient.sql("""
+                SELECT b.id, b.user_id, u.name AS user_name, u.full_name, u.room,
+                       b.machine_id, m.name AS machine_name, b.slot_id,
+                       s.start_time, s.end_time, b.state, b.created_at
+                FROM bookings b
+                LEFT JOIN users u ON u.id = b.user_id
+                LEFT JOIN machines m ON m.id = b.machine_id
+                LEFT JOIN timeslots s ON s.id = b.slot_id AND s.start_time = b.slot_start_time
+                ORDER BY b.id
+                """)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> new AdminBookingDto(
+                        row.get("id", UUID.class),
+                        row.get("user_id", UUID.class),
+                        row.get("user_name", String.class),
+                        row.get("full_name", String.class),
+                        row.get("room", String.class),
+                        row.get("machine_id", UUID.class),
+                        row.get("machine_name", String.class),
+                        row.get("slot_id", UUID.class),
+                        row.get("start_time", LocalDateTime.class),
+                        row.get("end_time", LocalDateTime.class),
+                        BookingState.fromCode(shortValue(row, "state")).getValue(),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    /**
+     * Все пользователи (без хэша пароля)
+     */
+    public Flux<User> findUsers() {
+        return databaseClient.sql("""
+                SELECT id, name, role, is_blocked, email, full_name, room, contract, created_at
+                FROM users
+                ORDER BY id
+                """)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map((row, metadata) -> new User(
+                        row.get("id", UUID.class),
+                        row.get("name", String.class),
+                        null,
+                        UserRole.fromCode(shortValue(row, "role")),
+                        row.get("is_blocked", Boolean.class),
+                        row.get("email", String.class),
+                        row.get("full_name", String.class),
+                        row.get("room", String.class),
+                        row.get("contract", String.class),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    // Коды статусов хранятся в SMALLINT NOT NULL
+    private static short shortValue(Readable row, String column) {
+        return row.get(column, Short.class);
+    }
+}
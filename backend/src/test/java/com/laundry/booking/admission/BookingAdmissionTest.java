@@ -0,0 +1,198 @@
+package com.laundry.booking.admission;
+
+import com.laundry.booking.cache.SlotLocator;
+import com.laundry.booking.dto.BookingResult;
+import com.laundry.booking.service.BookingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingAdmissionTest {
+
+    private static final LocalDateTime START = LocalDate.of(2030, 1, 10).atTime(8, 0);
+    private static final UUID MACHINE = UUID.randomUUID();
+
+    private final Map<UUID, SlotLocator.SlotRef> refs = new HashMap<>();
+    private final StubWriter writer = new StubWriter();
+    private BookingAdmission admission;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        writer.release.countDown();
+        if (admission != null) {
+            admission.destroy();
+        }
+    }
+
+    @Test
+    void commandsWaitingForBusyLaneAreWrittenInOneBatch() throws Exception {
+        admission = admission(Duration.ofSeconds(10));
+        List<UUID> slots = slots(4);
+        writer.blockFirstBatch();
+
+        CompletableFuture<BookingResult> first = submitAsync(slots.get(0));
+        assertThat(writer.firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        List<CompletableFuture<BookingResult>> waiting = slots.subList(1, 4).stream().map(this::submitAsync).toList();
+        awaitSubmitted(4);
+        writer.release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getResult()).isTrue();
+        for (CompletableFuture<BookingResult> result : waiting) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getResult()).isTrue();
+        }
+        assertThat(writer.batchSizes).containsExactly(1, 3);
+        assertThat(admission.stats().created()).isEqualTo(4);
+    }
+
+    @Test
+    void takenSlotIsRejectedWithoutWrite() {
+        admission = admission(Duration.ofSeconds(10));
+        UUID slot = slots(1).get(0);
+
+        assertThat(submit(slot).getResult()).isTrue();
+        BookingResult second = submit(slot);
+
+        assertThat(second.getResult()).isFalse();
+        assertThat(second.getMessage()).isEqualTo(BookingService.SLOT_UNAVAILABLE);
+        assertThat(writer.batchSizes).containsExactly(1);
+        assertThat(admission.stats().rejectedInMemory()).isEqualTo(1);
+    }
+
+    @Test
+    void slotOfAnotherMachineIsRejected() {
+        admission = admission(Duration.ofSeconds(10));
+        UUID slot = slots(1).get(0);
+
+        BookingResult result = admission.submit(UUID.randomUUID(), UUID.randomUUID(), slot, null);
+
+        assertThat(result.getMessage()).isEqualTo(BookingService.SLOT_UNAVAILABLE);
+        assertThat(admission.stats().submitted()).isZero();
+    }
+
+    @Test
+    void failedBatchIsRetryable() {
+        admission = admission(Duration.ofSeconds(10));
+        writer.fail = true;
+
+        BookingResult result = submit(slots(1).get(0));
+
+        assertThat(result.getResult()).isFalse();
+        assertThat(BookingAdmission.isRetryable(result)).isTrue();
+        assertThat(admission.stats().failed()).isEqualTo(1);
+    }
+
+    @Test
+    void timedOutCommandIsNotWritten() throws Exception {
+        admission = admission(Duration.ofMillis(200));
+        List<UUID> slots = slots(2);
+        writer.blockFirstBatch();
+
+        CompletableFuture<BookingResult> first = submitAsync(slots.get(0));
+        assertThat(writer.firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        BookingResult queued = submit(slots.get(1));
+        writer.release.countDown();
+
+        // Команда в работе могла записаться, ожидавшая в очереди - точно нет
+        assertThat(BookingAdmission.isRetryable(first.get(5, TimeUnit.SECONDS))).isTrue();
+        assertThat(BookingAdmission.isRetryable(queued)).isTrue();
+        assertThat(queued.getMessage()).isNotEqualTo(first.get().getMessage());
+        assertThat(writer.batchSizes).containsExactly(1);
+        assertThat(admission.stats().timedOut()).isEqualTo(2);
+    }
+
+    private BookingAdmission admission(Duration timeout) {
+        SlotLocator locator = new SlotLocator(null) {
+            @Override
+            public SlotRef find(UUID slotId) {
+                return refs.get(slotId);
+            }
+        };
+        return new BookingAdmission(writer, locator, true, 2, 32, timeout);
+    }
+
+    private List<UUID> slots(int count) {
+        List<UUID> slots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UUID slot = UUID.randomUUID();
+            refs.put(slot, new SlotLocator.SlotRef(MACHINE, START.plusHours(2L * i)));
+            writer.slots.put(slot, true);
+            slots.add(slot);
+        }
+        return slots;
+    }
+
+    private BookingResult submit(UUID slot) {
+        return admission.submit(UUID.randomUUID(), MACHINE, slot, null);
+    }
+
+    private CompletableFuture<BookingResult> submitAsync(UUID slot) {
+        return CompletableFuture.supplyAsync(() -> submit(slot));
+    }
+
+    private void awaitSubmitted(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.stats().submitted() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(admission.stats().submitted()).isEqualTo(count);
+    }
+
+    /**
+     * Запись пачек без БД: все слоты свободны, каждая команда создаёт запись
+     */
+    private static final class StubWriter extends BookingBatchWriter {
+
+        private final Map<UUID, Boolean> slots = new HashMap<>();
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        private volatile CountDownLatch release = new CountDownLatch(0);
+        private volatile boolean fail;
+
+        StubWriter() {
+            super(null, null);
+        }
+
+        void blockFirstBatch() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public Map<UUID, Boolean> loadSlots(UUID machineId, LocalDate date) {
+            return new HashMap<>(slots);
+        }
+
+        @Override
+        public List<Written> persist(UUID machineId, LocalDate date, List<Request> requests) throws SQLException {
+            if (fail) {
+                throw new SQLException("connection refused");
+            }
+            boolean first = batchSizes.isEmpty();
+            batchSizes.add(requests.size());
+            if (first) {
+                firstBatchStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            BookingResult created = new BookingResult(true, BookingService.BOOKING_CREATED);
+            return requests.stream().map(request -> new Written(Outcome.CREATED, created)).toList();
+        }
+    }
+}
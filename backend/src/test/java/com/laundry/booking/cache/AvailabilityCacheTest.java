@@ -0,0 +1,98 @@
+package com.laundry.booking.cache;
+
+import com.laundry.booking.cluster.Invalidation;
+import com.laundry.booking.repository.FreeSlotRepository;
+import com.laundry.booking.repository.FreeSlotRepository.SlotState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+    private static final UUID MACHINE = UUID.randomUUID();
+    private static final UUID FREE_SLOT = UUID.randomUUID();
+    private static final UUID BOOKED_SLOT = UUID.randomUUID();
+
+    private final FreeSlotRepository repository = mock(FreeSlotRepository.class);
+    private AvailabilityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findSlotStates(any(), any())).thenReturn(List.of(
+                new SlotState(DAY, MACHINE, FREE_SLOT, true),
+                new SlotState(DAY, MACHINE, BOOKED_SLOT, false)));
+        cache = new AvailabilityCache(repository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void loadsDayOnce() {
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(1, 2));
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(1, 2));
+
+        verify(repository, times(1)).findSlotStates(DAY, DAY);
+    }
+
+    @Test
+    void appliesSlotChanges() {
+        counts();
+
+        cache.onInvalidation(slot(FREE_SLOT, false));
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(0, 2));
+
+        cache.onInvalidation(slot(BOOKED_SLOT, true));
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(1, 2));
+    }
+
+    @Test
+    void repeatedSlotChangeIsAppliedOnce() {
+        counts();
+
+        // Сообщение о записи, уже попавшей в прочитанный день, и его повтор
+        cache.onInvalidation(slot(BOOKED_SLOT, false));
+        cache.onInvalidation(slot(FREE_SLOT, false));
+        cache.onInvalidation(slot(FREE_SLOT, false));
+
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(0, 2));
+    }
+
+    @Test
+    void ignoresUnknownSlot() {
+        counts();
+
+        cache.onInvalidation(slot(UUID.randomUUID(), true));
+
+        assertThat(counts()).isEqualTo(new AvailabilityCache.Counts(1, 2));
+    }
+
+    @Test
+    void dateChangeReloadsDay() {
+        counts();
+
+        cache.onInvalidation(Invalidation.date(DAY));
+        counts();
+
+        verify(repository, times(2)).findSlotStates(DAY, DAY);
+    }
+
+    private AvailabilityCache.Counts counts() {
+        return cache.get(DAY, DAY).get(DAY).get(MACHINE);
+    }
+
+    private static Invalidation slot(UUID slotId, boolean free) {
+        LocalDateTime start = DAY.atTime(8, 0);
+        return Invalidation.slot(slotId, MACHINE, start, start.plusHours(2), free);
+    }
+}
@@ -0,0 +1,72 @@
+package com.laundry.booking.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void loadsOnceAndServesFromCache() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get("a", key -> key + loads.incrementAndGet())).isEqualTo("a1");
+        assertThat(cache.get("a", key -> key + loads.incrementAndGet())).isEqualTo("a1");
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void valueLoadedDuringInvalidationIsNotCached() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+
+        // Инвалидация пришла, пока шла загрузка: прочитанное значение могло устареть
+        assertThat(cache.get("a", key -> {
+            cache.invalidate("b");
+            return "stale";
+        })).isEqualTo("stale");
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.get("a", key -> "fresh")).isEqualTo("fresh");
+        assertThat(cache.getIfPresent("a")).isEqualTo("fresh");
+    }
+
+    @Test
+    void putWithOldGenerationIsIgnored() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ofMinutes(1));
+        long generation = cache.generation();
+        cache.invalidateAll();
+
+        cache.put("a", "stale", generation);
+
+        assertThat(cache.getIfPresent("a")).isNull();
+    }
+
+    @Test
+    void evictsLeastRecentlyRead() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, Duration.ofMinutes(1));
+        cache.put("a", "1", cache.generation());
+        cache.put("b", "2", cache.generation());
+        cache.getIfPresent("a");
+
+        cache.put("c", "3", cache.generation());
+
+        assertThat(cache.getIfPresent("a")).isEqualTo("1");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntryIsNotServed() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, Duration.ZERO);
+        cache.put("a", "1", cache.generation());
+
+        assertThat(cache.get("a", key -> "2")).isEqualTo("2");
+    }
+}
@@ -0,0 +1,54 @@
+package com.laundry.booking.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionedCacheTest {
+
+    @Test
+    void servesOnlyMatchingVersion() {
+        VersionedCache<String, String> cache = new VersionedCache<>(10, Duration.ofMinutes(1));
+        cache.put("day", 1, "v1");
+
+        assertThat(cache.get("day", 1)).isEqualTo("v1");
+        assertThat(cache.get("day", 2)).isNull();
+    }
+
+    @Test
+    void olderVersionDoesNotOverwriteNewer() {
+        VersionedCache<String, String> cache = new VersionedCache<>(10, Duration.ofMinutes(1));
+        cache.put("day", 2, "v2");
+
+        // Медленная загрузка, начатая до мутации
+        cache.put("day", 1, "v1");
+
+        assertThat(cache.get("day", 2)).isEqualTo("v2");
+        assertThat(cache.get("day", 1)).isNull();
+    }
+
+    @Test
+    void keepsCachingNewKeysWhenFull() {
+        VersionedCache<Integer, String> cache = new VersionedCache<>(2, Duration.ofMinutes(1));
+        cache.put(1, 0, "a");
+        cache.put(2, 0, "b");
+        cache.get(1, 0);
+
+        cache.put(3, 0, "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(3, 0)).isEqualTo("c");
+        assertThat(cache.get(1, 0)).isEqualTo("a");
+        assertThat(cache.get(2, 0)).isNull();
+    }
+
+    @Test
+    void expiredEntryIsNotServed() {
+        VersionedCache<String, String> cache = new VersionedCache<>(10, Duration.ZERO);
+        cache.put("day", 1, "v1");
+
+        assertThat(cache.get("day", 1)).isNull();
+    }
+}
@@ -0,0 +1,60 @@
+package com.laundry.booking.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    @Test
+    void rotatingUserIdDoesNotBypassLimit() throws Exception {
+        RateLimitFilter filter = filter();
+
+        // Ёмкость пользователя 2, адреса - 4: новые userId с одного адреса упираются в корзину адреса
+        for (int i = 0; i < 4; i++) {
+            assertThat(request(filter, UUID.randomUUID().toString(), "10.0.0.1")).isEqualTo(200);
+        }
+        assertThat(request(filter, UUID.randomUUID().toString(), "10.0.0.1")).isEqualTo(429);
+        assertThat(request(filter, UUID.randomUUID().toString(), "10.0.0.2")).isEqualTo(200);
+    }
+
+    @Test
+    void userBucketLimitsOneUser() throws Exception {
+        RateLimitFilter filter = filter();
+
+        assertThat(request(filter, "user-1", "10.0.0.1")).isEqualTo(200);
+        assertThat(request(filter, "user-1", "10.0.0.2")).isEqualTo(200);
+        assertThat(request(filter, "user-1", "10.0.0.3")).isEqualTo(429);
+    }
+
+    private static RateLimitFilter filter() {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setMethod("GET");
+        policy.setPaths(List.of("/api/schedule"));
+        policy.setKey(RateLimitProperties.KeyType.USER);
+        policy.setCapacity(2);
+        policy.setRefillTokens(1);
+        policy.setRefillPeriod(Duration.ofMinutes(1));
+        policy.setIpMultiplier(2);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setStripes(1024);
+        properties.getPolicies().put("schedule", policy);
+        return new RateLimitFilter(new RateLimiters(properties), properties);
+    }
+
+    private static int request(RateLimitFilter filter, String userId, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/schedule");
+        request.setParameter("userId", userId);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,66 @@
+package com.laundry.booking.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketLimiterTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    @Test
+    void allowsBurstThenRejectsWithWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 16, 3, 1, MINUTE);
+
+        assertThat(limiter.tryAcquire(42)).isZero();
+        assertThat(limiter.tryAcquire(42)).isZero();
+        assertThat(limiter.tryAcquire(42)).isZero();
+
+        long wait = limiter.tryAcquire(42);
+        assertThat(wait).isPositive().isLessThanOrEqualTo(MINUTE);
+        assertThat(limiter.stats()).isEqualTo(new TokenBucketLimiter.Stats(3, 1));
+    }
+
+    @Test
+    void keysInDifferentStripesHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1024, 1, 1, MINUTE);
+
+        assertThat(limiter.tryAcquire(1)).isZero();
+        assertThat(limiter.tryAcquire(1)).isPositive();
+        assertThat(limiter.tryAcquire(2)).isZero();
+    }
+
+    @Test
+    void drainReturnsConsumptionOnce() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 5, 1, MINUTE);
+        limiter.tryAcquire(7);
+        limiter.tryAcquire(7);
+
+        TokenBucketLimiter.Consumption consumption = limiter.drainConsumption();
+        assertThat(consumption.stripes()).containsExactly(0);
+        assertThat(consumption.costsMicros()).containsExactly(2 * TimeUnit.MINUTES.toMicros(1));
+
+        assertThat(limiter.drainConsumption().stripes()).isEmpty();
+    }
+
+    @Test
+    void mergeAppliesClusterConsumption() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 2, 1, MINUTE);
+
+        // Другие узлы израсходовали всю корзину
+        limiter.merge(0, 2 * TimeUnit.MINUTES.toMicros(1));
+
+        assertThat(limiter.tryAcquire(7)).isPositive();
+    }
+
+    @Test
+    void rejectsInvalidPolicy() {
+        assertThatThrownBy(() -> new TokenBucketLimiter("test", 3, 1, 1, MINUTE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucketLimiter("test", 4, 0, 1, MINUTE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
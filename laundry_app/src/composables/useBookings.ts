@@ -1,4 +1,5 @@
 import { ref, computed } from 'vue'
+import { postIdempotent } from '@/utils/idempotency'
 
 const API_BASE = '/api'
 
@@ -27,16 +28,10 @@ export function useBookings() {
     error.value = null
 
     try {
-      const response = await fetch(`${API_BASE}/bookings/create`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({
-          userId,
-          machineId,
-          slotId
-        })
+      const response = await postIdempotent(`${API_BASE}/bookings/create`, {
+        userId,
+        machineId,
+        slotId
       })
 
       const data = await response.json()
@@ -62,15 +57,9 @@ export function useBookings() {
     error.value = null
 
     try {
-      const response = await fetch(`${API_BASE}/bookings/cancel`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({
-          bookingId,
-          userId
-        })
+      const response = await postIdempotent(`${API_BASE}/bookings/cancel`, {
+        bookingId,
+        userId
       })
 
       const data = await response.json()
@@ -100,16 +89,10 @@ export function useBookings() {
     error.value = null
 
     try {
-      const response = await fetch(`${API_BASE}/bookings/reschedule`, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-        body: JSON.stringify({
-          bookingId,
-          newSlotId,
-          userId
-        })
+      const response = await postIdempotent(`${API_BASE}/bookings/reschedule`, {
+        bookingId,
+        newSlotId,
+        userId
       })
 
       const data = await response.json()
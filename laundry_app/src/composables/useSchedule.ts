@@ -6,7 +6,6 @@ export interface Machine {
   id: string
   name: string
   status: string
-  createdAt: string
   alreadyBlocked: boolean
 }
 
@@ -16,7 +15,6 @@ export interface Timeslot {
   endTime: string
   isAvailable: boolean
   machineId: string
-  createdAt: string
   slotId: string
 }
 
@@ -25,8 +23,8 @@ export interface Booking {
   userId: string
   machineId: string
   slotId: string
+  slotStartTime: string
   state: string
-  createdAt: string
 }
 
 export interface ScheduleData {
@@ -68,6 +66,25 @@ export function useSchedule() {
     }
   }
 
+  // Получить расписания на диапазон дат [from, to] одним запросом
+  const fetchScheduleRange = async (from: string, to: string, userId: string) => {
+    try {
+      const response = await fetch(
+        `${API_BASE}/schedule/range?from=${from}&to=${to}&userId=${userId}`
+      )
+
+      if (!response.ok) {
+        throw new Error('Failed to fetch schedule range')
+      }
+
+      const data: Record<string, ScheduleData> = await response.json()
+      return { success: true, data }
+    } catch (err) {
+      console.error('Fetch schedule range error:', err)
+      return { success: false, error: 'Network error. Please try again.' }
+    }
+  }
+
   // Получить доступные слоты для машины на дату
   const getAvailableSlots = (machineId: string) => {
     if (!scheduleData.value) return []
@@ -106,6 +123,7 @@ export function useSchedule() {
     loading,
     error,
     fetchSchedule,
+    fetchScheduleRange,
     getAvailableSlots,
     getUserBookings,
     getMachine,
@@ -0,0 +1,29 @@
+// Ключ идемпотентности: один на действие пользователя, общий для всех повторов запроса.
+// getRandomValues доступен и без HTTPS (в отличие от crypto.randomUUID)
+export function newIdempotencyKey(): string {
+  const bytes = crypto.getRandomValues(new Uint8Array(16))
+  return Array.from(bytes, b => b.toString(16).padStart(2, '0')).join('')
+}
+
+// POST с заголовком Idempotency-Key; при сетевой ошибке запрос повторяется с тем же ключом,
+// и сервер возвращает исход первого выполнения вместо повторной записи
+export async function postIdempotent(url: string, body: unknown, retries = 2): Promise<Response> {
+  const key = newIdempotencyKey()
+  for (let attempt = 0; ; attempt++) {
+    try {
+      return await fetch(url, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+          'Idempotency-Key': key,
+        },
+        body: JSON.stringify(body)
+      })
+    } catch (err) {
+      if (attempt >= retries) {
+        throw err
+      }
+      await new Promise(resolve => setTimeout(resolve, 500 * (attempt + 1)))
+    }
+  }
+}